@@ -28,4 +28,8 @@ public final class AsyncHandler {
     public static void post(Runnable r) {
         sHandler.post(r);
     }
+
+    public static void postDelayed(Runnable r, long delayMillis) {
+        sHandler.postDelayed(r, delayMillis);
+    }
 }
@@ -29,6 +29,7 @@ import android.content.res.ColorStateList;
 import android.graphics.Color;
 import android.graphics.drawable.Drawable;
 import android.os.Bundle;
+import android.os.Looper;
 import android.view.KeyEvent;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -49,6 +50,7 @@ import androidx.fragment.app.Fragment;
 import androidx.viewpager.widget.ViewPager;
 import androidx.viewpager.widget.ViewPager.OnPageChangeListener;
 
+import com.best.deskclock.controller.Controller;
 import com.best.deskclock.data.DataModel;
 import com.best.deskclock.data.DataModel.SilentSetting;
 import com.best.deskclock.data.OnSilentSettingsListener;
@@ -363,6 +365,15 @@ public class DeskClock extends AppCompatActivity
 
         // Honor changes to the selected tab from outside entities.
         UiDataModel.getUiDataModel().addTabListener(mTabChangeWatcher);
+
+        // Update the launcher shortcuts when the app is opened, once the main thread is idle.
+        // Processes started only for broadcasts or services skip this work.
+        if (savedInstanceState == null) {
+            Looper.myQueue().addIdleHandler(() -> {
+                Controller.getController().updateShortcuts();
+                return false;
+            });
+        }
     }
 
     @Override
@@ -11,12 +11,16 @@ import android.app.Application;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.net.Uri;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
 
 import androidx.preference.PreferenceManager;
 
 import com.best.deskclock.controller.Controller;
 import com.best.deskclock.controller.ThemeController;
 import com.best.deskclock.data.DataModel;
+import com.best.deskclock.events.JournalEventTracker;
 import com.best.deskclock.events.LogEventTracker;
 import com.best.deskclock.uidata.UiDataModel;
 import com.best.deskclock.utils.LogUtils;
@@ -30,8 +34,12 @@ public class DeskClockApplication extends Application {
     @SuppressLint("StaticFieldLeak")
     private static Context applicationContext;
 
+    private static volatile SharedPreferences sDefaultSharedPreferences;
+
     @Override
     public void onCreate() {
+        Trace.beginSection("DeskClockApplication.onCreate");
+        final long startTime = SystemClock.uptimeMillis();
         super.onCreate();
 
         applicationContext = getApplicationContext();
@@ -42,7 +50,16 @@ public class DeskClockApplication extends Application {
         UiDataModel.getUiDataModel().init(applicationContext, prefs);
         Controller.getController().setContext(applicationContext);
         Controller.getController().addEventTracker(new LogEventTracker(applicationContext));
-        Controller.getController().updateShortcuts();
+        Controller.getController().addEventTracker(JournalEventTracker.getInstance(applicationContext));
+
+        final long endTime = SystemClock.uptimeMillis();
+        Trace.endSection();
+        if (SdkUtils.isAtLeastAndroid7()) {
+            LogUtils.i("Application created in %d ms, %d ms after the process started",
+                    endTime - startTime, endTime - Process.getStartUptimeMillis());
+        } else {
+            LogUtils.i("Application created in %d ms", endTime - startTime);
+        }
     }
 
     public static Context getContext() {
@@ -51,8 +68,25 @@ public class DeskClockApplication extends Application {
 
     /**
      * Returns the default {@link SharedPreferences} instance from the underlying storage context.
+     * <p>
+     * The storage context is resolved and the preferences are migrated once per process; the
+     * same instance is returned afterwards.
      */
     public static SharedPreferences getDefaultSharedPreferences(Context context) {
+        SharedPreferences prefs = sDefaultSharedPreferences;
+        if (prefs == null) {
+            synchronized (DeskClockApplication.class) {
+                prefs = sDefaultSharedPreferences;
+                if (prefs == null) {
+                    prefs = createDefaultSharedPreferences(context);
+                    sDefaultSharedPreferences = prefs;
+                }
+            }
+        }
+        return prefs;
+    }
+
+    private static SharedPreferences createDefaultSharedPreferences(Context context) {
         final Context storageContext;
 
         if (SdkUtils.isAtLeastAndroid7()) {
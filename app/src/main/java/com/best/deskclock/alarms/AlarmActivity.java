@@ -19,6 +19,7 @@ import android.animation.PropertyValuesHolder;
 import android.annotation.SuppressLint;
 import android.content.BroadcastReceiver;
 import android.content.ComponentName;
+import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
@@ -34,11 +35,13 @@ import android.os.Bundle;
 import android.os.Handler;
 import android.os.IBinder;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.util.TypedValue;
 import android.view.KeyEvent;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
 import android.view.WindowManager;
 import android.view.animation.AccelerateDecelerateInterpolator;
 import android.widget.ImageView;
@@ -52,11 +55,14 @@ import androidx.constraintlayout.widget.ConstraintLayout;
 import androidx.core.graphics.ColorUtils;
 import androidx.core.graphics.drawable.DrawableCompat;
 import androidx.core.view.WindowCompat;
+import androidx.lifecycle.Lifecycle;
 
+import com.best.deskclock.AsyncHandler;
 import com.best.deskclock.R;
 import com.best.deskclock.data.DataModel;
 import com.best.deskclock.data.DataModel.PowerButtonBehavior;
 import com.best.deskclock.data.DataModel.VolumeButtonBehavior;
+import com.best.deskclock.data.Settings;
 import com.best.deskclock.data.SettingsDAO;
 import com.best.deskclock.events.Events;
 import com.best.deskclock.provider.Alarm;
@@ -88,6 +94,8 @@ public class AlarmActivity extends AppCompatActivity implements View.OnClickList
         @Override
         public void onServiceConnected(ComponentName name, IBinder service) {
             LOGGER.i("Finished binding to AlarmService");
+            mAlarmService = (AlarmService.LocalBinder) service;
+            onAlarmServiceConnected();
         }
 
         @Override
@@ -98,6 +106,13 @@ public class AlarmActivity extends AppCompatActivity implements View.OnClickList
 
     private SharedPreferences mPrefs;
     private final Handler mHandler = new Handler(Looper.getMainLooper());
+    /**
+     * Gives access to the firing session of the AlarmService once it is first bound.
+     */
+    private AlarmService.LocalBinder mAlarmService;
+    /**
+     * The displayed alarm; {@code null} until the AlarmService is bound.
+     */
     private AlarmInstance mAlarmInstance;
     private boolean mAlarmHandled;
     private VolumeButtonBehavior mVolumeBehavior;
@@ -107,6 +122,14 @@ public class AlarmActivity extends AppCompatActivity implements View.OnClickList
     private int mSnoozeMinutes;
     private boolean mIsSwipeActionEnabled;
     private boolean mReceiverRegistered;
+    /**
+     * The elapsed realtime at which the activity was created, to measure the time to first frame.
+     */
+    private long mCreateTime;
+    /**
+     * Whether the alarm is deleted once dismissed; {@code null} until it is first needed.
+     */
+    private Boolean mOccasionalAlarmDeletedAfterUse;
     /**
      * Whether the AlarmService is currently bound
      */
@@ -115,6 +138,7 @@ public class AlarmActivity extends AppCompatActivity implements View.OnClickList
     private TextView mAlertTitleView;
     private TextView mAlertInfoView;
     private ViewGroup mContentView;
+    private TextView mTitleView;
     private ConstraintLayout mSlideZoneLayout;
     private PillView mPillView;
     private MaterialButton mAlarmButton;
@@ -174,6 +198,7 @@ public class AlarmActivity extends AppCompatActivity implements View.OnClickList
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
+        mCreateTime = SystemClock.elapsedRealtime();
         mPrefs = getDefaultSharedPreferences(this);
 
         // Register Power button (screen off) intent receiver
@@ -186,26 +211,17 @@ public class AlarmActivity extends AppCompatActivity implements View.OnClickList
         }
 
         setVolumeControlStream(AudioManager.STREAM_ALARM);
-        final long instanceId = AlarmInstance.getId(getIntent().getData());
-        mAlarmInstance = AlarmInstance.getInstance(getContentResolver(), instanceId);
-        if (mAlarmInstance == null) {
-            // The alarm was deleted before the activity got created, so just finish()
-            LOGGER.e("Error displaying alarm for intent: %s", getIntent());
-            finish();
-            return;
-        } else if (mAlarmInstance.mAlarmState != AlarmInstance.FIRED_STATE) {
-            LOGGER.i("Skip displaying alarm for instance: %s", mAlarmInstance);
-            finish();
-            return;
-        }
 
-        LOGGER.i("Displaying alarm for instance: %s", mAlarmInstance);
+        // Nothing can be handled until the firing alarm is taken from the AlarmService.
+        mAlarmHandled = true;
+
+        final Settings settings = Settings.get(this);
 
         // Get the volume/camera button behavior setting
-        mVolumeBehavior = SettingsDAO.getAlarmVolumeButtonBehavior(mPrefs);
+        mVolumeBehavior = settings.getAlarmVolumeButtonBehavior();
 
         // Get the power button behavior setting
-        mPowerBehavior = SettingsDAO.getAlarmPowerButtonBehavior(mPrefs);
+        mPowerBehavior = settings.getAlarmPowerButtonBehavior();
 
         // To manually manage insets
         WindowCompat.setDecorFitsSystemWindows(getWindow(), false);
@@ -236,8 +252,8 @@ public class AlarmActivity extends AppCompatActivity implements View.OnClickList
                 : SettingsDAO.getAlarmBackgroundColor(mPrefs);
         getWindow().setBackgroundDrawable(new ColorDrawable(alarmBackgroundColor));
 
-        mSnoozeMinutes = SettingsDAO.getSnoozeLength(mPrefs);
-        mIsSwipeActionEnabled = SettingsDAO.isSwipeActionEnabled(mPrefs);
+        mSnoozeMinutes = settings.getSnoozeLength();
+        mIsSwipeActionEnabled = settings.isSwipeActionEnabled();
 
         int alarmClockColor = SettingsDAO.getAlarmClockColor(mPrefs);
         float alarmDigitalClockFontSize = SettingsDAO.getAlarmDigitalClockFontSize(mPrefs);
@@ -267,12 +283,11 @@ public class AlarmActivity extends AppCompatActivity implements View.OnClickList
         digitalClock.setTextSize(TypedValue.COMPLEX_UNIT_SP, alarmDigitalClockFontSize);
         digitalClock.setTextColor(alarmClockColor);
 
-        final TextView titleView = mContentView.findViewById(R.id.alarm_title);
-        titleView.setText(mAlarmInstance.getLabelOrDefault(this));
-        titleView.setTextSize(TypedValue.COMPLEX_UNIT_SP, mAlarmTitleFontSize);
-        titleView.setTextColor(mAlarmTitleColor);
+        mTitleView = mContentView.findViewById(R.id.alarm_title);
+        mTitleView.setTextSize(TypedValue.COMPLEX_UNIT_SP, mAlarmTitleFontSize);
+        mTitleView.setTextColor(mAlarmTitleColor);
         // Allow text scrolling (all other attributes are indicated in the "alarm_activity.xml" file)
-        titleView.setSelected(true);
+        mTitleView.setSelected(true);
 
         if (mIsSwipeActionEnabled) {
             mSlideZoneLayout.setVisibility(VISIBLE);
@@ -282,116 +297,15 @@ public class AlarmActivity extends AppCompatActivity implements View.OnClickList
             int snoozeTitleColor = SettingsDAO.getSnoozeTitleColor(mPrefs);
             int dismissTitleColor = SettingsDAO.getDismissTitleColor(mPrefs);
             int alarmButtonColor = SettingsDAO.getAlarmButtonColor(mPrefs, this);
-            int slideZoneColor = SettingsDAO.getSlideZoneColor(mPrefs);
-
-            final Drawable alarmSlideZoneBackground = AppCompatResources.getDrawable(this, R.drawable.bg_alarm_slide_zone);
-            if (alarmSlideZoneBackground != null) {
-                DrawableCompat.setTint(alarmSlideZoneBackground, slideZoneColor);
-            }
-            mSlideZoneLayout.setBackground(alarmSlideZoneBackground);
 
             mAlarmButton.setBackgroundColor(alarmButtonColor);
             mAlarmButton.setOnTouchListener(this);
-            if (mSnoozeMinutes == -1 || !mAlarmInstance.mAlarmSnoozeActions) {
-                if (isOccasionalAlarmDeletedAfterUse()) {
-                    mAlarmButton.setContentDescription(getString(
-                            R.string.description_direction_both_for_occasional_non_repeatable_alarm));
-                } else {
-                    mAlarmButton.setContentDescription(getString(
-                            R.string.description_direction_both_for_non_repeatable_alarm));
-                }
-            } else {
-                if (isOccasionalAlarmDeletedAfterUse()) {
-                    mAlarmButton.setContentDescription(getString(
-                            R.string.description_direction_both_for_occasional_alarm));
-                } else {
-                    mAlarmButton.setContentDescription(getString(R.string.description_direction_both));
-                }
-            }
 
-            mSnoozeActionText.setText(mSnoozeMinutes == -1 || !mAlarmInstance.mAlarmSnoozeActions
-                    ? getString(R.string.button_action_dismiss) : getString(R.string.button_action_snooze));
             mSnoozeActionText.setTextColor(snoozeTitleColor);
 
             mDismissActionText.setTextColor(dismissTitleColor);
 
             mPillView.setFillColor(ColorUtils.setAlphaComponent(alarmButtonColor, 128));
-            mPillView.post(() -> {
-                mPillView.setPillHeight(mAlarmButton.getHeight() - mAlarmButton.getInsetTop() - mAlarmButton.getInsetBottom());
-                final float pillStretchWidth = getAvailableSlideZoneWidth() / 2f;
-                final int originalFillColor = mPillView.getFillColor();
-
-                // Move to left
-                AnimatorSet toLeftAnimator = new AnimatorSet();
-                toLeftAnimator.playTogether(
-                        translationAnimator(mPillView, pillStretchWidth,
-                                mPillView.getPillCenterX() - pillStretchWidth / 2),
-                        alphaAnimator(mPillView, originalFillColor)
-                );
-                toLeftAnimator.setStartDelay(TRANSLATION_DURATION_START_DELAY);
-                toLeftAnimator.setDuration(TRANSLATION_DURATION_MILLIS);
-
-                // Apply alpha
-                Animator alphaLeft = alphaAnimator(mPillView, ColorUtils.setAlphaComponent(originalFillColor, 0));
-                alphaLeft.setDuration(ALPHA_DURATION_MILLIS);
-
-                // Reset position and alpha
-                AnimatorSet resetAndRestoreLeft = new AnimatorSet();
-                resetAndRestoreLeft.playTogether(
-                        translationAnimator(mPillView, 0, mPillView.getPillCenterX()),
-                        alphaAnimator(mPillView, originalFillColor)
-                );
-                resetAndRestoreLeft.setDuration(0);
-
-                // Move to right
-                Animator toRightAnimator = translationAnimator(mPillView, pillStretchWidth,
-                        mPillView.getPillCenterX() + pillStretchWidth / 2);
-                toRightAnimator.setStartDelay(TRANSLATION_DURATION_DELAY);
-                toRightAnimator.setDuration(TRANSLATION_DURATION_MILLIS);
-
-                // Apply alpha
-                Animator alphaRight = alphaAnimator(mPillView, ColorUtils.setAlphaComponent(originalFillColor, 0));
-                alphaRight.setDuration(ALPHA_DURATION_MILLIS);
-
-                // Reset position and alpha
-                AnimatorSet resetAndRestoreRight = new AnimatorSet();
-                resetAndRestoreRight.playTogether(
-                        translationAnimator(mPillView, 0, mPillView.getPillCenterX()),
-                        alphaAnimator(mPillView, originalFillColor)
-                );
-                resetAndRestoreRight.setDuration(0);
-
-                // Sequence
-                AnimatorSet translationSequence = new AnimatorSet();
-                translationSequence.playSequentially(toLeftAnimator, alphaLeft, resetAndRestoreLeft,
-                        toRightAnimator, alphaRight, resetAndRestoreRight);
-                translationSequence.setInterpolator(new AccelerateDecelerateInterpolator());
-
-                // Listener to repeat animation if needed
-                translationSequence.addListener(new AnimatorListenerAdapter() {
-
-                    private boolean wasCancelled = false;
-
-                    @Override
-                    public void onAnimationCancel(Animator animation) {
-                        mPillView.setFillColor(Color.TRANSPARENT);
-
-                        wasCancelled = true;
-                    }
-
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        if (!wasCancelled && mTranslationAnimator == animation) {
-                            mTranslationAnimator.start();
-                        }
-
-                        wasCancelled = false;
-                    }
-                });
-
-                mTranslationAnimator = translationSequence;
-                mTranslationAnimator.start();
-            });
         } else {
             mSlideZoneLayout.setVisibility(GONE);
             mSnoozeButton.setVisibility(VISIBLE);
@@ -401,30 +315,101 @@ public class AlarmActivity extends AppCompatActivity implements View.OnClickList
             mSnoozeButton.setBackgroundColor(SettingsDAO.getSnoozeButtonColor(mPrefs, this));
             mDismissButton.setBackgroundColor(SettingsDAO.getDismissButtonColor(mPrefs, this));
 
-            if (mSnoozeMinutes == -1 || !mAlarmInstance.mAlarmSnoozeActions) {
-                mSnoozeButton.setText(getString(R.string.button_action_dismiss));
+            // Allow text scrolling (all other attributes are indicated in the "alarm_activity.xml" file)
+            mSnoozeButton.setSelected(true);
+            mDismissButton.setSelected(true);
+        }
 
-                if (isOccasionalAlarmDeletedAfterUse()) {
-                    mSnoozeButton.setContentDescription(getString(
-                            R.string.description_dismiss_button_for_occasional_alarm));
-                } else {
-                    mSnoozeButton.setContentDescription(getString(
-                                R.string.description_dismiss_button));
+        AlarmUtils.hideSystemBarsOfTriggeredAlarms(getWindow(), getWindow().getDecorView());
+
+        // The alarm is displayed once it is taken from the AlarmService, bound in onResume().
+        mContentView.setVisibility(View.INVISIBLE);
+    }
+
+    /**
+     * Displays the alarm of the intent once the AlarmService is bound. The activity finishes if
+     * the alarm is no longer firing, e.g. if it was handled while the activity was paused.
+     */
+    private void onAlarmServiceConnected() {
+        if (mAlarmInstance != null && mAlarmHandled) {
+            // The handled alarm keeps showing its alert.
+            return;
+        }
+
+        final long instanceId = AlarmInstance.getId(getIntent().getData());
+        final AlarmInstance instance = mAlarmService.getFiringAlarmCopy(instanceId);
+        if (instance == null) {
+            LOGGER.i("Skip displaying alarm for instance: %d", instanceId);
+            finish();
+            return;
+        }
+
+        if (mAlarmInstance == null) {
+            bindAlarm(instance);
+
+            // Only what is needed to show the alarm and handle it is set up before the first
+            // frame; the rest of the screen is completed once that frame is drawn.
+            final ViewTreeObserver viewTreeObserver = getWindow().getDecorView().getViewTreeObserver();
+            viewTreeObserver.addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+                @Override
+                public boolean onPreDraw() {
+                    viewTreeObserver.removeOnPreDrawListener(this);
+                    // Runs right after the traversal that draws the frame.
+                    mHandler.postAtFrontOfQueue(AlarmActivity.this::onFirstFrameDrawn);
+                    return true;
                 }
-            } else {
-                mSnoozeButton.setText(getString(R.string.button_action_snooze));
-                mSnoozeButton.setContentDescription(getString(R.string.description_snooze_button));
-            }
+            });
+        }
+    }
 
-            if (isOccasionalAlarmDeletedAfterUse()) {
-                mDismissButton.setContentDescription(getString(R.string.description_dismiss_button_for_occasional_alarm));
-            } else {
-                mDismissButton.setContentDescription(getString(R.string.description_dismiss_button));
+    /**
+     * Displays the given firing alarm and makes it ready to be handled.
+     */
+    private void bindAlarm(AlarmInstance instance) {
+        LOGGER.i("Displaying alarm for instance: %s", instance);
+
+        mAlarmInstance = instance;
+        mAlarmHandled = false;
+        mOccasionalAlarmDeletedAfterUse = null;
+
+        mTitleView.setText(instance.getLabelOrDefault(this));
+
+        final boolean snoozeDismisses = mSnoozeMinutes == -1 || !instance.mAlarmSnoozeActions;
+        final String snoozeText = getString(snoozeDismisses
+                ? R.string.button_action_dismiss
+                : R.string.button_action_snooze);
+        if (mIsSwipeActionEnabled) {
+            mSnoozeActionText.setText(snoozeText);
+        } else {
+            mSnoozeButton.setText(snoozeText);
+        }
+
+        mContentView.setVisibility(VISIBLE);
+
+        loadOccasionalAlarmDeletedAfterUse(instance);
+    }
+
+    /**
+     * Reports the time to first frame and sets up the parts of the screen that are not needed to
+     * display the alarm: the slide zone background, the pill animation and the ringtone title.
+     */
+    private void onFirstFrameDrawn() {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+
+        LOGGER.i("First frame drawn %d ms after creation",
+                SystemClock.elapsedRealtime() - mCreateTime);
+        AlarmFireTracer.mark(mAlarmInstance.mId, AlarmFireTracer.STAGE_FIRST_FRAME);
+
+        if (mIsSwipeActionEnabled) {
+            final Drawable alarmSlideZoneBackground = AppCompatResources.getDrawable(this, R.drawable.bg_alarm_slide_zone);
+            if (alarmSlideZoneBackground != null) {
+                DrawableCompat.setTint(alarmSlideZoneBackground, SettingsDAO.getSlideZoneColor(mPrefs));
             }
+            mSlideZoneLayout.setBackground(alarmSlideZoneBackground);
 
-            // Allow text scrolling (all other attributes are indicated in the "alarm_activity.xml" file)
-            mSnoozeButton.setSelected(true);
-            mDismissButton.setSelected(true);
+            startPillAnimation();
         }
 
         boolean isRingtoneTitleDisplayed = SettingsDAO.isRingtoneTitleDisplayed(mPrefs);
@@ -434,7 +419,88 @@ public class AlarmActivity extends AppCompatActivity implements View.OnClickList
             displayRingtoneTitle();
         }
 
-        AlarmUtils.hideSystemBarsOfTriggeredAlarms(getWindow(), getWindow().getDecorView());
+        reportFullyDrawn();
+    }
+
+    /**
+     * Starts the animation of the pill showing the swipe directions, now that the slide zone has
+     * been laid out.
+     */
+    private void startPillAnimation() {
+        mPillView.setPillHeight(mAlarmButton.getHeight() - mAlarmButton.getInsetTop() - mAlarmButton.getInsetBottom());
+        final float pillStretchWidth = getAvailableSlideZoneWidth() / 2f;
+        final int originalFillColor = mPillView.getFillColor();
+
+        // Move to left
+        AnimatorSet toLeftAnimator = new AnimatorSet();
+        toLeftAnimator.playTogether(
+                translationAnimator(mPillView, pillStretchWidth,
+                        mPillView.getPillCenterX() - pillStretchWidth / 2),
+                alphaAnimator(mPillView, originalFillColor)
+        );
+        toLeftAnimator.setStartDelay(TRANSLATION_DURATION_START_DELAY);
+        toLeftAnimator.setDuration(TRANSLATION_DURATION_MILLIS);
+
+        // Apply alpha
+        Animator alphaLeft = alphaAnimator(mPillView, ColorUtils.setAlphaComponent(originalFillColor, 0));
+        alphaLeft.setDuration(ALPHA_DURATION_MILLIS);
+
+        // Reset position and alpha
+        AnimatorSet resetAndRestoreLeft = new AnimatorSet();
+        resetAndRestoreLeft.playTogether(
+                translationAnimator(mPillView, 0, mPillView.getPillCenterX()),
+                alphaAnimator(mPillView, originalFillColor)
+        );
+        resetAndRestoreLeft.setDuration(0);
+
+        // Move to right
+        Animator toRightAnimator = translationAnimator(mPillView, pillStretchWidth,
+                mPillView.getPillCenterX() + pillStretchWidth / 2);
+        toRightAnimator.setStartDelay(TRANSLATION_DURATION_DELAY);
+        toRightAnimator.setDuration(TRANSLATION_DURATION_MILLIS);
+
+        // Apply alpha
+        Animator alphaRight = alphaAnimator(mPillView, ColorUtils.setAlphaComponent(originalFillColor, 0));
+        alphaRight.setDuration(ALPHA_DURATION_MILLIS);
+
+        // Reset position and alpha
+        AnimatorSet resetAndRestoreRight = new AnimatorSet();
+        resetAndRestoreRight.playTogether(
+                translationAnimator(mPillView, 0, mPillView.getPillCenterX()),
+                alphaAnimator(mPillView, originalFillColor)
+        );
+        resetAndRestoreRight.setDuration(0);
+
+        // Sequence
+        AnimatorSet translationSequence = new AnimatorSet();
+        translationSequence.playSequentially(toLeftAnimator, alphaLeft, resetAndRestoreLeft,
+                toRightAnimator, alphaRight, resetAndRestoreRight);
+        translationSequence.setInterpolator(new AccelerateDecelerateInterpolator());
+
+        // Listener to repeat animation if needed
+        translationSequence.addListener(new AnimatorListenerAdapter() {
+
+            private boolean wasCancelled = false;
+
+            @Override
+            public void onAnimationCancel(Animator animation) {
+                mPillView.setFillColor(Color.TRANSPARENT);
+
+                wasCancelled = true;
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                if (!wasCancelled && mTranslationAnimator == animation) {
+                    mTranslationAnimator.start();
+                }
+
+                wasCancelled = false;
+            }
+        });
+
+        mTranslationAnimator = translationSequence;
+        mTranslationAnimator.start();
     }
 
     @SuppressLint("UnspecifiedRegisterReceiverFlag")
@@ -442,23 +508,6 @@ public class AlarmActivity extends AppCompatActivity implements View.OnClickList
     protected void onResume() {
         super.onResume();
 
-        // Re-query for AlarmInstance in case the state has changed externally
-        final long instanceId = AlarmInstance.getId(getIntent().getData());
-        mAlarmInstance = AlarmInstance.getInstance(getContentResolver(), instanceId);
-
-        if (mAlarmInstance == null) {
-            LOGGER.i("No alarm instance for instanceId: %d", instanceId);
-            finish();
-            return;
-        }
-
-        // Verify that the alarm is still firing before showing the activity
-        if (mAlarmInstance.mAlarmState != AlarmInstance.FIRED_STATE) {
-            LOGGER.i("Skip displaying alarm for instance: %s", mAlarmInstance);
-            finish();
-            return;
-        }
-
         if (!mReceiverRegistered) {
             // Register to get the alarm done/snooze/dismiss intent.
             final IntentFilter filter = new IntentFilter(AlarmService.ALARM_DONE_ACTION);
@@ -472,9 +521,13 @@ public class AlarmActivity extends AppCompatActivity implements View.OnClickList
             mReceiverRegistered = true;
         }
 
+        // Verifies that the alarm is still firing once bound, as its state may have changed
+        // externally.
         bindAlarmService();
 
         resetAnimations();
+
+        AlarmFireTracer.mark(AlarmInstance.getId(getIntent().getData()), AlarmFireTracer.STAGE_ACTIVITY_SHOWN);
     }
 
     @Override
@@ -786,21 +839,91 @@ public class AlarmActivity extends AppCompatActivity implements View.OnClickList
 
     /**
      * @return {@code true} if the "Delete alarm once dismissed" button is ticked;
-     * {@code false} otherwise.
+     * {@code false} otherwise. The value is loaded in the background when the alarm is displayed,
+     * and only read from the database here if the alarm is handled before it is loaded.
      */
     private boolean isOccasionalAlarmDeletedAfterUse() {
-        final Alarm alarm = Alarm.getAlarm(getContentResolver(), mAlarmInstance.mAlarmId);
+        if (mOccasionalAlarmDeletedAfterUse == null) {
+            mOccasionalAlarmDeletedAfterUse =
+                    isOccasionalAlarmDeletedAfterUse(getContentResolver(), mAlarmInstance);
+        }
+
+        return mOccasionalAlarmDeletedAfterUse;
+    }
 
+    private static boolean isOccasionalAlarmDeletedAfterUse(ContentResolver cr, AlarmInstance instance) {
+        final Alarm alarm = Alarm.getAlarm(cr, instance.mAlarmId);
         if (alarm == null) {
-            LogUtils.wtf("Failed to retrieve alarm with ID: %d", mAlarmInstance.mAlarmId);
+            LogUtils.wtf("Failed to retrieve alarm with ID: %d", instance.mAlarmId);
             return false;
         }
 
-        if (alarm.daysOfWeek.isRepeating()) {
-            return false;
-        }
+        return !alarm.daysOfWeek.isRepeating() && alarm.deleteAfterUse;
+    }
 
-        return alarm.deleteAfterUse;
+    /**
+     * Reads in the background whether the displayed alarm is deleted once dismissed, then
+     * describes the buttons accordingly.
+     */
+    private void loadOccasionalAlarmDeletedAfterUse(AlarmInstance instance) {
+        final ContentResolver cr = getContentResolver();
+        AsyncHandler.post(() -> {
+            final boolean deletedAfterUse = isOccasionalAlarmDeletedAfterUse(cr, instance);
+            mHandler.post(() -> {
+                if (mAlarmInstance != instance || isDestroyed()) {
+                    return;
+                }
+
+                if (mOccasionalAlarmDeletedAfterUse == null) {
+                    mOccasionalAlarmDeletedAfterUse = deletedAfterUse;
+                }
+                updateContentDescriptions();
+            });
+        });
+    }
+
+    /**
+     * Describes the snooze and dismiss controls, which depends on whether the alarm is deleted
+     * once dismissed.
+     */
+    private void updateContentDescriptions() {
+        final boolean deletedAfterUse = mOccasionalAlarmDeletedAfterUse;
+        if (mIsSwipeActionEnabled) {
+            if (mSnoozeMinutes == -1 || !mAlarmInstance.mAlarmSnoozeActions) {
+                if (deletedAfterUse) {
+                    mAlarmButton.setContentDescription(getString(
+                            R.string.description_direction_both_for_occasional_non_repeatable_alarm));
+                } else {
+                    mAlarmButton.setContentDescription(getString(
+                            R.string.description_direction_both_for_non_repeatable_alarm));
+                }
+            } else {
+                if (deletedAfterUse) {
+                    mAlarmButton.setContentDescription(getString(
+                            R.string.description_direction_both_for_occasional_alarm));
+                } else {
+                    mAlarmButton.setContentDescription(getString(R.string.description_direction_both));
+                }
+            }
+        } else {
+            if (mSnoozeMinutes == -1 || !mAlarmInstance.mAlarmSnoozeActions) {
+                if (deletedAfterUse) {
+                    mSnoozeButton.setContentDescription(getString(
+                            R.string.description_dismiss_button_for_occasional_alarm));
+                } else {
+                    mSnoozeButton.setContentDescription(getString(
+                                R.string.description_dismiss_button));
+                }
+            } else {
+                mSnoozeButton.setContentDescription(getString(R.string.description_snooze_button));
+            }
+
+            if (deletedAfterUse) {
+                mDismissButton.setContentDescription(getString(R.string.description_dismiss_button_for_occasional_alarm));
+            } else {
+                mDismissButton.setContentDescription(getString(R.string.description_dismiss_button));
+            }
+        }
     }
 
     /**
@@ -872,9 +995,41 @@ public class AlarmActivity extends AppCompatActivity implements View.OnClickList
                 .setDuration(ALERT_REVEAL_DURATION_MILLIS)
                 .withEndAction(() -> {
                     mAlertView.announceForAccessibility(accessibilityText);
-                    mHandler.postDelayed(this::finish, ALERT_DISMISS_DELAY_MILLIS);
+                    mHandler.postDelayed(this::showNextFiringAlarmOrFinish, ALERT_DISMISS_DELAY_MILLIS);
                 })
                 .start();
     }
 
+    /**
+     * Displays in this activity the next alarm still firing with the handled one, if any, so that
+     * alarms firing together are presented one after another without launching a new activity.
+     * Otherwise, finishes the activity.
+     * <p>
+     * The ringtone title is kept as it is, since the firing session keeps playing the ringtone of
+     * the first alarm.
+     */
+    private void showNextFiringAlarmOrFinish() {
+        // The service runs in this process, so its binder is still usable once unbound.
+        final AlarmInstance next = mAlarmService == null
+                ? null
+                : mAlarmService.getNextFiringAlarmCopy(mAlarmInstance.mId);
+        if (next == null) {
+            finish();
+            return;
+        }
+
+        LOGGER.i("Displaying next firing alarm: %s", next);
+        setIntent(AlarmInstance.createIntent(this, AlarmActivity.class, next.mId));
+
+        mAlertView.setVisibility(View.GONE);
+        mAlertInfoView.setVisibility(View.GONE);
+        bindAlarm(next);
+
+        // Otherwise, the service is bound again in onResume().
+        if (getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.RESUMED)) {
+            bindAlarmService();
+        }
+        resetAnimations();
+    }
+
 }
@@ -0,0 +1,244 @@
+// SPDX-License-Identifier: GPL-3.0-only
+
+package com.best.deskclock.alarms;
+
+import android.content.Context;
+import android.hardware.camera2.CameraAccessException;
+import android.hardware.camera2.CameraCharacteristics;
+import android.hardware.camera2.CameraManager;
+import android.media.AudioAttributes;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.os.VibrationAttributes;
+import android.os.VibrationEffect;
+import android.os.Vibrator;
+
+import androidx.annotation.RequiresApi;
+
+import com.best.deskclock.utils.AlarmUtils;
+import com.best.deskclock.utils.LogUtils;
+import com.best.deskclock.utils.SdkUtils;
+
+/**
+ * Drives the camera torch and the vibrator of a firing alarm from {@link Pattern patterns}.
+ * <p>
+ * Both effects start from the same instant. The vibration pattern is handed over to the vibrator
+ * as a single waveform, while the torch follows its pattern through one callback per step,
+ * scheduled relative to the start of the pattern so that the steps do not drift. The back camera
+ * and the vibration effects are resolved once rather than on each step.
+ */
+final class AlarmEffectScheduler {
+
+    /**
+     * The vibration while an alarm is firing.
+     */
+    static final Pattern RINGING_VIBRATION = new Pattern(new long[]{500, 500}, true);
+
+    /**
+     * The torch blinking while an alarm is firing.
+     */
+    static final Pattern RINGING_FLASH = new Pattern(new long[]{0, 500, 500}, true);
+
+    /**
+     * The vibration confirming that an alarm was snoozed.
+     */
+    static final Pattern SNOOZE_FEEDBACK = new Pattern(new long[]{700, 200, 100, 500}, false);
+
+    /**
+     * The vibration confirming that an alarm was dismissed.
+     */
+    static final Pattern DISMISS_FEEDBACK = new Pattern(new long[]{700, 500}, false);
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private final Vibrator mVibrator;
+
+    private final AudioAttributes mAudioAttributes = new AudioAttributes.Builder()
+            .setUsage(AudioAttributes.USAGE_ALARM)
+            .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+            .build();
+
+    private final CameraManager mCameraManager;
+
+    /**
+     * The id of the back camera owning the torch; {@code null} if the device has no back flash.
+     */
+    private final String mCameraId;
+
+    private final Runnable mTorchStep = this::stepTorch;
+
+    /**
+     * The pattern followed by the torch; {@code null} if the torch is not used.
+     */
+    private Pattern mTorchPattern;
+
+    /**
+     * The index in the torch pattern of the next step.
+     */
+    private int mTorchIndex;
+
+    /**
+     * The uptime at which the next torch step starts.
+     */
+    private long mTorchStepTime;
+
+    private boolean mTorchOn;
+
+    /**
+     * Whether a repeating vibration was started by {@link #start}.
+     */
+    private boolean mVibrating;
+
+    AlarmEffectScheduler(Context context) {
+        mVibrator = context.getSystemService(Vibrator.class);
+        mCameraManager = (CameraManager) context.getSystemService(Context.CAMERA_SERVICE);
+        mCameraId = AlarmUtils.hasBackFlash(context) ? getBackCameraId() : null;
+    }
+
+    /**
+     * Starts the effects of a firing alarm.
+     *
+     * @param vibration the vibration pattern; {@code null} for no vibration
+     * @param flash     the torch pattern; {@code null} to leave the torch off
+     */
+    void start(Pattern vibration, Pattern flash) {
+        stop();
+
+        if (vibration != null) {
+            vibrate(vibration);
+            mVibrating = true;
+        }
+
+        if (flash != null && mCameraId != null) {
+            mTorchPattern = flash;
+            mTorchIndex = 0;
+            mTorchStepTime = SystemClock.uptimeMillis();
+            stepTorch();
+        }
+    }
+
+    /**
+     * Stops the effects started by {@link #start} and turns the torch off.
+     */
+    void stop() {
+        if (mTorchPattern != null) {
+            mHandler.removeCallbacks(mTorchStep);
+            mTorchPattern = null;
+            setTorch(false);
+        }
+
+        if (mVibrating) {
+            mVibrator.cancel();
+            mVibrating = false;
+        }
+    }
+
+    /**
+     * Plays the given vibration pattern, e.g. to confirm an action once the alarm stopped.
+     */
+    void vibrate(Pattern pattern) {
+        if (SdkUtils.isAtLeastAndroid13()) {
+            final VibrationAttributes vibrationAttributes = new VibrationAttributes.Builder()
+                    .setUsage(VibrationAttributes.USAGE_ALARM)
+                    .build();
+            mVibrator.vibrate(pattern.getVibrationEffect(), vibrationAttributes);
+        } else if (SdkUtils.isAtLeastAndroid8()) {
+            mVibrator.vibrate(pattern.getVibrationEffect(), mAudioAttributes);
+        } else {
+            mVibrator.vibrate(pattern.mTimings, pattern.getRepeatIndex(), mAudioAttributes);
+        }
+    }
+
+    /**
+     * Applies the current step of the torch pattern and schedules the next one.
+     */
+    private void stepTorch() {
+        final Pattern pattern = mTorchPattern;
+        if (pattern == null) {
+            return;
+        }
+
+        if (mTorchIndex == pattern.mTimings.length) {
+            if (!pattern.mRepeat) {
+                mTorchPattern = null;
+                setTorch(false);
+                return;
+            }
+            mTorchIndex = 0;
+        }
+
+        // Steps at even indexes turn the torch off, steps at odd indexes turn it on.
+        setTorch(mTorchIndex % 2 == 1);
+        mTorchStepTime += pattern.mTimings[mTorchIndex++];
+        mHandler.postAtTime(mTorchStep, mTorchStepTime);
+    }
+
+    private void setTorch(boolean on) {
+        if (mTorchOn == on || mCameraId == null) {
+            return;
+        }
+
+        try {
+            mCameraManager.setTorchMode(mCameraId, on);
+            mTorchOn = on;
+        } catch (CameraAccessException e) {
+            LogUtils.e("AlarmEffectScheduler.setTorch - Failed to access the flash unit", e);
+        }
+    }
+
+    private String getBackCameraId() {
+        try {
+            for (String id : mCameraManager.getCameraIdList()) {
+                CameraCharacteristics characteristics = mCameraManager.getCameraCharacteristics(id);
+                Integer lensFacing = characteristics.get(CameraCharacteristics.LENS_FACING);
+                // Check if it is the rear camera
+                if (lensFacing != null && lensFacing == CameraCharacteristics.LENS_FACING_BACK) {
+                    return id;
+                }
+            }
+        } catch (CameraAccessException e) {
+            LogUtils.e("AlarmEffectScheduler - Failed to access the flash unit", e);
+        }
+
+        LogUtils.e("No back camera found");
+        return null;
+    }
+
+    /**
+     * Describes an effect as alternating off and on durations in milliseconds, starting with an
+     * off duration, in the same way as a vibration waveform.
+     */
+    static final class Pattern {
+
+        private final long[] mTimings;
+
+        /**
+         * Whether the pattern restarts from the beginning once complete.
+         */
+        private final boolean mRepeat;
+
+        private VibrationEffect mVibrationEffect;
+
+        Pattern(long[] timings, boolean repeat) {
+            mTimings = timings;
+            mRepeat = repeat;
+        }
+
+        private int getRepeatIndex() {
+            return mRepeat ? 0 : -1;
+        }
+
+        /**
+         * @return the vibration effect playing this pattern, created on first use
+         */
+        @RequiresApi(Build.VERSION_CODES.O)
+        private VibrationEffect getVibrationEffect() {
+            if (mVibrationEffect == null) {
+                mVibrationEffect = VibrationEffect.createWaveform(mTimings, getRepeatIndex());
+            }
+            return mVibrationEffect;
+        }
+    }
+}
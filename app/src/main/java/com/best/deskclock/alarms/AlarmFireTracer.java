@@ -0,0 +1,247 @@
+// SPDX-License-Identifier: GPL-3.0-only
+
+package com.best.deskclock.alarms;
+
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.LongSparseArray;
+
+import com.best.deskclock.utils.LogUtils;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Measures the time spent in each stage of the alarm firing path, from the moment the
+ * {@link android.app.AlarmManager AlarmManager} callback is received until the ringtone is audible
+ * and the first frame of the {@link AlarmActivity} is drawn.
+ * <p>
+ * The stages of the last {@link #CAPACITY} firings are kept in an in-memory ring buffer which can
+ * be {@link #dump() exported} along with the application logs from the "About" screen. Each
+ * firing is also written to the logs once the alarm stops. The work done on each thread of the
+ * firing path is additionally wrapped in {@link Trace} sections so that it appears in system
+ * traces.
+ */
+public final class AlarmFireTracer {
+
+    /**
+     * The state change intent that fires the alarm was received.
+     */
+    public static final int STAGE_RECEIVED = 0;
+
+    /**
+     * The alarm instance was moved to the fired state in the database.
+     */
+    public static final int STAGE_FIRED_STATE = 1;
+
+    /**
+     * The fired alarm instance was loaded by the {@link AlarmService}.
+     */
+    public static final int STAGE_INSTANCE_LOADED = 2;
+
+    /**
+     * The ringtone playback and the vibration were requested.
+     */
+    public static final int STAGE_KLAXON_STARTED = 3;
+
+    /**
+     * The ringtone player started the playback.
+     */
+    public static final int STAGE_AUDIBLE = 4;
+
+    /**
+     * The {@link AlarmActivity} was displayed.
+     */
+    public static final int STAGE_ACTIVITY_SHOWN = 5;
+
+    /**
+     * The first frame of the {@link AlarmActivity} was drawn.
+     */
+    public static final int STAGE_FIRST_FRAME = 6;
+
+    private static final String[] STAGE_NAMES = {
+            "received", "fired state", "instance loaded", "klaxon started", "audible", "activity shown",
+            "first frame"
+    };
+
+    /**
+     * The number of firings kept in memory.
+     */
+    private static final int CAPACITY = 16;
+
+    private static final String SECTION_PREFIX = "AlarmFire:";
+
+    private static final FireTrace[] sTraces = new FireTrace[CAPACITY];
+
+    /**
+     * The index in {@link #sTraces} at which the next firing is recorded.
+     */
+    private static int sNextIndex;
+
+    /**
+     * The firings in progress, by alarm instance id. Several alarms may fire together, and each of
+     * them is recorded until it stops. A firing that is never finished is dropped once it leaves
+     * {@link #sTraces}.
+     */
+    private static final LongSparseArray<FireTrace> sInProgress = new LongSparseArray<>();
+
+    private AlarmFireTracer() {
+    }
+
+    /**
+     * Starts recording a new firing of the given alarm instance.
+     *
+     * @param instanceId identifies the alarm instance being fired
+     */
+    public static synchronized void begin(long instanceId) {
+        final FireTrace trace = new FireTrace(instanceId, System.currentTimeMillis());
+        trace.mStageTimes[STAGE_RECEIVED] = SystemClock.elapsedRealtime();
+
+        final FireTrace evicted = sTraces[sNextIndex];
+        if (evicted != null && sInProgress.get(evicted.mInstanceId) == evicted) {
+            sInProgress.remove(evicted.mInstanceId);
+        }
+
+        sTraces[sNextIndex] = trace;
+        sNextIndex = (sNextIndex + 1) % CAPACITY;
+        sInProgress.put(instanceId, trace);
+    }
+
+    /**
+     * Records the time at which the given alarm instance was scheduled to fire, to measure how
+     * late the firing was delivered.
+     */
+    public static synchronized void setScheduledTime(long instanceId, long scheduledTime) {
+        final FireTrace trace = sInProgress.get(instanceId);
+        if (trace != null) {
+            trace.mScheduledTime = scheduledTime;
+        }
+    }
+
+    /**
+     * Records that the firing of the given alarm instance reached the given stage. Nothing is
+     * recorded if that instance is not firing or if the stage was already reached.
+     */
+    public static synchronized void mark(long instanceId, int stage) {
+        final FireTrace trace = sInProgress.get(instanceId);
+        if (trace != null) {
+            trace.mark(stage);
+        }
+    }
+
+    /**
+     * Records that the firings in progress whose klaxon was started reached the given stage. This
+     * is used by components that are not aware of the alarm instance they serve (e.g. the ringtone
+     * players), which serve every alarm of the firing session.
+     */
+    public static synchronized void markCurrent(int stage) {
+        for (int i = 0; i < sInProgress.size(); i++) {
+            final FireTrace trace = sInProgress.valueAt(i);
+            if (trace.mStageTimes[STAGE_KLAXON_STARTED] != 0) {
+                trace.mark(stage);
+            }
+        }
+    }
+
+    /**
+     * Stops recording the firing of the given alarm instance and writes its timings to the logs.
+     */
+    public static synchronized void finish(long instanceId) {
+        final FireTrace trace = sInProgress.get(instanceId);
+        if (trace != null) {
+            LogUtils.i("Alarm fire trace: %s", trace);
+            sInProgress.remove(instanceId);
+        }
+    }
+
+    /**
+     * @return the timings of the recorded firings, from the oldest to the most recent one
+     */
+    public static synchronized String dump() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < CAPACITY; i++) {
+            final FireTrace trace = sTraces[(sNextIndex + i) % CAPACITY];
+            if (trace != null) {
+                builder.append(trace).append("\n");
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Begins a {@link Trace} section of the firing path on the calling thread.
+     */
+    static void beginSection(String name) {
+        Trace.beginSection(SECTION_PREFIX + name);
+    }
+
+    /**
+     * Ends the last {@link Trace} section begun on the calling thread.
+     */
+    static void endSection() {
+        Trace.endSection();
+    }
+
+    /**
+     * The timings of a single alarm firing.
+     */
+    private static final class FireTrace {
+
+        private final long mInstanceId;
+
+        /**
+         * The wall clock time at which the firing was received.
+         */
+        private final long mReceivedTime;
+
+        /**
+         * The elapsed realtime at which each stage was reached; {@code 0} if it was not reached.
+         */
+        private final long[] mStageTimes = new long[STAGE_NAMES.length];
+
+        /**
+         * The wall clock time at which the alarm was scheduled to fire; {@code 0} if unknown.
+         */
+        private long mScheduledTime;
+
+        private FireTrace(long instanceId, long receivedTime) {
+            mInstanceId = instanceId;
+            mReceivedTime = receivedTime;
+        }
+
+        /**
+         * Records that the given stage was reached, unless it already was.
+         */
+        private void mark(int stage) {
+            if (mStageTimes[stage] == 0) {
+                mStageTimes[stage] = SystemClock.elapsedRealtime();
+            }
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder builder = new StringBuilder();
+            final String received = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US)
+                    .format(new Date(mReceivedTime));
+            builder.append(String.format(Locale.US, "instance %d received at %s", mInstanceId, received));
+
+            if (mScheduledTime != 0) {
+                builder.append(String.format(Locale.US, " (%d ms after schedule)",
+                        mReceivedTime - mScheduledTime));
+            }
+
+            final long start = mStageTimes[STAGE_RECEIVED];
+            for (int stage = STAGE_RECEIVED + 1; stage < STAGE_NAMES.length; stage++) {
+                builder.append(", ").append(STAGE_NAMES[stage]).append(": ");
+                if (mStageTimes[stage] == 0) {
+                    builder.append("-");
+                } else {
+                    builder.append(String.format(Locale.US, "+%d ms", mStageTimes[stage] - start));
+                }
+            }
+
+            return builder.toString();
+        }
+    }
+}
@@ -8,25 +8,19 @@ package com.best.deskclock.alarms;
 
 import android.content.Context;
 import android.content.SharedPreferences;
-import android.media.AudioAttributes;
-import android.os.VibrationAttributes;
-import android.os.VibrationEffect;
-import android.os.Vibrator;
 
+import com.best.deskclock.data.Settings;
 import com.best.deskclock.data.SettingsDAO;
 import com.best.deskclock.provider.AlarmInstance;
 import com.best.deskclock.ringtone.AsyncRingtonePlayer;
 import com.best.deskclock.ringtone.RingtonePlayer;
 import com.best.deskclock.utils.LogUtils;
-import com.best.deskclock.utils.SdkUtils;
 
 /**
- * Manages playing alarm ringtones and vibrating the device.
+ * Manages playing alarm ringtones. The vibration is driven by the {@link AlarmEffectScheduler}.
  */
 final class AlarmKlaxon {
 
-    private static final long[] VIBRATE_PATTERN = {500, 500};
-
     private static boolean sStarted = false;
 
     private static AsyncRingtonePlayer sAsyncRingtonePlayer;
@@ -45,44 +39,37 @@ final class AlarmKlaxon {
             } else {
                 getAsyncRingtonePlayer(context).stop();
             }
+        }
+    }
 
-            final Vibrator vibrator = context.getSystemService(Vibrator.class);
-            vibrator.cancel();
+    /**
+     * @param ringingTime the time the alarm has already been ringing, when it is resumed after the
+     *                    death of the process; {@code 0} when it starts ringing
+     */
+    public static void start(Context context, SharedPreferences prefs, AlarmInstance instance,
+                             long ringingTime) {
+
+        AlarmFireTracer.beginSection("AlarmKlaxon.start");
+        try {
+            doStart(context, prefs, instance, ringingTime);
+        } finally {
+            AlarmFireTracer.endSection();
         }
     }
 
-    public static void start(Context context, SharedPreferences prefs, AlarmInstance instance) {
+    private static void doStart(Context context, SharedPreferences prefs, AlarmInstance instance,
+                                long ringingTime) {
+
         // Make sure we are stopped before starting
         stop(context, prefs);
         LogUtils.v("AlarmKlaxon.start()");
 
         if (!AlarmInstance.NO_RINGTONE_URI.equals(instance.mRingtone)) {
-            final long crescendoDuration = SettingsDAO.getAlarmVolumeCrescendoDuration(prefs);
+            final long crescendoDuration = Settings.get(context).getAlarmVolumeCrescendoDuration();
             if (SettingsDAO.isAdvancedAudioPlaybackEnabled(prefs)) {
-                getRingtonePlayer(context).play(instance.mRingtone, crescendoDuration);
-            } else {
-                getAsyncRingtonePlayer(context).play(instance.mRingtone, crescendoDuration);
-            }
-        }
-
-        if (instance.mVibrate) {
-            final Vibrator vibrator = context.getSystemService(Vibrator.class);
-            AudioAttributes audioAttributes = new AudioAttributes.Builder()
-                    .setUsage(AudioAttributes.USAGE_ALARM)
-                    .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
-                    .build();
-
-            if (SdkUtils.isAtLeastAndroid13()) {
-                VibrationAttributes vibrationAttributes = new VibrationAttributes.Builder()
-                        .setUsage(VibrationAttributes.USAGE_ALARM)
-                        .build();
-                VibrationEffect vibrationEffect = VibrationEffect.createWaveform(VIBRATE_PATTERN, 0);
-                vibrator.vibrate(vibrationEffect, vibrationAttributes);
-            } else if (SdkUtils.isAtLeastAndroid8()) {
-                VibrationEffect vibrationEffect = VibrationEffect.createWaveform(VIBRATE_PATTERN, 0);
-                vibrator.vibrate(vibrationEffect, audioAttributes);
+                getRingtonePlayer(context).play(instance.mRingtone, crescendoDuration, ringingTime);
             } else {
-                vibrator.vibrate(VIBRATE_PATTERN, 0, audioAttributes);
+                getAsyncRingtonePlayer(context).play(instance.mRingtone, crescendoDuration, ringingTime);
             }
         }
 
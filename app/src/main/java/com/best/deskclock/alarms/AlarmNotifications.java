@@ -6,7 +6,6 @@
 
 package com.best.deskclock.alarms;
 
-import static com.best.deskclock.DeskClockApplication.getDefaultSharedPreferences;
 import static com.best.deskclock.utils.NotificationUtils.ALARM_MISSED_NOTIFICATION_CHANNEL_ID;
 import static com.best.deskclock.utils.NotificationUtils.ALARM_SNOOZE_NOTIFICATION_CHANNEL_ID;
 import static com.best.deskclock.utils.NotificationUtils.ALARM_UPCOMING_NOTIFICATION_CHANNEL_ID;
@@ -23,6 +22,7 @@ import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.content.res.Resources;
 import android.service.notification.StatusBarNotification;
+import android.util.SparseArray;
 
 import androidx.core.app.ActivityCompat;
 import androidx.core.app.NotificationCompat;
@@ -31,7 +31,7 @@ import androidx.core.app.NotificationManagerCompat;
 import com.best.deskclock.AlarmClockFragment;
 import com.best.deskclock.DeskClock;
 import com.best.deskclock.R;
-import com.best.deskclock.data.SettingsDAO;
+import com.best.deskclock.data.Settings;
 import com.best.deskclock.provider.Alarm;
 import com.best.deskclock.provider.AlarmInstance;
 import com.best.deskclock.utils.AlarmUtils;
@@ -83,7 +83,28 @@ public final class AlarmNotifications {
      */
     private static final int ALARM_FIRING_NOTIFICATION_ID = Integer.MAX_VALUE - 7;
 
-    static synchronized void showUpcomingNotification(Context context, AlarmInstance instance) {
+    /**
+     * Upcoming and snoozed alarm notifications, summarized together.
+     */
+    private static final NotificationGroup UPCOMING_GROUP = new NotificationGroup(UPCOMING_GROUP_KEY,
+            ALARM_GROUP_NOTIFICATION_ID, ALARM_UPCOMING_NOTIFICATION_CHANNEL_ID,
+            NotificationCompat.PRIORITY_LOW);
+
+    /**
+     * Missed alarm notifications, summarized together.
+     */
+    private static final NotificationGroup MISSED_GROUP = new NotificationGroup(MISSED_GROUP_KEY,
+            ALARM_GROUP_MISSED_NOTIFICATION_ID, ALARM_MISSED_NOTIFICATION_CHANNEL_ID,
+            NotificationCompat.PRIORITY_HIGH);
+
+    private static final NotificationGroup[] GROUPS = {UPCOMING_GROUP, MISSED_GROUP};
+
+    /**
+     * Orders the updates of the firing alarm notification.
+     */
+    private static final Object FIRING_NOTIFICATION_LOCK = new Object();
+
+    static void showUpcomingNotification(Context context, AlarmInstance instance) {
         LogUtils.v("Displaying upcoming alarm notification for alarm instance: " + instance.mId);
 
         final Alarm alarm = Alarm.getAlarm(context.getContentResolver(), instance.mAlarmId);
@@ -140,20 +161,11 @@ public final class AlarmNotifications {
         builder.setContentIntent(PendingIntent.getActivity(context, id,
                 viewAlarmIntent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE));
 
-        NotificationManagerCompat nm = NotificationManagerCompat.from(context);
         if (SdkUtils.isAtLeastAndroid8()) {
             NotificationUtils.createChannel(context, ALARM_UPCOMING_NOTIFICATION_CHANNEL_ID);
         }
-        final Notification notification = builder.build();
 
-        if (ActivityCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
-                != PackageManager.PERMISSION_GRANTED) {
-            // Always false, because notification activation is always checked when the application is started.
-            return;
-        }
-
-        nm.notify(id, notification);
-        updateUpcomingAlarmGroupNotification(context, -1, notification);
+        postGroupNotification(context, UPCOMING_GROUP, id, builder.build());
     }
 
     private static boolean isGroupSummary(Notification n) {
@@ -161,125 +173,74 @@ public final class AlarmNotifications {
     }
 
     /**
-     * Method which returns the first active notification for a given group. If a notification was
-     * just posted, provide it to make sure it is included as a potential result. If a notification
-     * was just canceled, provide the id so that it is not included as a potential result. These
-     * extra parameters are needed due to a race condition which exists in
-     * {@link NotificationManager#getActiveNotifications()}.
-     *
-     * @param context                Context from which to grab the NotificationManager
-     * @param group                  The group key to query for notifications
-     * @param canceledNotificationId The id of the just-canceled notification (-1 if none)
-     * @param postedNotification     The notification that was just posted
-     * @return The first active notification for the group
+     * Posts the notification of an alarm instance within the given group, then updates the
+     * summary of that group. The notification is also removed from the mirror of any other group
+     * it previously belonged to, since posting under the same id replaces it.
+     * <p>
+     * A notification without a delete intent is given one that reports its dismissal to the
+     * mirror. The others already change the state of their alarm instance when dismissed, which
+     * clears the notification.
      */
+    private static void postGroupNotification(Context context, NotificationGroup group, int id,
+                                              Notification notification) {
 
-    private static Notification getFirstActiveNotification(Context context, String group,
-                                                           int canceledNotificationId, Notification postedNotification) {
-
-        final NotificationManager nm = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-        final StatusBarNotification[] notifications = nm.getActiveNotifications();
-        Notification firstActiveNotification = postedNotification;
-        for (StatusBarNotification statusBarNotification : notifications) {
-            final Notification n = statusBarNotification.getNotification();
-            if (!isGroupSummary(n) && group.equals(n.getGroup()) && statusBarNotification.getId() != canceledNotificationId) {
-                if (firstActiveNotification == null || n.getSortKey().compareTo(firstActiveNotification.getSortKey()) < 0) {
-                    firstActiveNotification = n;
-                }
-            }
-        }
-        return firstActiveNotification;
-    }
-
-    private static Notification getActiveGroupSummaryNotification(Context context, String group) {
-        final NotificationManager nm = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-        final StatusBarNotification[] notifications = nm.getActiveNotifications();
-        for (StatusBarNotification statusBarNotification : notifications) {
-            final Notification n = statusBarNotification.getNotification();
-            if (isGroupSummary(n) && group.equals(n.getGroup())) {
-                return n;
-            }
-        }
-        return null;
-    }
-
-    private static void updateUpcomingAlarmGroupNotification(Context context, int canceledNotificationId,
-                                                             Notification postedNotification) {
-
-        final NotificationManagerCompat nm = NotificationManagerCompat.from(context);
-        final Notification firstUpcoming = getFirstActiveNotification(context, UPCOMING_GROUP_KEY,
-                canceledNotificationId, postedNotification);
-        if (firstUpcoming == null) {
-            nm.cancel(ALARM_GROUP_NOTIFICATION_ID);
-            return;
+        if (notification.deleteIntent == null) {
+            notification.deleteIntent = createDismissedIntent(context, id);
         }
 
-        Notification summary = getActiveGroupSummaryNotification(context, UPCOMING_GROUP_KEY);
-        if (summary == null || !Objects.equals(summary.contentIntent, firstUpcoming.contentIntent)) {
-            if (SdkUtils.isAtLeastAndroid8()) {
-                NotificationUtils.createChannel(context, ALARM_UPCOMING_NOTIFICATION_CHANNEL_ID);
-            }
-            summary = new NotificationCompat.Builder(context, ALARM_UPCOMING_NOTIFICATION_CHANNEL_ID)
-                    .setShowWhen(false)
-                    .setContentIntent(firstUpcoming.contentIntent)
-                    .setColor(context.getColor(R.color.md_theme_primary))
-                    .setSmallIcon(R.drawable.ic_tab_alarm_static)
-                    .setGroup(UPCOMING_GROUP_KEY)
-                    .setGroupSummary(true)
-                    .setPriority(NotificationCompat.PRIORITY_LOW)
-                    .setCategory(NotificationCompat.CATEGORY_EVENT)
-                    .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
-                    .setLocalOnly(true)
-                    .build();
-
+        synchronized (group) {
             if (ActivityCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
                     != PackageManager.PERMISSION_GRANTED) {
                 // Always false, because notification activation is always checked when the application is started.
                 return;
             }
 
-            nm.notify(ALARM_GROUP_NOTIFICATION_ID, summary);
+            NotificationManagerCompat.from(context).notify(id, notification);
+            group.onPosted(context, id, notification);
+            group.updateSummary(context);
         }
-    }
 
-    private static void updateMissedAlarmGroupNotification(Context context, int canceledNotificationId, Notification postedNotification) {
-        final NotificationManagerCompat nm = NotificationManagerCompat.from(context);
-        final Notification firstMissed = getFirstActiveNotification(context, MISSED_GROUP_KEY,
-                canceledNotificationId, postedNotification);
-        if (firstMissed == null) {
-            nm.cancel(ALARM_GROUP_MISSED_NOTIFICATION_ID);
-            return;
+        for (NotificationGroup otherGroup : GROUPS) {
+            if (otherGroup != group) {
+                synchronized (otherGroup) {
+                    if (otherGroup.onCanceled(context, id)) {
+                        otherGroup.updateSummary(context);
+                    }
+                }
+            }
         }
+    }
 
-        Notification summary = getActiveGroupSummaryNotification(context, MISSED_GROUP_KEY);
-        if (summary == null || !Objects.equals(summary.contentIntent, firstMissed.contentIntent)) {
-            if (SdkUtils.isAtLeastAndroid8()) {
-                NotificationUtils.createChannel(context, ALARM_MISSED_NOTIFICATION_CHANNEL_ID);
-            }
-            summary = new NotificationCompat.Builder(context, ALARM_MISSED_NOTIFICATION_CHANNEL_ID)
-                    .setShowWhen(false)
-                    .setContentIntent(firstMissed.contentIntent)
-                    .setColor(context.getColor(R.color.md_theme_primary))
-                    .setSmallIcon(R.drawable.ic_tab_alarm_static)
-                    .setGroup(MISSED_GROUP_KEY)
-                    .setGroupSummary(true)
-                    .setPriority(NotificationCompat.PRIORITY_HIGH)
-                    .setCategory(NotificationCompat.CATEGORY_EVENT)
-                    .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
-                    .setLocalOnly(true)
-                    .build();
+    /**
+     * @return an intent broadcast when the user dismisses the grouped notification identified by
+     * {@code id}
+     */
+    private static PendingIntent createDismissedIntent(Context context, int id) {
+        final Intent intent = new Intent(context, AlarmStateManager.class)
+                .setAction(AlarmStateManager.NOTIFICATION_DISMISSED_ACTION)
+                .putExtra(EXTRA_NOTIFICATION_ID, id);
+        return PendingIntent.getBroadcast(context, id, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
 
-            if (ActivityCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
-                    != PackageManager.PERMISSION_GRANTED) {
-                // Always false, because notification activation is always checked when the application is started.
-                return;
+    /**
+     * Updates the mirror of the group to which a notification dismissed by the user belonged.
+     */
+    static void onNotificationDismissed(Context context, int id) {
+        for (NotificationGroup group : GROUPS) {
+            synchronized (group) {
+                if (group.onSummaryDismissed(id)) {
+                    return;
+                }
+                if (group.onCanceled(context, id)) {
+                    group.updateSummary(context);
+                    return;
+                }
             }
-
-            nm.notify(ALARM_GROUP_MISSED_NOTIFICATION_ID, summary);
         }
     }
 
-    static synchronized void showSnoozeNotification(Context context, AlarmInstance instance) {
+    static void showSnoozeNotification(Context context, AlarmInstance instance) {
         LogUtils.v("Displaying snoozed notification for alarm instance: " + instance.mId);
 
         NotificationCompat.Builder builder = new NotificationCompat.Builder(
@@ -312,24 +273,15 @@ public final class AlarmNotifications {
         builder.setContentIntent(PendingIntent.getActivity(context, id,
                 viewAlarmIntent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE));
 
-        NotificationManagerCompat nm = NotificationManagerCompat.from(context);
         if (SdkUtils.isAtLeastAndroid8()) {
             NotificationUtils.createChannel(context, ALARM_SNOOZE_NOTIFICATION_CHANNEL_ID);
         }
-        final Notification notification = builder.build();
-
-        if (ActivityCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
-                != PackageManager.PERMISSION_GRANTED) {
-            // Always false, because notification activation is always checked when the application is started.
-            return;
-        }
 
-        nm.notify(id, notification);
-        updateUpcomingAlarmGroupNotification(context, -1, notification);
+        postGroupNotification(context, UPCOMING_GROUP, id, builder.build());
     }
 
     @SuppressLint("LaunchActivityFromNotification")
-    static synchronized void showMissedNotification(Context context, AlarmInstance instance) {
+    static void showMissedNotification(Context context, AlarmInstance instance) {
         LogUtils.v("Displaying missed notification for alarm instance: " + instance.mId);
 
         String label = instance.mLabel;
@@ -364,23 +316,21 @@ public final class AlarmNotifications {
         builder.setContentIntent(PendingIntent.getBroadcast(context, id,
                 showAndDismiss, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE));
 
-        NotificationManagerCompat nm = NotificationManagerCompat.from(context);
         if (SdkUtils.isAtLeastAndroid8()) {
             NotificationUtils.createChannel(context, ALARM_MISSED_NOTIFICATION_CHANNEL_ID);
         }
-        final Notification notification = builder.build();
 
-        if (ActivityCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
-                != PackageManager.PERMISSION_GRANTED) {
-            // Always false, because notification activation is always checked when the application is started.
-            return;
-        }
-
-        nm.notify(id, notification);
-        updateMissedAlarmGroupNotification(context, -1, notification);
+        postGroupNotification(context, MISSED_GROUP, id, builder.build());
     }
 
-    static synchronized void showAlarmNotification(Service service, AlarmInstance instance) {
+    /**
+     * @param service          the service firing the alarms
+     * @param instance         the alarm instance presented to the user
+     * @param firingAlarmCount the number of alarm instances firing together, including
+     *                         {@code instance}
+     */
+    static void showAlarmNotification(Service service, AlarmInstance instance, int firingAlarmCount) {
+
         LogUtils.v("Displaying alarm notification for alarm instance: " + instance.mId);
 
         Resources resources = service.getResources();
@@ -400,7 +350,7 @@ public final class AlarmNotifications {
 
         // Setup Snooze Action only if snooze duration has NOT been set to "None" in the settings
         // or if "Enable alarm snooze actions" is enabled in the expanded alarm view
-        final int snoozeMinutes = SettingsDAO.getSnoozeLength(getDefaultSharedPreferences(service));
+        final int snoozeMinutes = Settings.get(service).getSnoozeLength();
         if (instance.mAlarmSnoozeActions && snoozeMinutes != -1) {
             Intent snoozeIntent = AlarmStateManager.createStateChangeIntent(service,
                     AlarmStateManager.ALARM_SNOOZE_TAG, instance, AlarmInstance.SNOOZE_STATE);
@@ -439,6 +389,20 @@ public final class AlarmNotifications {
         // Stop alarm if user clears notification.
         notification.setDeleteIntent(dismissPendingIntent);
 
+        // Setup Dismiss All Action if other alarms are firing together
+        if (firingAlarmCount > 1) {
+            notification.setSubText(resources.getQuantityString(
+                    R.plurals.alarm_alert_firing_count, firingAlarmCount, firingAlarmCount));
+            notification.setNumber(firingAlarmCount);
+
+            Intent dismissAllIntent = new Intent(service, AlarmService.class)
+                    .setAction(AlarmService.DISMISS_ALL_ALARMS_ACTION);
+            PendingIntent dismissAllPendingIntent = PendingIntent.getService(service,
+                    ALARM_FIRING_NOTIFICATION_ID, dismissAllIntent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+            notification.addAction(R.drawable.ic_alarm_off,
+                    resources.getString(R.string.alarm_alert_dismiss_all_text), dismissAllPendingIntent);
+        }
+
         // Setup Content Action
         Intent contentIntent = AlarmInstance.createIntent(service, AlarmActivity.class, instance.mId);
         notification.setContentIntent(PendingIntent.getActivity(service,
@@ -457,16 +421,30 @@ public final class AlarmNotifications {
             NotificationUtils.createChannel(service, FIRING_NOTIFICATION_CHANNEL_ID);
         }
         clearNotification(service, instance);
-        service.startForeground(ALARM_FIRING_NOTIFICATION_ID, notification.build());
+        synchronized (FIRING_NOTIFICATION_LOCK) {
+            service.startForeground(ALARM_FIRING_NOTIFICATION_ID, notification.build());
+        }
     }
 
-    public static synchronized void clearNotification(Context context, AlarmInstance instance) {
+    public static void clearNotification(Context context, AlarmInstance instance) {
         LogUtils.v("Clearing notifications for alarm instance: " + instance.mId);
-        NotificationManagerCompat nm = NotificationManagerCompat.from(context);
-        final int id = instance.hashCode();
-        nm.cancel(id);
-        updateUpcomingAlarmGroupNotification(context, id, null);
-        updateMissedAlarmGroupNotification(context, id, null);
+        clearNotification(context, instance.hashCode());
+    }
+
+    /**
+     * Cancels the notification with the given id and updates the summary of the group it belonged
+     * to.
+     */
+    static void clearNotification(Context context, int id) {
+        NotificationManagerCompat.from(context).cancel(id);
+
+        for (NotificationGroup group : GROUPS) {
+            synchronized (group) {
+                if (group.onCanceled(context, id)) {
+                    group.updateSummary(context);
+                }
+            }
+        }
     }
 
     /**
@@ -501,4 +479,172 @@ public final class AlarmNotifications {
         final boolean missedAlarm = instance.mAlarmState == AlarmInstance.MISSED_STATE;
         return missedAlarm ? ("MISSED " + timeKey) : timeKey;
     }
+
+    /**
+     * Mirrors the alarm notifications posted in a notification group so that the group summary
+     * can be maintained without querying the active notifications from the system each time.
+     * <p>
+     * The mirror is filled from the active notifications once per process, then kept up to date
+     * as notifications are posted, canceled and dismissed by the user, which the delete intents
+     * of the notifications report. Each group is guarded by its own monitor so that updates of
+     * different groups do not wait for each other.
+     */
+    private static final class NotificationGroup {
+
+        private final String mKey;
+
+        private final int mSummaryId;
+
+        private final String mChannelId;
+
+        private final int mPriority;
+
+        /**
+         * The notifications of the group, keyed by the notification id of their alarm instance.
+         */
+        private final SparseArray<PostedNotification> mNotifications = new SparseArray<>();
+
+        /**
+         * The content intent of the posted summary; {@code null} if no summary is posted.
+         */
+        private PendingIntent mSummaryContentIntent;
+
+        /**
+         * Whether the mirror was filled from the active notifications.
+         */
+        private boolean mLoaded;
+
+        private NotificationGroup(String key, int summaryId, String channelId, int priority) {
+            mKey = key;
+            mSummaryId = summaryId;
+            mChannelId = channelId;
+            mPriority = priority;
+        }
+
+        /**
+         * Records a notification just posted in this group.
+         */
+        private void onPosted(Context context, int id, Notification notification) {
+            load(context);
+            mNotifications.put(id, new PostedNotification(notification.getSortKey(),
+                    notification.contentIntent));
+        }
+
+        /**
+         * Forgets a notification just canceled.
+         *
+         * @return {@code true} if the notification belonged to this group
+         */
+        private boolean onCanceled(Context context, int id) {
+            load(context);
+            final int index = mNotifications.indexOfKey(id);
+            if (index < 0) {
+                return false;
+            }
+
+            mNotifications.removeAt(index);
+            return true;
+        }
+
+        /**
+         * Forgets the summary of this group once the user dismissed it, so that the next update
+         * posts it again.
+         *
+         * @return {@code true} if the notification is the summary of this group
+         */
+        private boolean onSummaryDismissed(int id) {
+            if (id != mSummaryId) {
+                return false;
+            }
+
+            mSummaryContentIntent = null;
+            return true;
+        }
+
+        /**
+         * Posts, updates or cancels the group summary so that it opens the first notification of
+         * the group.
+         */
+        private void updateSummary(Context context) {
+            PostedNotification first = null;
+            for (int i = 0; i < mNotifications.size(); i++) {
+                final PostedNotification notification = mNotifications.valueAt(i);
+                if (first == null || notification.sortKey().compareTo(first.sortKey()) < 0) {
+                    first = notification;
+                }
+            }
+
+            final NotificationManagerCompat nm = NotificationManagerCompat.from(context);
+            if (first == null) {
+                if (mSummaryContentIntent != null) {
+                    nm.cancel(mSummaryId);
+                    mSummaryContentIntent = null;
+                }
+                return;
+            }
+
+            if (mSummaryContentIntent != null
+                    && Objects.equals(mSummaryContentIntent, first.contentIntent())) {
+                return;
+            }
+
+            if (SdkUtils.isAtLeastAndroid8()) {
+                NotificationUtils.createChannel(context, mChannelId);
+            }
+            final Notification summary = new NotificationCompat.Builder(context, mChannelId)
+                    .setShowWhen(false)
+                    .setContentIntent(first.contentIntent())
+                    .setColor(context.getColor(R.color.md_theme_primary))
+                    .setSmallIcon(R.drawable.ic_tab_alarm_static)
+                    .setGroup(mKey)
+                    .setGroupSummary(true)
+                    .setDeleteIntent(createDismissedIntent(context, mSummaryId))
+                    .setPriority(mPriority)
+                    .setCategory(NotificationCompat.CATEGORY_EVENT)
+                    .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+                    .setLocalOnly(true)
+                    .build();
+
+            if (ActivityCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
+                    != PackageManager.PERMISSION_GRANTED) {
+                // Always false, because notification activation is always checked when the application is started.
+                return;
+            }
+
+            nm.notify(mSummaryId, summary);
+            mSummaryContentIntent = first.contentIntent();
+        }
+
+        /**
+         * Fills the mirror from the active notifications, which may have been posted by a previous
+         * process.
+         */
+        private void load(Context context) {
+            if (mLoaded) {
+                return;
+            }
+
+            mLoaded = true;
+            final NotificationManager nm = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+            for (StatusBarNotification statusBarNotification : nm.getActiveNotifications()) {
+                final Notification n = statusBarNotification.getNotification();
+                if (!mKey.equals(n.getGroup())) {
+                    continue;
+                }
+
+                if (isGroupSummary(n)) {
+                    mSummaryContentIntent = n.contentIntent;
+                } else if (mNotifications.indexOfKey(statusBarNotification.getId()) < 0) {
+                    mNotifications.put(statusBarNotification.getId(),
+                            new PostedNotification(n.getSortKey(), n.contentIntent));
+                }
+            }
+        }
+    }
+
+    /**
+     * The parts of a posted notification needed to maintain its group summary.
+     */
+    private record PostedNotification(String sortKey, PendingIntent contentIntent) {
+    }
 }
@@ -20,26 +20,24 @@ import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
-import android.hardware.camera2.CameraAccessException;
-import android.hardware.camera2.CameraCharacteristics;
-import android.hardware.camera2.CameraManager;
 import android.os.Binder;
 import android.os.Handler;
 import android.os.IBinder;
 import android.os.Looper;
-import android.os.VibrationEffect;
-import android.os.Vibrator;
+import android.os.SystemClock;
 
 import com.best.deskclock.AlarmAlertWakeLock;
+import com.best.deskclock.AsyncHandler;
 import com.best.deskclock.R;
-import com.best.deskclock.data.SettingsDAO;
+import com.best.deskclock.data.Settings;
 import com.best.deskclock.events.Events;
 import com.best.deskclock.provider.AlarmInstance;
-import com.best.deskclock.utils.AlarmUtils;
 import com.best.deskclock.utils.LogUtils;
 import com.best.deskclock.utils.SdkUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -89,6 +87,11 @@ public class AlarmService extends Service {
      */
     public static final String STOP_ALARM_WITH_SINGLE_VIBRATION_ACTION = "STOP_ALARM_WITH_SINGLE_VIBRATION";
 
+    /**
+     * Private action used to dismiss all the alarms of the firing session.
+     */
+    public static final String DISMISS_ALL_ALARMS_ACTION = "DISMISS_ALL_ALARMS";
+
     /**
      * Constant for No action
      */
@@ -107,7 +110,7 @@ public class AlarmService extends Service {
     /**
      * Binder given to AlarmActivity.
      */
-    private final IBinder mBinder = new Binder();
+    private final LocalBinder mBinder = new LocalBinder();
     
     /**
      * Whether the service is currently bound to AlarmActivity
@@ -119,16 +122,49 @@ public class AlarmService extends Service {
      */
     private boolean mIsRegistered = false;
 
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
     private SharedPreferences mPrefs;
-    private Vibrator mVibrator;
-    private CameraManager mCameraManager;
-    private String mCameraId;
-    private boolean mFlashState = false;
-    private Handler mHandler;
-    private Runnable mFlashRunnable;
 
+    /**
+     * Drives the vibration and the flash of the firing alarm.
+     */
+    private AlarmEffectScheduler mEffects;
+
+    /**
+     * Records the firing alarm so that it can be resumed if the process is killed.
+     */
+    private FiringStateRecord mFiringStateRecord;
+
+    /**
+     * The elapsed realtime at which the firing session started ringing.
+     */
+    private long mStartTime;
+
+    /**
+     * The alarm presented to the user; it is the first alarm of the firing session.
+     */
     private AlarmInstance mCurrentAlarm = null;
 
+    /**
+     * The alarms firing together, in the order in which they fired; they were all scheduled for
+     * the same minute. They share one ringtone playback, vibration, flash and alarm screen. It is
+     * only accessed on the main thread and is shared with the {@link AlarmActivity} through the
+     * {@link LocalBinder}.
+     */
+    private final List<AlarmInstance> mFiringAlarms = new ArrayList<>();
+
+    /**
+     * The alarm of the firing session whose ringtone is playing.
+     */
+    private AlarmInstance mRingtoneAlarm;
+
+    /**
+     * Whether the firing session vibrates and flashes.
+     */
+    private boolean mSessionVibrate;
+    private boolean mSessionFlash;
+
     private final BroadcastReceiver mActionsReceiver = new BroadcastReceiver() {
         @Override
         public void onReceive(Context context, Intent intent) {
@@ -139,23 +175,31 @@ public class AlarmService extends Service {
                 return;
             }
 
-            if (mIsBound) {
-                LogUtils.i("AlarmActivity bound; AlarmService no-op");
+            if (action == null) {
                 return;
             }
 
-            if (action != null) {
+            // The action applies to every alarm of the firing session. If AlarmActivity is bound,
+            // it handles the alarm it displays.
+            boolean showToast = true;
+            for (AlarmInstance instance : new ArrayList<>(mFiringAlarms)) {
+                if (mIsBound && instance == mCurrentAlarm) {
+                    LogUtils.i("AlarmActivity bound; AlarmService no-op for instance %d", instance.mId);
+                    continue;
+                }
+
                 switch (action) {
                     case ALARM_SNOOZE_ACTION -> {
                         // Set the alarm state to snoozed.
                         // If this broadcast receiver is handling the snooze intent then AlarmActivity
-                        // must not be showing, so always show snooze toast.
-                        AlarmStateManager.setSnoozeState(context, mCurrentAlarm, true);
+                        // must not be showing, so show snooze toast once.
+                        AlarmStateManager.setSnoozeState(context, instance, showToast && !mIsBound);
+                        showToast = false;
                         Events.sendAlarmEvent(R.string.action_snooze, R.string.label_intent);
                     }
                     case ALARM_DISMISS_ACTION -> {
                         // Set the alarm state to dismissed.
-                        AlarmStateManager.deleteInstanceAndUpdateParent(context, mCurrentAlarm);
+                        AlarmStateManager.deleteInstanceAndUpdateParent(context, instance);
                         Events.sendAlarmEvent(R.string.action_dismiss, R.string.label_intent);
                     }
                 }
@@ -252,7 +296,7 @@ public class AlarmService extends Service {
             float y = event.values[1] - gravity[1];
             float z = event.values[2] - gravity[2];
 
-            float sensitivity = SettingsDAO.getShakeIntensity(mPrefs);
+            float sensitivity = Settings.get(AlarmService.this).getShakeIntensity();
 
             if (fill <= BUFFER) {
                 average += Math.abs(x) + Math.abs(y) + Math.abs(z);
@@ -297,105 +341,94 @@ public class AlarmService extends Service {
 
         // Setup for flip and shake actions
         mSensorManager = (SensorManager) getSystemService(Context.SENSOR_SERVICE);
-        mFlipAction = SettingsDAO.getFlipAction(mPrefs);
-        mShakeAction = SettingsDAO.getShakeAction(mPrefs);
-
-        mVibrator = getSystemService(Vibrator.class);
-        mCameraManager = (CameraManager) getSystemService(Context.CAMERA_SERVICE);
-
-        getBackCameraId();
 
-        mHandler = new Handler(Looper.getMainLooper());
-        mFlashRunnable = new Runnable() {
-            @Override
-            public void run() {
-                // Toggle flash state
-                mFlashState = !mFlashState;
-                toggleFlash(mFlashState);
-
-                // Repeat action after 500ms
-                mHandler.postDelayed(this, 500);
-            }
-        };
+        mEffects = new AlarmEffectScheduler(this);
+        mFiringStateRecord = FiringStateRecord.getInstance(this);
     }
 
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
         LogUtils.v("AlarmService.onStartCommand() with %s", intent);
         if (intent == null) {
-            return Service.START_NOT_STICKY;
+            // The service is restarted after its process was killed while an alarm was firing.
+            resumeFiringAlarm();
+            return mCurrentAlarm != null ? Service.START_STICKY : Service.START_NOT_STICKY;
         }
 
-        final long instanceId = AlarmInstance.getId(intent.getData());
-        switch (Objects.requireNonNull(intent.getAction())) {
-            case AlarmStateManager.CHANGE_STATE_ACTION -> {
-                AlarmStateManager.handleIntent(this, intent);
-
-                // If state is changed to firing, actually fire the alarm!
-                final int alarmState = intent.getIntExtra(AlarmStateManager.ALARM_STATE_EXTRA, -1);
-                if (alarmState == AlarmInstance.FIRED_STATE) {
-                    final ContentResolver cr = this.getContentResolver();
-                    final AlarmInstance instance = AlarmInstance.getInstance(cr, instanceId);
-                    if (instance == null) {
-                        LogUtils.e("No instance found to start alarm: %d", instanceId);
-                        if (mCurrentAlarm != null) {
-                            // Only release lock if we are not firing alarm
-                            AlarmAlertWakeLock.releaseCpuLock();
-                        }
-                        break;
-                    }
-
-                    if (mCurrentAlarm != null && mCurrentAlarm.mId == instanceId) {
-                        LogUtils.e("Alarm already started for instance: %d", instanceId);
-                        break;
-                    }
-                    startAlarm(instance);
+        if (AlarmStateManager.DISPATCH_STATE_CHANGES_ACTION.equals(intent.getAction())) {
+            // The state changes of all alarm instances share a single AlarmManager alarm.
+            try {
+                for (Intent stateChangeIntent : AlarmStateManager.getDueStateChanges(this)) {
+                    handleStateChange(stateChangeIntent);
+                    AlarmStateManager.completeStateChange(this, stateChangeIntent);
                 }
+            } finally {
+                AlarmStateManager.finishStateChanges(this);
             }
+            return mCurrentAlarm != null ? Service.START_STICKY : Service.START_NOT_STICKY;
+        }
+
+        final long instanceId = AlarmInstance.getId(intent.getData());
+        switch (Objects.requireNonNull(intent.getAction())) {
+            case AlarmStateManager.CHANGE_STATE_ACTION -> handleStateChange(intent);
             case STOP_ALARM_ACTION -> {
+                if (leaveFiringSession(instanceId)) {
+                    break;
+                }
                 if (mCurrentAlarm != null && mCurrentAlarm.mId != instanceId) {
                     LogUtils.e("Can't stop alarm for instance: %d because current alarm is: %d",
                             instanceId, mCurrentAlarm.mId);
                     break;
                 }
-                stopCurrentAlarm();
+                stopCurrentAlarm(null);
                 stopSelf();
             }
             case STOP_ALARM_WITH_DOUBLE_VIBRATION_ACTION -> {
+                if (leaveFiringSession(instanceId)) {
+                    break;
+                }
                 if (mCurrentAlarm != null && mCurrentAlarm.mId != instanceId) {
                     LogUtils.e("Can't perform double vibration and stop alarm for instance: %d " +
                                     "because current alarm is: %d", instanceId, mCurrentAlarm.mId);
                     break;
                 }
-                performDoubleVibration();
+                stopCurrentAlarm(AlarmEffectScheduler.SNOOZE_FEEDBACK);
                 stopSelf();
             }
             case STOP_ALARM_WITH_SINGLE_VIBRATION_ACTION -> {
+                if (leaveFiringSession(instanceId)) {
+                    break;
+                }
                 if (mCurrentAlarm != null && mCurrentAlarm.mId != instanceId) {
                     LogUtils.e("Can't perform single vibration and stop alarm for instance: %d " +
                                     "because current alarm is: %d", instanceId, mCurrentAlarm.mId);
                     break;
                 }
-                performSingleVibration();
+                stopCurrentAlarm(AlarmEffectScheduler.DISMISS_FEEDBACK);
                 stopSelf();
             }
+            case DISMISS_ALL_ALARMS_ACTION -> {
+                for (AlarmInstance instance : new ArrayList<>(mFiringAlarms)) {
+                    AlarmStateManager.deleteInstanceAndUpdateParent(this, instance);
+                    Events.sendAlarmEvent(R.string.action_dismiss, R.string.label_notification);
+                }
+            }
         }
 
-        return Service.START_NOT_STICKY;
+        // Restart the service to resume the alarm if the process is killed while it is firing.
+        return mCurrentAlarm != null ? Service.START_STICKY : Service.START_NOT_STICKY;
     }
 
     @Override
     public void onDestroy() {
         LogUtils.v("AlarmService.onDestroy() called");
         super.onDestroy();
+        mHandler.removeCallbacksAndMessages(null);
         if (mCurrentAlarm != null) {
-            stopCurrentAlarm();
+            stopCurrentAlarm(null);
         }
 
-        mHandler.removeCallbacks(mFlashRunnable);
-        if (AlarmUtils.hasBackFlash(this)) {
-            toggleFlash(false);
-        }
+        mEffects.stop();
 
         if (mIsRegistered) {
             unregisterReceiver(mActionsReceiver);
@@ -403,100 +436,323 @@ public class AlarmService extends Service {
         }
     }
 
-    private void startAlarm(AlarmInstance instance) {
-        LogUtils.v("AlarmService.start with instance: " + instance.mId);
-        if (mCurrentAlarm != null) {
-            AlarmStateManager.setMissedState(this, mCurrentAlarm);
-            stopCurrentAlarm();
+    /**
+     * Changes the state of the alarm instance targeted by the given intent and fires the alarm if
+     * its new state is the fired state.
+     */
+    private void handleStateChange(Intent intent) {
+        final long instanceId = AlarmInstance.getId(intent.getData());
+        final int alarmState = intent.getIntExtra(AlarmStateManager.ALARM_STATE_EXTRA, -1);
+        if (alarmState == AlarmInstance.FIRED_STATE) {
+            AlarmFireTracer.begin(instanceId);
+        }
+
+        AlarmFireTracer.beginSection("handleIntent");
+        try {
+            AlarmStateManager.handleIntent(this, intent);
+        } finally {
+            AlarmFireTracer.endSection();
         }
 
-        AlarmAlertWakeLock.acquireCpuWakeLock(this);
+        // If state is changed to firing, actually fire the alarm!
+        if (alarmState == AlarmInstance.FIRED_STATE) {
+            final ContentResolver cr = this.getContentResolver();
+            final AlarmInstance instance = AlarmInstance.getInstance(cr, instanceId);
+            AlarmFireTracer.mark(instanceId, AlarmFireTracer.STAGE_INSTANCE_LOADED);
+            if (instance == null) {
+                LogUtils.e("No instance found to start alarm: %d", instanceId);
+                if (mCurrentAlarm != null) {
+                    // Only release lock if we are not firing alarm
+                    AlarmAlertWakeLock.releaseCpuLock();
+                }
+                return;
+            }
 
-        mCurrentAlarm = instance;
-        AlarmNotifications.showAlarmNotification(this, mCurrentAlarm);
-        AlarmKlaxon.start(this, mPrefs, mCurrentAlarm);
-        if (mCurrentAlarm.mFlash) {
-            mHandler.post(mFlashRunnable);
+            if (getFiringAlarm(instanceId) != null) {
+                LogUtils.e("Alarm already started for instance: %d", instanceId);
+                return;
+            }
+            startAlarm(instance, SystemClock.elapsedRealtime());
         }
-        sendBroadcast(new Intent(ALARM_ALERT_ACTION));
-        attachListeners();
     }
 
-    private void stopCurrentAlarm() {
-        if (mCurrentAlarm == null) {
-            LogUtils.v("There is no current alarm to stop");
+    /**
+     * Resumes the alarm that was firing when the process was killed, as saved in the
+     * {@link FiringStateRecord}. The service stops if no alarm was firing.
+     * <p>
+     * The alarm resumes ringing at once, then the database is checked in the background: the
+     * alarm stops if it no longer fires, e.g. if it was dismissed while the process was dead. The
+     * record only holds the ids of the other alarms of the firing session, so they are restored
+     * from the database at that point.
+     */
+    private void resumeFiringAlarm() {
+        final AlarmInstance instance = mFiringStateRecord.getFiringInstance();
+        if (instance == null) {
+            LogUtils.i("No firing alarm to resume");
+            stopSelf();
             return;
         }
 
-        final long instanceId = mCurrentAlarm.mId;
-        LogUtils.v("AlarmService.stop with instance: %s", instanceId);
+        LogUtils.i("Resuming firing alarm for instance: %d", instance.mId);
+        final long[] sessionIds = mFiringStateRecord.getSessionInstanceIds();
+        startAlarm(instance, mFiringStateRecord.getStartTime());
 
-        AlarmKlaxon.stop(this, mPrefs);
+        final ContentResolver cr = getContentResolver();
+        AsyncHandler.post(() -> {
+            final List<AlarmInstance> firedInstances =
+                    AlarmInstance.getInstancesByState(cr, AlarmInstance.FIRED_STATE);
+            mHandler.post(() -> onResumedAlarmChecked(instance.mId, sessionIds, firedInstances));
+        });
+    }
 
-        AlarmKlaxon.deactivateRingtonePlayback(mPrefs);
+    /**
+     * Reconciles the firing session resumed from the {@link FiringStateRecord} with the database.
+     *
+     * @param instanceId     identifies the resumed alarm instance
+     * @param sessionIds     identifies the alarm instances of the recorded firing session
+     * @param firedInstances the alarm instances in the fired state in the database
+     */
+    private void onResumedAlarmChecked(long instanceId, long[] sessionIds,
+                                       List<AlarmInstance> firedInstances) {
+
+        boolean stillFired = false;
+        for (AlarmInstance firedInstance : firedInstances) {
+            if (firedInstance.mId == instanceId) {
+                stillFired = true;
+                break;
+            }
+        }
 
-        sendBroadcast(new Intent(ALARM_DONE_ACTION));
+        if (!stillFired && getFiringAlarm(instanceId) != null) {
+            LogUtils.i("Resumed alarm instance %d is no longer firing", instanceId);
+            if (!leaveFiringSession(instanceId)) {
+                stopCurrentAlarm(null);
+            }
+        }
 
-        if (SdkUtils.isAtLeastAndroid7()) {
-            stopForeground(Service.STOP_FOREGROUND_REMOVE);
-        } else {
-            stopForeground(true);
+        // The recorded session is restored in the order in which its alarms fired.
+        for (long sessionId : sessionIds) {
+            for (AlarmInstance firedInstance : firedInstances) {
+                if (firedInstance.mId == sessionId && getFiringAlarm(sessionId) == null) {
+                    LogUtils.i("Restoring firing alarm for instance: %d", sessionId);
+                    if (mCurrentAlarm == null) {
+                        startAlarm(firedInstance, SystemClock.elapsedRealtime());
+                    } else {
+                        joinFiringSession(firedInstance);
+                    }
+                }
+            }
         }
 
-        mCurrentAlarm = null;
-        detachListeners();
-        AlarmAlertWakeLock.releaseCpuLock();
-    }
+        // Alarms that fired after the record was last written are started as usual.
+        for (AlarmInstance firedInstance : firedInstances) {
+            if (getFiringAlarm(firedInstance.mId) == null) {
+                LogUtils.i("Starting firing alarm for instance: %d", firedInstance.mId);
+                startAlarm(firedInstance, SystemClock.elapsedRealtime());
+            }
+        }
 
-    private void performSingleVibration() {
         if (mCurrentAlarm == null) {
-            LogUtils.v("There is no current alarm to stop so it's impossible to perform a single vibration");
-            return;
+            stopSelf();
         }
+    }
 
-        final long instanceId = mCurrentAlarm.mId;
-        LogUtils.v("AlarmService.stop with single vibration with instance: %s", instanceId);
+    /**
+     * @param startTime the elapsed realtime at which the alarm started ringing; it is earlier than
+     *                  now when the alarm is resumed
+     */
+    private void startAlarm(AlarmInstance instance, long startTime) {
+        LogUtils.v("AlarmService.start with instance: " + instance.mId);
+        if (mCurrentAlarm != null) {
+            if (isSameMinute(mCurrentAlarm, instance)) {
+                joinFiringSession(instance);
+                return;
+            }
 
-        AlarmKlaxon.stop(this, mPrefs);
+            // The alarms of an earlier minute that are still ringing were not answered.
+            for (AlarmInstance firingAlarm : new ArrayList<>(mFiringAlarms)) {
+                AlarmStateManager.setMissedState(this, firingAlarm);
+            }
+            stopCurrentAlarm(null);
+        }
 
-        AlarmKlaxon.deactivateRingtonePlayback(mPrefs);
+        AlarmFireTracer.beginSection("startAlarm");
+        try {
+            AlarmAlertWakeLock.acquireCpuWakeLock(this);
+
+            mCurrentAlarm = instance;
+            mStartTime = startTime;
+            mFiringAlarms.add(instance);
+            mFiringStateRecord.setFiring(instance, startTime, mFiringAlarms);
+            LogUtils.i("Alarm instance %d fired after %d snoozes", instance.mId,
+                    mFiringStateRecord.getSnoozeCount(instance.mId));
+
+            AlarmNotifications.showAlarmNotification(this, mCurrentAlarm, mFiringAlarms.size());
+            mRingtoneAlarm = null;
+            mSessionVibrate = false;
+            mSessionFlash = false;
+            updateSessionPlayback();
+            AlarmFireTracer.mark(instance.mId, AlarmFireTracer.STAGE_KLAXON_STARTED);
+            sendBroadcast(new Intent(ALARM_ALERT_ACTION));
+            attachListeners();
+        } finally {
+            AlarmFireTracer.endSection();
+        }
+    }
 
-        if (SdkUtils.isAtLeastAndroid8()) {
-            mVibrator.vibrate(VibrationEffect.createWaveform(new long[]{700, 500}, VibrationEffect.DEFAULT_AMPLITUDE));
-        } else {
-            mVibrator.vibrate(new long[]{700, 500}, -1);
+    /**
+     * Adds an alarm that fires in the same minute as the ringing one to the firing session. The
+     * alarm screen of the session is kept as it is, but the session escalates to the settings of
+     * the joined alarm: its ringtone replaces a silent one, and it vibrates or flashes if the
+     * joined alarm does.
+     */
+    private void joinFiringSession(AlarmInstance instance) {
+        LogUtils.v("AlarmService adding instance %d to the firing session", instance.mId);
+
+        mFiringAlarms.add(instance);
+        mFiringStateRecord.setFiring(mCurrentAlarm, mStartTime, mFiringAlarms);
+        AlarmNotifications.showAlarmNotification(this, mCurrentAlarm, mFiringAlarms.size());
+        updateSessionPlayback();
+        AlarmFireTracer.mark(instance.mId, AlarmFireTracer.STAGE_KLAXON_STARTED);
+    }
+
+    /**
+     * Removes an alarm from the firing session if other alarms keep firing. If the removed alarm
+     * was presented to the user, the next alarm of the session takes its place.
+     *
+     * @param instanceId identifies the alarm instance that stops firing
+     * @return {@code true} if the alarm left the session and other alarms are still firing;
+     * {@code false} if the whole session must be stopped or the alarm is not firing
+     */
+    private boolean leaveFiringSession(long instanceId) {
+        final AlarmInstance instance = getFiringAlarm(instanceId);
+        if (instance == null || mFiringAlarms.size() < 2) {
+            return false;
         }
 
-        sendBroadcast(new Intent(ALARM_DONE_ACTION));
+        LogUtils.v("AlarmService removing instance %d from the firing session", instanceId);
 
-        if (SdkUtils.isAtLeastAndroid7()) {
-            stopForeground(Service.STOP_FOREGROUND_REMOVE);
-        } else {
-            stopForeground(true);
+        mFiringAlarms.remove(instance);
+        AlarmFireTracer.finish(instanceId);
+
+        mCurrentAlarm = mFiringAlarms.get(0);
+        mFiringStateRecord.setFiring(mCurrentAlarm, mStartTime, mFiringAlarms);
+        AlarmNotifications.showAlarmNotification(this, mCurrentAlarm, mFiringAlarms.size());
+        updateSessionPlayback();
+        return true;
+    }
+
+    /**
+     * Plays the ringtone, vibration and flash of the firing session. The ringtone is the one of
+     * {@link #mCurrentAlarm}, or of the first other alarm of the session that is not silent if it
+     * is silent; the session vibrates and flashes if any of its alarms does. The ringtone playback
+     * and the effects are only restarted when they change.
+     */
+    private void updateSessionPlayback() {
+        AlarmInstance ringtoneAlarm = mCurrentAlarm;
+        boolean vibrate = false;
+        boolean flash = false;
+        for (AlarmInstance instance : mFiringAlarms) {
+            if (AlarmInstance.NO_RINGTONE_URI.equals(ringtoneAlarm.mRingtone)
+                    && !AlarmInstance.NO_RINGTONE_URI.equals(instance.mRingtone)) {
+                ringtoneAlarm = instance;
+            }
+            vibrate |= instance.mVibrate;
+            flash |= instance.mFlash;
         }
 
-        mCurrentAlarm = null;
-        detachListeners();
-        AlarmAlertWakeLock.releaseCpuLock();
+        if (mRingtoneAlarm == null
+                || !Objects.equals(mRingtoneAlarm.mRingtone, ringtoneAlarm.mRingtone)) {
+            // The crescendo keeps the phase of the session.
+            AlarmKlaxon.start(this, mPrefs, ringtoneAlarm, SystemClock.elapsedRealtime() - mStartTime);
+        }
+        mRingtoneAlarm = ringtoneAlarm;
+
+        if (vibrate != mSessionVibrate || flash != mSessionFlash) {
+            mSessionVibrate = vibrate;
+            mSessionFlash = flash;
+            mEffects.start(
+                    vibrate ? AlarmEffectScheduler.RINGING_VIBRATION : null,
+                    flash ? AlarmEffectScheduler.RINGING_FLASH : null);
+        }
+    }
+
+    /**
+     * @return {@code true} if both alarm instances are scheduled for the same minute
+     */
+    private static boolean isSameMinute(AlarmInstance instance, AlarmInstance other) {
+        return instance.mYear == other.mYear && instance.mMonth == other.mMonth
+                && instance.mDay == other.mDay && instance.mHour == other.mHour
+                && instance.mMinute == other.mMinute;
+    }
+
+    /**
+     * @return the alarm of the firing session with the given id; {@code null} if it is not firing
+     */
+    private AlarmInstance getFiringAlarm(long instanceId) {
+        for (AlarmInstance instance : mFiringAlarms) {
+            if (instance.mId == instanceId) {
+                return instance;
+            }
+        }
+        return null;
     }
 
-    private void performDoubleVibration() {
+    /**
+     * Gives the {@link AlarmActivity} access to the firing session, so that it displays a firing
+     * alarm without querying the database. Its methods must be called on the main thread.
+     */
+    final class LocalBinder extends Binder {
+
+        /**
+         * @return a copy of the alarm with the given id if it is firing; {@code null} otherwise
+         */
+        AlarmInstance getFiringAlarmCopy(long instanceId) {
+            final AlarmInstance instance = getFiringAlarm(instanceId);
+            return instance == null ? null : new AlarmInstance(instance);
+        }
+
+        /**
+         * @param handledInstanceId identifies the alarm that was just snoozed or dismissed, which
+         *                          may not have left the firing session yet
+         * @return a copy of the first other alarm of the firing session; {@code null} if there is
+         * none
+         */
+        AlarmInstance getNextFiringAlarmCopy(long handledInstanceId) {
+            for (AlarmInstance instance : mFiringAlarms) {
+                if (instance.mId != handledInstanceId) {
+                    return new AlarmInstance(instance);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Stops the firing session: the ringtone playback, vibration and flash stop, the listeners
+     * are detached and the wake lock acquired when the alarm started is released.
+     *
+     * @param feedback the vibration confirming how the alarm was stopped; {@code null} for none
+     */
+    private void stopCurrentAlarm(AlarmEffectScheduler.Pattern feedback) {
         if (mCurrentAlarm == null) {
-            LogUtils.v("There is no current alarm to stop so it's impossible to perform a double vibration");
+            LogUtils.v("There is no current alarm to stop");
             return;
         }
 
         final long instanceId = mCurrentAlarm.mId;
-        LogUtils.v("AlarmService.stop with double vibration with instance: %s", instanceId);
+        LogUtils.v("AlarmService.stop with instance: %s", instanceId);
+        for (AlarmInstance instance : mFiringAlarms) {
+            AlarmFireTracer.finish(instance.mId);
+        }
 
         AlarmKlaxon.stop(this, mPrefs);
 
         AlarmKlaxon.deactivateRingtonePlayback(mPrefs);
 
-        if (SdkUtils.isAtLeastAndroid8()) {
-            mVibrator.vibrate(VibrationEffect.createWaveform(new long[]{700, 200, 100, 500}, VibrationEffect.DEFAULT_AMPLITUDE));
-        } else {
-            mVibrator.vibrate(new long[]{700, 200, 100, 500}, -1);
+        mEffects.stop();
+        if (feedback != null) {
+            mEffects.vibrate(feedback);
         }
 
         sendBroadcast(new Intent(ALARM_DONE_ACTION));
@@ -508,40 +764,13 @@ public class AlarmService extends Service {
         }
 
         mCurrentAlarm = null;
+        mRingtoneAlarm = null;
+        mFiringAlarms.clear();
+        mFiringStateRecord.clearFiring();
         detachListeners();
         AlarmAlertWakeLock.releaseCpuLock();
     }
 
-    private void getBackCameraId() {
-        try {
-            for (String id : mCameraManager.getCameraIdList()) {
-                CameraCharacteristics characteristics = mCameraManager.getCameraCharacteristics(id);
-                Integer lensFacing = characteristics.get(CameraCharacteristics.LENS_FACING);
-                // Check if it is the rear camera
-                if (lensFacing != null && lensFacing == CameraCharacteristics.LENS_FACING_BACK) {
-                    mCameraId = id;
-                    break;
-                }
-            }
-
-            if (mCameraId == null) {
-                LogUtils.e("mCameraId is null");
-            }
-        } catch (CameraAccessException e) {
-            LogUtils.e("AlarmService.onCreate - Failed to access the flash unit", e);
-        }
-    }
-
-    private void toggleFlash(boolean state) {
-        try {
-            if (AlarmUtils.hasBackFlash(this) && mCameraId != null) {
-                mCameraManager.setTorchMode(mCameraId, state);
-            }
-        } catch (CameraAccessException e) {
-            LogUtils.e("AlarmService.toggleFlash - Failed to access the flash unit", e);
-        }
-    }
-
     /**
      * Utility method to help stop an alarm properly. Nothing will happen, if alarm is not firing
      * or using a different instance.
@@ -588,6 +817,12 @@ public class AlarmService extends Service {
     }
 
     private void attachListeners() {
+        // Read the actions when the alarm starts, as the service outlives changes to them. They
+        // are kept until the listeners are detached.
+        final Settings settings = Settings.get(this);
+        mFlipAction = settings.getFlipAction();
+        mShakeAction = settings.getShakeAction();
+
         if (mFlipAction != ALARM_NO_ACTION) {
             mFlipListener.reset();
             mSensorManager.registerListener(mFlipListener,
@@ -25,16 +25,16 @@ import android.net.Uri;
 import android.os.Handler;
 import android.os.PowerManager;
 import android.text.format.DateFormat;
+import android.text.format.DateUtils;
 import android.widget.Toast;
 
-import androidx.core.app.NotificationManagerCompat;
-
 import com.best.deskclock.AlarmAlertWakeLock;
 import com.best.deskclock.AlarmClockFragment;
 import com.best.deskclock.AsyncHandler;
 import com.best.deskclock.DeskClock;
 import com.best.deskclock.R;
 import com.best.deskclock.data.DataModel;
+import com.best.deskclock.data.Settings;
 import com.best.deskclock.data.SettingsDAO;
 import com.best.deskclock.events.Events;
 import com.best.deskclock.provider.Alarm;
@@ -42,10 +42,14 @@ import com.best.deskclock.provider.AlarmInstance;
 import com.best.deskclock.utils.AlarmUtils;
 import com.best.deskclock.utils.LogUtils;
 import com.best.deskclock.utils.RingtoneUtils;
+import com.best.deskclock.utils.SdkUtils;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -92,9 +96,15 @@ public final class AlarmStateManager extends BroadcastReceiver {
     // Intent action to trigger an instance state change.
     public static final String CHANGE_STATE_ACTION = "change_state";
 
+    // Intent action to perform all the instance state changes that are due.
+    public static final String DISPATCH_STATE_CHANGES_ACTION = "dispatch_state_changes";
+
     // Intent action to show the alarm and dismiss the instance
     public static final String SHOW_AND_DISMISS_ALARM_ACTION = "show_and_dismiss_alarm";
 
+    // Intent action sent when the user dismisses an alarm notification belonging to a group
+    static final String NOTIFICATION_DISMISSED_ACTION = "notification_dismissed";
+
     // Extra key to set the desired state change.
     public static final String ALARM_STATE_EXTRA = "intent.extra.alarm.state";
 
@@ -114,6 +124,9 @@ public final class AlarmStateManager extends BroadcastReceiver {
     // Extra key to set the global broadcast id.
     private static final String ALARM_GLOBAL_ID_EXTRA = "intent.extra.alarm.global.id";
 
+    // Extra key to set the time at which a multiplexed state change was scheduled to happen.
+    private static final String STATE_CHANGE_TIME_EXTRA = "intent.extra.state.change.time";
+
     // Intent category tag used when schedule state change intents in alarm manager.
     private static final String ALARM_MANAGER_TAG = "ALARM_MANAGER";
     private static final String ACTION_SET_POWEROFF_ALARM = "org.codeaurora.poweroffalarm.action.SET_ALARM";
@@ -122,7 +135,11 @@ public final class AlarmStateManager extends BroadcastReceiver {
     private static final String TIME = "time";
 
     // Schedules alarm state transitions; can be mocked for testing purposes.
-    private static final StateChangeScheduler sStateChangeScheduler = new AlarmManagerStateChangeScheduler();
+    private static final StateChangeScheduler sStateChangeScheduler = new MultiplexingStateChangeScheduler();
+
+    // The next alarm last set in the framework; INVALID_ID if there is none, null if unknown.
+    private static Long sNextAlarmId;
+    private static long sNextAlarmTime;
 
     private static Calendar getCurrentTime() {
         return DataModel.getDataModel().getCalendar();
@@ -135,11 +152,14 @@ public final class AlarmStateManager extends BroadcastReceiver {
     private static void updateNextAlarm(Context context) {
         final AlarmInstance nextAlarm = getNextFiringAlarm(context);
 
-        if (nextAlarm != null) {
-            setPowerOffAlarm(context, nextAlarm);
-        }
+        // The framework is only updated when the next alarm changed.
+        if (setNextAlarm(nextAlarm)) {
+            if (nextAlarm != null) {
+                setPowerOffAlarm(context, nextAlarm);
+            }
 
-        updateNextAlarmInAlarmManager(context, nextAlarm);
+            updateNextAlarmInAlarmManager(context, nextAlarm);
+        }
 
         // Adding a Handler ensures better fluidity when activating/deactivating the alarm
         new Handler(context.getMainLooper()).postDelayed(() -> {
@@ -154,6 +174,23 @@ public final class AlarmStateManager extends BroadcastReceiver {
     }
 
 
+    /**
+     * Remembers the next alarm set in the framework.
+     *
+     * @return {@code true} if it differs from the one previously set; {@code false} otherwise
+     */
+    private static synchronized boolean setNextAlarm(AlarmInstance nextAlarm) {
+        final long id = nextAlarm == null ? AlarmInstance.INVALID_ID : nextAlarm.mId;
+        final long time = nextAlarm == null ? 0 : nextAlarm.getAlarmTime().getTimeInMillis();
+        if (sNextAlarmId != null && sNextAlarmId == id && sNextAlarmTime == time) {
+            return false;
+        }
+
+        sNextAlarmId = id;
+        sNextAlarmTime = time;
+        return true;
+    }
+
     /**
      * Returns an alarm instance of an alarm that's going to fire next.
      *
@@ -294,6 +331,39 @@ public final class AlarmStateManager extends BroadcastReceiver {
         sStateChangeScheduler.scheduleInstanceStateChange(ctx, time, instance, newState);
     }
 
+    /**
+     * Lists the instance state changes that are due, once the {@link AlarmManager} alarm
+     * dispatching them went off. They stay scheduled until {@link #completeStateChange} is called,
+     * so that they are dispatched again if the process dies before they are handled.
+     * {@link #finishStateChanges} must be called once they were all handled.
+     *
+     * @param ctx application context
+     * @return the intents performing the due state changes, in chronological order
+     */
+    static List<Intent> getDueStateChanges(Context ctx) {
+        return sStateChangeScheduler.getDueStateChanges(ctx);
+    }
+
+    /**
+     * Removes a due state change from the schedule once it was handled.
+     *
+     * @param ctx               application context
+     * @param stateChangeIntent an intent returned by {@link #getDueStateChanges}
+     */
+    static void completeStateChange(Context ctx, Intent stateChangeIntent) {
+        sStateChangeScheduler.completeStateChange(ctx, stateChangeIntent);
+    }
+
+    /**
+     * Moves the {@link AlarmManager} alarm to the next scheduled state change once all the state
+     * changes returned by {@link #getDueStateChanges} were handled.
+     *
+     * @param ctx application context
+     */
+    static void finishStateChanges(Context ctx) {
+        sStateChangeScheduler.finishStateChanges(ctx);
+    }
+
     /**
      * Cancel all {@link AlarmManager} timers for instance.
      *
@@ -356,6 +426,15 @@ public final class AlarmStateManager extends BroadcastReceiver {
      * @param instance to set state to
      */
     public static void setFiredState(Context context, AlarmInstance instance) {
+        AlarmFireTracer.beginSection("setFiredState");
+        try {
+            doSetFiredState(context, instance);
+        } finally {
+            AlarmFireTracer.endSection();
+        }
+    }
+
+    private static void doSetFiredState(Context context, AlarmInstance instance) {
         LogUtils.i("Setting fire state to instance " + instance.mId);
 
         // Update alarm state in db
@@ -374,6 +453,9 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         AlarmInstance.updateInstance(contentResolver, instance);
 
+        AlarmFireTracer.setScheduledTime(instance.mId, instance.getAlarmTime().getTimeInMillis());
+        AlarmFireTracer.mark(instance.mId, AlarmFireTracer.STAGE_FIRED_STATE);
+
         if (instance.mAlarmId != null) {
             // if the time changed *backward* and pushed an instance from missed back to fired,
             // remove any other scheduled instances that may exist
@@ -400,8 +482,8 @@ public final class AlarmStateManager extends BroadcastReceiver {
      * @param instance to set state to
      */
     public static void setSnoozeState(final Context context, AlarmInstance instance, boolean showToast) {
-        final SharedPreferences prefs = getDefaultSharedPreferences(context);
-        final int snoozeMinutes = SettingsDAO.getSnoozeLength(prefs);
+        final Settings settings = Settings.get(context);
+        final int snoozeMinutes = settings.getSnoozeLength();
         Calendar newAlarmTime = Calendar.getInstance();
         // If the "Snooze duration" setting has been set to "None" or if "Enable alarm snooze actions"
         // is not enabled in the expanded alarm view, simply dismiss the alarm.
@@ -412,7 +494,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         // Stop alarm if this instance is firing it; a double vibration will be performed if enabled in settings
         // to indicate that the alarm is correctly snoozed.
-        if (SettingsDAO.areSnoozedOrDismissedAlarmVibrationsEnabled(prefs)) {
+        if (settings.areSnoozedOrDismissedAlarmVibrationsEnabled()) {
             AlarmService.stopAlarmWithDoubleVibration(context, instance);
         } else {
             AlarmService.stopAlarm(context, instance);
@@ -427,6 +509,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
         instance.setAlarmTime(newAlarmTime);
         instance.mAlarmState = AlarmInstance.SNOOZE_STATE;
         AlarmInstance.updateInstance(context.getContentResolver(), instance);
+        FiringStateRecord.getInstance(context).incrementSnoozeCount(instance.mId);
 
         // Setup instance notification and scheduling timers
         AlarmNotifications.showSnoozeNotification(context, instance);
@@ -461,7 +544,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
         // If the "Alarm silence" setting has not been set to "Never", we don't want alarms
         // to be seen as missed but snoozed.
         // This avoids having to create multiple alarms for the same reason.
-        final int timeoutMinutes = SettingsDAO.getAlarmTimeout(getDefaultSharedPreferences(context));
+        final int timeoutMinutes = Settings.get(context).getAlarmTimeout();
         if (timeoutMinutes != ALARM_TIMEOUT_NEVER) {
             setSnoozeState(context, instance, true);
             return;
@@ -501,7 +584,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         // Stop alarm if this instance is firing it; a single vibration will be performed if enabled in settings
         // to indicate that the alarm is correctly dismissed.
-        if (SettingsDAO.areSnoozedOrDismissedAlarmVibrationsEnabled(getDefaultSharedPreferences(context))) {
+        if (Settings.get(context).areSnoozedOrDismissedAlarmVibrationsEnabled()) {
             AlarmService.stopAlarmWithSingleVibration(context, instance);
         }
 
@@ -547,7 +630,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         // Stop alarm if this instance is firing it; a single vibration will be performed if enabled in settings
         // to indicate that the alarm is correctly dismissed.
-        if (SettingsDAO.areSnoozedOrDismissedAlarmVibrationsEnabled(getDefaultSharedPreferences(context))) {
+        if (Settings.get(context).areSnoozedOrDismissedAlarmVibrationsEnabled()) {
             AlarmService.stopAlarmWithSingleVibration(context, instance);
         } else {
             // Stop alarm if this instance is firing it
@@ -708,6 +791,23 @@ public final class AlarmStateManager extends BroadcastReceiver {
         updateNextAlarm(context);
     }
 
+    /**
+     * This will remove the notifications and alarm timers of all instances, without updating
+     * them in the database. This should be used before all alarms are replaced at once, e.g.
+     * when a backup is restored; {@link #fixAlarmInstances} then schedules the new instances.
+     *
+     * @param context application context
+     */
+    public static void unregisterAllInstances(Context context) {
+        LogUtils.i("Unregistering all instances");
+        final List<AlarmInstance> instances = AlarmInstance.getInstances(context.getContentResolver(), null);
+        for (AlarmInstance instance : instances) {
+            AlarmNotifications.clearNotification(context, instance);
+            cancelScheduledInstanceStateChange(context, instance);
+            cancelPowerOffAlarm(context, instance);
+        }
+    }
+
     /**
      * Fix and update all alarm instance when a time change event occurs.
      *
@@ -822,7 +922,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
                 // Dismiss the notification
                 final int id = intent.getIntExtra(AlarmNotifications.EXTRA_NOTIFICATION_ID, -1);
                 if (id != -1) {
-                    NotificationManagerCompat.from(context).cancel(id);
+                    AlarmNotifications.clearNotification(context, id);
                 }
                 return;
             }
@@ -836,6 +936,11 @@ public final class AlarmStateManager extends BroadcastReceiver {
             context.startActivity(viewAlarmIntent);
 
             deleteInstanceAndUpdateParent(context, instance);
+        } else if (NOTIFICATION_DISMISSED_ACTION.equals(action)) {
+            final int id = intent.getIntExtra(AlarmNotifications.EXTRA_NOTIFICATION_ID, -1);
+            if (id != -1) {
+                AlarmNotifications.onNotificationDismissed(context, id);
+            }
         }
     }
 
@@ -870,18 +975,28 @@ public final class AlarmStateManager extends BroadcastReceiver {
             return;
         }
 
+        if (CHANGE_STATE_ACTION.equals(intent.getAction())
+                && intent.getIntExtra(ALARM_STATE_EXTRA, -1) == AlarmInstance.FIRED_STATE) {
+            AlarmFireTracer.begin(AlarmInstance.getId(intent.getData()));
+        }
+
         final PendingResult result = goAsync();
         final PowerManager.WakeLock wl = AlarmAlertWakeLock.createPartialWakeLock(context);
         wl.acquire(10000L);
         AsyncHandler.post(() -> {
-            handleIntent(context, intent);
+            AlarmFireTracer.beginSection("handleIntent");
+            try {
+                handleIntent(context, intent);
+            } finally {
+                AlarmFireTracer.endSection();
+            }
             result.finish();
             wl.release();
         });
     }
 
     /**
-     * Abstracts away how state changes are scheduled. The {@link AlarmManagerStateChangeScheduler}
+     * Abstracts away how state changes are scheduled. The {@link MultiplexingStateChangeScheduler}
      * implementation schedules callbacks within the system AlarmManager. Alternate
      * implementations, such as test case mocks can subvert this behavior.
      */
@@ -889,41 +1004,259 @@ public final class AlarmStateManager extends BroadcastReceiver {
         void scheduleInstanceStateChange(Context context, Calendar time, AlarmInstance instance, int newState);
 
         void cancelScheduledInstanceStateChange(Context context, AlarmInstance instance);
+
+        /**
+         * @return the intents performing the due state changes, in chronological order
+         */
+        List<Intent> getDueStateChanges(Context context);
+
+        /**
+         * Removes a due state change from the schedule, unless the instance was scheduled
+         * another state change in the meantime.
+         */
+        void completeStateChange(Context context, Intent stateChangeIntent);
+
+        /**
+         * Ends the dispatch started by {@link #getDueStateChanges}.
+         */
+        void finishStateChanges(Context context);
     }
 
     /**
      * Schedules state change callbacks within the AlarmManager.
+     * <p>
+     * The state changes of all alarm instances are multiplexed through a single AlarmManager
+     * alarm, set at the time of the earliest scheduled state change. When it goes off, the
+     * {@link AlarmService} performs every state change that is due and the single alarm is moved
+     * to the next scheduled state change. This way, scheduling the state change of an instance
+     * only calls the AlarmManager when the earliest state change moves, however many alarms the
+     * user has.
+     * <p>
+     * The scheduled state changes are kept in a {@link SharedPreferences} file of the device
+     * protected storage, so that they survive the death of the process and can be dispatched
+     * before the user unlocks the device. The file is written synchronously before the
+     * AlarmManager alarm moves, and a due state change is only removed from it once handled, so
+     * that no state change is lost if the process dies in between. While the due state changes
+     * are dispatched, the AlarmManager alarm is a watchdog set shortly in the future, which
+     * dispatches them again if the process dies before they are all handled; it only moves to
+     * the next state change once the dispatch is finished.
      */
-    private static class AlarmManagerStateChangeScheduler implements StateChangeScheduler {
+    private static class MultiplexingStateChangeScheduler implements StateChangeScheduler {
+
+        private static final String SCHEDULE_PREFERENCES = "alarm_state_changes";
+
+        /**
+         * The delay after which the due state changes are dispatched again if the process died
+         * while dispatching them.
+         */
+        private static final long DISPATCH_WATCHDOG_DELAY = 10 * DateUtils.SECOND_IN_MILLIS;
+
+        /**
+         * The scheduled state changes by instance id; {@code null} until loaded.
+         */
+        private Map<Long, ScheduledStateChange> mSchedule;
+
+        private SharedPreferences mSchedulePrefs;
+
+        /**
+         * The time at which the AlarmManager alarm is set; {@code null} if unknown or not set.
+         */
+        private Long mWakeupTime;
+
+        /**
+         * Whether the due state changes are being dispatched, in which case the AlarmManager
+         * alarm stays set as a watchdog.
+         */
+        private boolean mDispatching;
+
         @Override
-        public void scheduleInstanceStateChange(Context context, Calendar time, AlarmInstance instance, int newState) {
+        public synchronized void scheduleInstanceStateChange(Context context, Calendar time,
+                                                             AlarmInstance instance, int newState) {
+
             final long timeInMillis = time.getTimeInMillis();
             LogUtils.i("Scheduling state change %d to instance %d at %s (%d)", newState,
                     instance.mId, AlarmUtils.getFormattedTime(context, time), timeInMillis);
-            final Intent stateChangeIntent = createStateChangeIntent(context, ALARM_MANAGER_TAG, instance, newState);
-            // Treat alarm state change as high priority, use foreground broadcasts
-            stateChangeIntent.addFlags(Intent.FLAG_RECEIVER_FOREGROUND);
-            PendingIntent pendingIntent = PendingIntent.getService(context, instance.hashCode(),
-                    stateChangeIntent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
 
-            final AlarmManager am = (AlarmManager) context.getSystemService(ALARM_SERVICE);
-            // Ensure the alarm fires even if the device is dozing.
-            am.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, timeInMillis, pendingIntent);
+            final ScheduledStateChange stateChange = new ScheduledStateChange(timeInMillis, newState,
+                    SettingsDAO.getGlobalIntentId(getDefaultSharedPreferences(context)));
+            getSchedule(context).put(instance.mId, stateChange);
+            mSchedulePrefs.edit().putString(String.valueOf(instance.mId), stateChange.encode()).commit();
+
+            updateWakeup(context);
         }
 
         @Override
-        public void cancelScheduledInstanceStateChange(Context context, AlarmInstance instance) {
+        public synchronized void cancelScheduledInstanceStateChange(Context context, AlarmInstance instance) {
             LogUtils.v("Canceling instance " + instance.mId + " timers");
 
-            // Create a PendingIntent that will match any one set for this instance
-            PendingIntent pendingIntent = PendingIntent.getService(context, instance.hashCode(),
-                    createStateChangeIntent(context, ALARM_MANAGER_TAG, instance, null),
-                    PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE);
+            if (getSchedule(context).remove(instance.mId) != null) {
+                mSchedulePrefs.edit().remove(String.valueOf(instance.mId)).commit();
+                updateWakeup(context);
+            }
+        }
+
+        @Override
+        public synchronized List<Intent> getDueStateChanges(Context context) {
+            final long now = System.currentTimeMillis();
+            final List<Map.Entry<Long, ScheduledStateChange>> dueStateChanges = new ArrayList<>();
+            for (Map.Entry<Long, ScheduledStateChange> entry : getSchedule(context).entrySet()) {
+                if (entry.getValue().time() <= now) {
+                    dueStateChanges.add(entry);
+                }
+            }
+            Collections.sort(dueStateChanges,
+                    (lhs, rhs) -> Long.compare(lhs.getValue().time(), rhs.getValue().time()));
+
+            final List<Intent> intents = new ArrayList<>(dueStateChanges.size());
+            for (Map.Entry<Long, ScheduledStateChange> entry : dueStateChanges) {
+                final ScheduledStateChange stateChange = entry.getValue();
+                intents.add(AlarmInstance.createIntent(context, AlarmService.class, entry.getKey())
+                        .setAction(CHANGE_STATE_ACTION)
+                        .addCategory(ALARM_MANAGER_TAG)
+                        .putExtra(ALARM_GLOBAL_ID_EXTRA, stateChange.globalId())
+                        .putExtra(ALARM_STATE_EXTRA, stateChange.state())
+                        .putExtra(STATE_CHANGE_TIME_EXTRA, stateChange.time()));
+            }
+
+            // The AlarmManager alarm went off. While the due state changes are pending, it is set
+            // shortly in the future so that they are dispatched again if the process dies.
+            mDispatching = true;
+            if (intents.isEmpty()) {
+                mWakeupTime = null;
+            } else {
+                setWakeup(context, now + DISPATCH_WATCHDOG_DELAY);
+            }
+
+            return intents;
+        }
+
+        @Override
+        public synchronized void completeStateChange(Context context, Intent stateChangeIntent) {
+            final long instanceId = AlarmInstance.getId(stateChangeIntent.getData());
+            final ScheduledStateChange stateChange = new ScheduledStateChange(
+                    stateChangeIntent.getLongExtra(STATE_CHANGE_TIME_EXTRA, -1),
+                    stateChangeIntent.getIntExtra(ALARM_STATE_EXTRA, -1),
+                    stateChangeIntent.getIntExtra(ALARM_GLOBAL_ID_EXTRA, -1));
+
+            // Handling the state change may have scheduled the next one, which must be kept.
+            if (stateChange.equals(getSchedule(context).get(instanceId))) {
+                mSchedule.remove(instanceId);
+                mSchedulePrefs.edit().remove(String.valueOf(instanceId)).commit();
+            }
+        }
+
+        @Override
+        public synchronized void finishStateChanges(Context context) {
+            mDispatching = false;
+            getSchedule(context);
+            updateWakeup(context);
+        }
+
+        /**
+         * Moves the AlarmManager alarm to the earliest scheduled state change, or cancels it if
+         * no state change is scheduled. Nothing is done while the due state changes are
+         * dispatched, since the alarm is then their watchdog.
+         */
+        private void updateWakeup(Context context) {
+            if (mDispatching) {
+                return;
+            }
+
+            Long nextTime = null;
+            for (ScheduledStateChange stateChange : mSchedule.values()) {
+                if (nextTime == null || stateChange.time() < nextTime) {
+                    nextTime = stateChange.time();
+                }
+            }
+
+            setWakeup(context, nextTime);
+        }
+
+        /**
+         * Sets the AlarmManager alarm at the given time, or cancels it if the time is
+         * {@code null}. Nothing is done if it is already set at that time.
+         */
+        private void setWakeup(Context context, Long nextTime) {
+            if (Objects.equals(nextTime, mWakeupTime)) {
+                return;
+            }
+
+            final Intent intent = new Intent(context, AlarmService.class)
+                    .setAction(DISPATCH_STATE_CHANGES_ACTION)
+                    // Treat alarm state change as high priority, use foreground broadcasts
+                    .addFlags(Intent.FLAG_RECEIVER_FOREGROUND);
+            final AlarmManager am = (AlarmManager) context.getSystemService(ALARM_SERVICE);
+
+            if (nextTime == null) {
+                final PendingIntent pendingIntent = PendingIntent.getService(context, 0, intent,
+                        PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE);
+                if (pendingIntent != null) {
+                    LogUtils.v("Canceling state change wakeup");
+                    am.cancel(pendingIntent);
+                    pendingIntent.cancel();
+                }
+            } else {
+                LogUtils.v("Setting state change wakeup at %d", nextTime);
+                final PendingIntent pendingIntent = PendingIntent.getService(context, 0, intent,
+                        PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+                // Ensure the alarm fires even if the device is dozing.
+                am.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, nextTime, pendingIntent);
+            }
+
+            mWakeupTime = nextTime;
+        }
+
+        private Map<Long, ScheduledStateChange> getSchedule(Context context) {
+            if (mSchedule == null) {
+                // Alarms also change state while the device is locked, before the user unlocks it.
+                final Context storageContext = SdkUtils.isAtLeastAndroid7()
+                        ? context.createDeviceProtectedStorageContext()
+                        : context;
+                mSchedulePrefs = storageContext.getSharedPreferences(SCHEDULE_PREFERENCES, Context.MODE_PRIVATE);
+
+                mSchedule = new HashMap<>();
+                for (Map.Entry<String, ?> entry : mSchedulePrefs.getAll().entrySet()) {
+                    final ScheduledStateChange stateChange =
+                            ScheduledStateChange.decode(String.valueOf(entry.getValue()));
+                    if (stateChange != null) {
+                        mSchedule.put(Long.parseLong(entry.getKey()), stateChange);
+                    }
+                }
+            }
+
+            return mSchedule;
+        }
+    }
+
+    /**
+     * A state change scheduled for an alarm instance.
+     *
+     * @param time     the time of the state change, in milliseconds since the epoch
+     * @param state    the state to change to
+     * @param globalId the global intent id when the state change was scheduled; state changes
+     *                 scheduled before the alarm instances were fixed are ignored
+     */
+    private record ScheduledStateChange(long time, int state, int globalId) {
+
+        String encode() {
+            return time + "/" + state + "/" + globalId;
+        }
+
+        /**
+         * @return the state change encoded in the given value; {@code null} if it is malformed
+         */
+        static ScheduledStateChange decode(String value) {
+            final String[] parts = value.split("/");
+            if (parts.length != 3) {
+                return null;
+            }
 
-            if (pendingIntent != null) {
-                AlarmManager am = (AlarmManager) context.getSystemService(ALARM_SERVICE);
-                am.cancel(pendingIntent);
-                pendingIntent.cancel();
+            try {
+                return new ScheduledStateChange(Long.parseLong(parts[0]), Integer.parseInt(parts[1]),
+                        Integer.parseInt(parts[2]));
+            } catch (NumberFormatException e) {
+                LogUtils.e("Malformed scheduled state change: " + value);
+                return null;
             }
         }
     }
@@ -26,6 +26,7 @@ import com.best.deskclock.AlarmClockFragment;
 import com.best.deskclock.LabelDialogFragment;
 import com.best.deskclock.R;
 import com.best.deskclock.alarms.dataadapter.AlarmItemHolder;
+import com.best.deskclock.data.Settings;
 import com.best.deskclock.data.SettingsDAO;
 import com.best.deskclock.events.Events;
 import com.best.deskclock.provider.Alarm;
@@ -149,7 +150,7 @@ public final class AlarmTimeClickHandler implements OnTimeSetListener {
         final Calendar now = Calendar.getInstance();
         final Calendar oldNextAlarmTime = alarm.getNextAlarmTime(now);
 
-        final int weekday = SettingsDAO.getWeekdayOrder(getDefaultSharedPreferences(mContext)).getCalendarDays().get(index);
+        final int weekday = Settings.get(mContext).getWeekdayOrder().getCalendarDays().get(index);
         alarm.daysOfWeek = alarm.daysOfWeek.setBit(weekday, checked);
 
         // if the change altered the next scheduled alarm time, tell the user
@@ -0,0 +1,314 @@
+// SPDX-License-Identifier: GPL-3.0-only
+
+package com.best.deskclock.alarms;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.SystemClock;
+
+import com.best.deskclock.provider.AlarmInstance;
+import com.best.deskclock.utils.LogUtils;
+import com.best.deskclock.utils.SdkUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * A small memory-mapped record of the alarm being fired by the {@link AlarmService}.
+ * <p>
+ * The record holds the firing alarm instance, the ids of the other alarm instances of its firing
+ * session, the elapsed realtime at which it started ringing and the number of times it was
+ * snoozed. It is written on each transition of the firing alarm
+ * directly into a file mapped in memory: the written values are kept by the kernel if the process
+ * is killed, without any explicit write to the disk. When the service is restarted after the death
+ * of its process, the alarm is read back from the record so that it resumes ringing within
+ * milliseconds, without querying the database and without restarting the crescendo, whose phase
+ * follows from the time the alarm has been ringing.
+ * <p>
+ * The record is not meant to survive a reboot: its elapsed realtime is then ahead of the clock and
+ * the alarm instances are fixed by the {@link com.best.deskclock.AlarmInitReceiver}.
+ */
+final class FiringStateRecord {
+
+    private static final String RECORD_FILE = "firing_state";
+
+    private static final int VERSION = 2;
+
+    private static final int RECORD_SIZE = 4096;
+
+    /**
+     * The maximum number of alarm instance ids of a firing session that are recorded; the ids of
+     * larger sessions are truncated.
+     */
+    private static final int MAX_SESSION_SIZE = 32;
+
+    // Offsets of the fixed-size fields of the record.
+    private static final int VERSION_OFFSET = 0;
+    private static final int FIRING_OFFSET = VERSION_OFFSET + Integer.BYTES;
+    private static final int INSTANCE_ID_OFFSET = FIRING_OFFSET + Integer.BYTES;
+    private static final int START_TIME_OFFSET = INSTANCE_ID_OFFSET + Long.BYTES;
+    private static final int SNOOZE_COUNT_OFFSET = START_TIME_OFFSET + Long.BYTES;
+    private static final int SESSION_SIZE_OFFSET = SNOOZE_COUNT_OFFSET + Integer.BYTES;
+    private static final int SESSION_IDS_OFFSET = SESSION_SIZE_OFFSET + Integer.BYTES;
+    private static final int INSTANCE_OFFSET = SESSION_IDS_OFFSET + MAX_SESSION_SIZE * Long.BYTES;
+
+    private static final int FLAG_VIBRATE = 1;
+    private static final int FLAG_FLASH = 1 << 1;
+    private static final int FLAG_SNOOZE_ACTIONS = 1 << 2;
+    private static final int FLAG_DISMISS_WHEN_RINGTONE_ENDS = 1 << 3;
+    private static final int FLAG_INCREASING_VOLUME = 1 << 4;
+
+    private static FiringStateRecord sInstance;
+
+    /**
+     * The mapped record; {@code null} if the record file could not be mapped.
+     */
+    private final MappedByteBuffer mBuffer;
+
+    private FiringStateRecord(Context context) {
+        // Alarms also fire while the device is locked, before the user unlocks it.
+        final Context storageContext = SdkUtils.isAtLeastAndroid7()
+                ? context.createDeviceProtectedStorageContext()
+                : context;
+        final File file = new File(storageContext.getFilesDir(), RECORD_FILE);
+
+        MappedByteBuffer buffer = null;
+        try (RandomAccessFile recordFile = new RandomAccessFile(file, "rw")) {
+            // The mapping remains valid once the file is closed.
+            buffer = recordFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, RECORD_SIZE);
+            if (buffer.getInt(VERSION_OFFSET) != VERSION) {
+                buffer.putInt(FIRING_OFFSET, 0);
+                buffer.putLong(INSTANCE_ID_OFFSET, AlarmInstance.INVALID_ID);
+                buffer.putInt(SESSION_SIZE_OFFSET, 0);
+                buffer.putInt(VERSION_OFFSET, VERSION);
+            }
+        } catch (IOException e) {
+            LogUtils.e("Unable to map the firing state record", e);
+        }
+        mBuffer = buffer;
+    }
+
+    /**
+     * @return the record shared by the whole application
+     */
+    static synchronized FiringStateRecord getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new FiringStateRecord(context.getApplicationContext());
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Records that the given alarm instance is ringing. The snooze count is kept if the same
+     * instance was recorded before and reset otherwise.
+     *
+     * @param startTime the elapsed realtime at which the alarm started ringing
+     * @param session   all the alarm instances of the firing session, in the order in which they
+     *                  fired
+     */
+    synchronized void setFiring(AlarmInstance instance, long startTime,
+                                List<AlarmInstance> session) {
+        if (mBuffer == null) {
+            return;
+        }
+
+        // Mark the record as not firing while it is inconsistent.
+        mBuffer.putInt(FIRING_OFFSET, 0);
+
+        if (mBuffer.getLong(INSTANCE_ID_OFFSET) != instance.mId) {
+            mBuffer.putLong(INSTANCE_ID_OFFSET, instance.mId);
+            mBuffer.putInt(SNOOZE_COUNT_OFFSET, 0);
+        }
+        mBuffer.putLong(START_TIME_OFFSET, startTime);
+
+        final int sessionSize = Math.min(session.size(), MAX_SESSION_SIZE);
+        for (int i = 0; i < sessionSize; i++) {
+            mBuffer.putLong(SESSION_IDS_OFFSET + i * Long.BYTES, session.get(i).mId);
+        }
+        mBuffer.putInt(SESSION_SIZE_OFFSET, sessionSize);
+
+        try {
+            writeInstance(instance);
+        } catch (BufferOverflowException e) {
+            // The alarm will be read from the database instead.
+            LogUtils.w("Alarm instance %d is too large for the firing state record", instance.mId);
+            return;
+        }
+
+        mBuffer.putInt(FIRING_OFFSET, 1);
+    }
+
+    /**
+     * Records that the alarm stopped ringing. Its snooze count is kept.
+     */
+    synchronized void clearFiring() {
+        if (mBuffer != null) {
+            mBuffer.putInt(FIRING_OFFSET, 0);
+        }
+    }
+
+    /**
+     * Records that the given alarm instance was snoozed.
+     */
+    synchronized void incrementSnoozeCount(long instanceId) {
+        if (mBuffer == null) {
+            return;
+        }
+
+        if (mBuffer.getLong(INSTANCE_ID_OFFSET) == instanceId) {
+            mBuffer.putInt(SNOOZE_COUNT_OFFSET, mBuffer.getInt(SNOOZE_COUNT_OFFSET) + 1);
+        } else {
+            mBuffer.putInt(FIRING_OFFSET, 0);
+            mBuffer.putLong(INSTANCE_ID_OFFSET, instanceId);
+            mBuffer.putInt(SNOOZE_COUNT_OFFSET, 1);
+        }
+    }
+
+    /**
+     * @return the number of times the recorded alarm instance was snoozed
+     */
+    synchronized int getSnoozeCount(long instanceId) {
+        if (mBuffer == null || mBuffer.getLong(INSTANCE_ID_OFFSET) != instanceId) {
+            return 0;
+        }
+
+        return mBuffer.getInt(SNOOZE_COUNT_OFFSET);
+    }
+
+    /**
+     * @return the elapsed realtime at which the recorded alarm started ringing
+     */
+    synchronized long getStartTime() {
+        return mBuffer == null ? 0 : mBuffer.getLong(START_TIME_OFFSET);
+    }
+
+    /**
+     * @return the ids of the alarm instances of the recorded firing session, in the order in which
+     * they fired
+     */
+    synchronized long[] getSessionInstanceIds() {
+        if (mBuffer == null) {
+            return new long[0];
+        }
+
+        final long[] ids = new long[mBuffer.getInt(SESSION_SIZE_OFFSET)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = mBuffer.getLong(SESSION_IDS_OFFSET + i * Long.BYTES);
+        }
+        return ids;
+    }
+
+    /**
+     * @return the alarm instance that was ringing when the process died; {@code null} if no alarm
+     * was ringing or if the device rebooted since
+     */
+    synchronized AlarmInstance getFiringInstance() {
+        if (mBuffer == null || mBuffer.getInt(FIRING_OFFSET) == 0) {
+            return null;
+        }
+
+        if (mBuffer.getLong(START_TIME_OFFSET) > SystemClock.elapsedRealtime()) {
+            LogUtils.i("Ignoring firing state recorded before the device rebooted");
+            mBuffer.putInt(FIRING_OFFSET, 0);
+            return null;
+        }
+
+        return readInstance();
+    }
+
+    private void writeInstance(AlarmInstance instance) {
+        final ByteBuffer buffer = mBuffer.duplicate();
+        buffer.position(INSTANCE_OFFSET);
+
+        buffer.putLong(instance.mAlarmId == null ? AlarmInstance.INVALID_ID : instance.mAlarmId);
+        buffer.putInt(instance.mYear);
+        buffer.putInt(instance.mMonth);
+        buffer.putInt(instance.mDay);
+        buffer.putInt(instance.mHour);
+        buffer.putInt(instance.mMinute);
+
+        int flags = 0;
+        if (instance.mVibrate) {
+            flags |= FLAG_VIBRATE;
+        }
+        if (instance.mFlash) {
+            flags |= FLAG_FLASH;
+        }
+        if (instance.mAlarmSnoozeActions) {
+            flags |= FLAG_SNOOZE_ACTIONS;
+        }
+        if (instance.mDismissAlarmWhenRingtoneEnds) {
+            flags |= FLAG_DISMISS_WHEN_RINGTONE_ENDS;
+        }
+        if (instance.mIncreasingVolume) {
+            flags |= FLAG_INCREASING_VOLUME;
+        }
+        buffer.putInt(flags);
+
+        putString(buffer, instance.mLabel);
+        putString(buffer, instance.mRingtone == null ? null : instance.mRingtone.toString());
+    }
+
+    private AlarmInstance readInstance() {
+        final ByteBuffer buffer = mBuffer.duplicate();
+        buffer.position(INSTANCE_OFFSET);
+
+        final long alarmId = buffer.getLong();
+        final AlarmInstance instance = new AlarmInstance(Calendar.getInstance(),
+                alarmId == AlarmInstance.INVALID_ID ? null : alarmId);
+        instance.mId = mBuffer.getLong(INSTANCE_ID_OFFSET);
+        instance.mYear = buffer.getInt();
+        instance.mMonth = buffer.getInt();
+        instance.mDay = buffer.getInt();
+        instance.mHour = buffer.getInt();
+        instance.mMinute = buffer.getInt();
+
+        final int flags = buffer.getInt();
+        instance.mVibrate = (flags & FLAG_VIBRATE) != 0;
+        instance.mFlash = (flags & FLAG_FLASH) != 0;
+        instance.mAlarmSnoozeActions = (flags & FLAG_SNOOZE_ACTIONS) != 0;
+        instance.mDismissAlarmWhenRingtoneEnds = (flags & FLAG_DISMISS_WHEN_RINGTONE_ENDS) != 0;
+        instance.mIncreasingVolume = (flags & FLAG_INCREASING_VOLUME) != 0;
+
+        instance.mLabel = getString(buffer);
+        final String ringtone = getString(buffer);
+        instance.mRingtone = ringtone == null ? null : Uri.parse(ringtone);
+        instance.mAlarmState = AlarmInstance.FIRED_STATE;
+        return instance;
+    }
+
+    /**
+     * Writes the given string as its length in bytes followed by its UTF-8 bytes; a {@code null}
+     * string is written as a length of -1.
+     */
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
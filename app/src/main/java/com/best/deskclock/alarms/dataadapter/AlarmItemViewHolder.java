@@ -9,8 +9,6 @@ package com.best.deskclock.alarms.dataadapter;
 import static android.view.View.GONE;
 import static android.view.View.VISIBLE;
 
-import static com.best.deskclock.DeskClockApplication.getDefaultSharedPreferences;
-
 import android.animation.Animator;
 import android.animation.AnimatorSet;
 import android.animation.ObjectAnimator;
@@ -29,7 +27,7 @@ import com.best.deskclock.ItemAdapter;
 import com.best.deskclock.ItemAnimator;
 import com.best.deskclock.R;
 import com.best.deskclock.alarms.AlarmTimeClickHandler;
-import com.best.deskclock.data.SettingsDAO;
+import com.best.deskclock.data.Settings;
 import com.best.deskclock.data.Weekdays;
 import com.best.deskclock.provider.Alarm;
 import com.best.deskclock.provider.AlarmInstance;
@@ -131,7 +129,7 @@ public abstract class AlarmItemViewHolder extends ItemAdapter.ItemViewHolder<Ala
 
     protected void bindRepeatText(Context context, Alarm alarm) {
         if (alarm.daysOfWeek.isRepeating()) {
-            final Weekdays.Order weekdayOrder = SettingsDAO.getWeekdayOrder(getDefaultSharedPreferences(context));
+            final Weekdays.Order weekdayOrder = Settings.get(context).getWeekdayOrder();
             final String daysOfWeekText = alarm.daysOfWeek.toString(context, weekdayOrder);
             daysOfWeek.setText(daysOfWeekText);
 
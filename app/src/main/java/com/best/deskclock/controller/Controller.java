@@ -53,9 +53,7 @@ public final class Controller {
             mContext = context.getApplicationContext();
             mEventController = new EventController();
             mVoiceController = new VoiceController();
-            if (SdkUtils.isAtLeastAndroid71()) {
-                mShortcutController = new ShortcutController(mContext);
-            }
+            mShortcutController = null;
         }
     }
 
@@ -99,9 +97,16 @@ public final class Controller {
     // Shortcuts
     //
 
+    /**
+     * Updates the launcher shortcuts. The shortcut controller, which observes the stopwatch, is
+     * created on the first update.
+     */
     public void updateShortcuts() {
         enforceMainLooper();
-        if (mShortcutController != null && SdkUtils.isAtLeastAndroid71()) {
+        if (mContext != null && SdkUtils.isAtLeastAndroid71()) {
+            if (mShortcutController == null) {
+                mShortcutController = new ShortcutController(mContext);
+            }
             mShortcutController.updateShortcuts();
         }
     }
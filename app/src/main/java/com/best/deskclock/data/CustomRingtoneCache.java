@@ -0,0 +1,182 @@
+// SPDX-License-Identifier: GPL-3.0-only
+
+package com.best.deskclock.data;
+
+import android.content.Context;
+import android.net.Uri;
+
+import com.best.deskclock.utils.LogUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * An opt-in local copy of the custom ringtones that are still read through a content provider,
+ * e.g. those imported before they were copied to the device protected storage.
+ * <p>
+ * The copies are stored in the device protected storage, so that alarms open a local file even
+ * before the device is first unlocked. The cache is bounded by a size budget: the copies that
+ * were played least recently are evicted first, the last modification time of each copy being
+ * updated whenever it is played.
+ */
+final class CustomRingtoneCache {
+
+    /**
+     * The name of the directory storing the copies.
+     */
+    private static final String DIRECTORY_NAME = "ringtone_cache";
+
+    /**
+     * The maximum total size of the copies, in bytes.
+     */
+    private static final long MAX_SIZE = 50 * 1024 * 1024;
+
+    private final File mDirectory;
+
+    /**
+     * @param context a context in the device protected storage on N+
+     */
+    CustomRingtoneCache(Context context) {
+        mDirectory = new File(context.getNoBackupFilesDir(), DIRECTORY_NAME);
+    }
+
+    /**
+     * May be called from any thread; marks the copy as the most recently played one.
+     *
+     * @return the uri of the local copy of the ringtone; {@code null} if it is not cached
+     */
+    Uri getCachedUri(Uri uri) {
+        final File file = getFile(uri);
+        if (!file.exists()) {
+            return null;
+        }
+
+        if (!file.setLastModified(System.currentTimeMillis())) {
+            LogUtils.w("Failed to mark cached ringtone as played: " + uri);
+        }
+        return Uri.fromFile(file);
+    }
+
+    /**
+     * Copies the ringtone into the cache, unless it is already cached, then evicts the copies
+     * played least recently until the cache fits its budget. This method <strong>must</strong> be
+     * called on a background thread because it reads the whole ringtone.
+     */
+    synchronized void put(Context context, Uri uri) {
+        final File file = getFile(uri);
+        if (file.exists()) {
+            return;
+        }
+
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            LogUtils.e("Failed to create the ringtone cache directory");
+            return;
+        }
+
+        // Copy to a temporary file first so that a partial copy is never played.
+        final File tempFile = new File(mDirectory, file.getName() + ".tmp");
+        boolean copied = false;
+        try (InputStream inputStream = context.getContentResolver().openInputStream(uri);
+             OutputStream outputStream = new FileOutputStream(tempFile)) {
+            if (inputStream == null) {
+                LogUtils.e("Failed to open input stream for URI: " + uri);
+                return;
+            }
+
+            byte[] buffer = new byte[8192];
+            long size = 0;
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                size += bytesRead;
+                if (size > MAX_SIZE) {
+                    LogUtils.i("Ringtone too large to be cached: " + uri);
+                    return;
+                }
+                outputStream.write(buffer, 0, bytesRead);
+            }
+            copied = true;
+        } catch (IOException | SecurityException e) {
+            LogUtils.e("Failed to cache ringtone: " + uri, e);
+        } finally {
+            if (copied && !tempFile.renameTo(file)) {
+                LogUtils.e("Failed to store cached ringtone: " + uri);
+            }
+            if (tempFile.exists() && !tempFile.delete()) {
+                LogUtils.e("Failed to delete temporary ringtone file");
+            }
+        }
+
+        if (copied) {
+            trimToSize();
+        }
+    }
+
+    /**
+     * Removes the copy of a ringtone that is no longer a custom ringtone.
+     */
+    synchronized void remove(Uri uri) {
+        final File file = getFile(uri);
+        if (file.exists() && !file.delete()) {
+            LogUtils.e("Failed to delete cached ringtone: " + uri);
+        }
+    }
+
+    /**
+     * Removes all copies, e.g. once the cache is disabled.
+     */
+    synchronized void clear() {
+        final File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            if (!file.delete()) {
+                LogUtils.e("Failed to delete cached ringtone file");
+            }
+        }
+    }
+
+    /**
+     * Evicts the copies played least recently until the cache fits its budget.
+     */
+    private void trimToSize() {
+        final File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+
+        Arrays.sort(files, (lhs, rhs) -> Long.compare(lhs.lastModified(), rhs.lastModified()));
+        for (int i = 0; size > MAX_SIZE && i < files.length; i++) {
+            final long length = files[i].length();
+            if (files[i].delete()) {
+                size -= length;
+            }
+        }
+    }
+
+    /**
+     * @return the file storing the copy of the ringtone, which is named after a hash of its uri
+     */
+    private File getFile(Uri uri) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] hash = digest.digest(uri.toString().getBytes(StandardCharsets.UTF_8));
+            return new File(mDirectory, RingtoneModel.toHexString(hash));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+// SPDX-License-Identifier: GPL-3.0-only
+
+package com.best.deskclock.data;
+
+import android.content.SharedPreferences;
+import android.net.Uri;
+
+import java.util.Map;
+
+/**
+ * This class encapsulates the storage of the metadata of custom ringtones in
+ * {@link SharedPreferences}. The metadata is recorded once when a ringtone is imported, so that it
+ * never has to be computed again by reading the ringtone:
+ * <ul>
+ *     <li>the size of the ringtone, in bytes;</li>
+ *     <li>the duration of the ringtone, in milliseconds;</li>
+ *     <li>the mime type of the ringtone;</li>
+ *     <li>a hash of the content of the ringtone, which identifies duplicate imports.</li>
+ * </ul>
+ */
+final class CustomRingtoneIndexDAO {
+
+    /**
+     * Prefix for a key to a preference that stores the size of the ringtone at a uri.
+     */
+    private static final String SIZE_PREFIX = "size_";
+
+    /**
+     * Prefix for a key to a preference that stores the duration of the ringtone at a uri.
+     */
+    private static final String DURATION_PREFIX = "duration_";
+
+    /**
+     * Prefix for a key to a preference that stores the mime type of the ringtone at a uri.
+     */
+    private static final String MIME_TYPE_PREFIX = "mime_type_";
+
+    /**
+     * Prefix for a key to a preference that stores the content hash of the ringtone at a uri.
+     */
+    private static final String HASH_PREFIX = "hash_";
+
+    private CustomRingtoneIndexDAO() {
+    }
+
+    /**
+     * Stores the metadata of an imported ringtone.
+     *
+     * @param duration the duration of the ringtone; a negative value if it is unknown
+     * @param mimeType the mime type of the ringtone; {@code null} if it is unknown
+     */
+    static void putMetadata(SharedPreferences prefs, Uri uri, long size, long duration,
+                            String mimeType, String hash) {
+
+        final SharedPreferences.Editor editor = prefs.edit()
+                .putLong(SIZE_PREFIX + uri, size)
+                .putString(HASH_PREFIX + uri, hash);
+        if (duration >= 0) {
+            editor.putLong(DURATION_PREFIX + uri, duration);
+        }
+        if (mimeType != null) {
+            editor.putString(MIME_TYPE_PREFIX + uri, mimeType);
+        }
+        editor.apply();
+    }
+
+    /**
+     * Stores the size of a ringtone imported before the index existed, once it was computed.
+     */
+    static void putSize(SharedPreferences prefs, Uri uri, long size) {
+        prefs.edit().putLong(SIZE_PREFIX + uri, size).apply();
+    }
+
+    /**
+     * @return the size of the ringtone, in bytes; {@code -1} if it is not indexed
+     */
+    static long getSize(SharedPreferences prefs, Uri uri) {
+        return prefs.getLong(SIZE_PREFIX + uri, -1);
+    }
+
+    /**
+     * @return the duration of the ringtone, in milliseconds; {@code -1} if it is not indexed
+     */
+    static long getDuration(SharedPreferences prefs, Uri uri) {
+        return prefs.getLong(DURATION_PREFIX + uri, -1);
+    }
+
+    /**
+     * @return the uri of the indexed ringtone with the given content hash; {@code null} if there
+     * is none
+     */
+    static Uri findRingtoneByHash(SharedPreferences prefs, String hash) {
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            final String key = entry.getKey();
+            if (key.startsWith(HASH_PREFIX) && hash.equals(entry.getValue())) {
+                return Uri.parse(key.substring(HASH_PREFIX.length()));
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Removes the metadata of a ringtone that is no longer a custom ringtone.
+     */
+    static void removeMetadata(SharedPreferences prefs, Uri uri) {
+        prefs.edit()
+                .remove(SIZE_PREFIX + uri)
+                .remove(DURATION_PREFIX + uri)
+                .remove(MIME_TYPE_PREFIX + uri)
+                .remove(HASH_PREFIX + uri)
+                .apply();
+    }
+}
@@ -59,6 +59,8 @@ public final class DataModel {
 
     private Context mContext;
 
+    private SharedPreferences mPrefs;
+
     /**
      * The model from which city data are fetched.
      */
@@ -103,6 +105,9 @@ public final class DataModel {
 
     /**
      * Initializes the data model with the context and shared preferences to be used.
+     * <p>
+     * The models are created on first use, so that a process started to deliver a broadcast, e.g.
+     * to fire an alarm, only sets up the models it needs.
      */
     public void init(Context context, SharedPreferences prefs) {
         if (mContext != context) {
@@ -118,13 +123,8 @@ public final class DataModel {
                         AppCompatDelegate.setDefaultNightMode(AppCompatDelegate.MODE_NIGHT_YES);
             }
 
+            mPrefs = prefs;
             mNotificationModel = new NotificationModel();
-            mRingtoneModel = new RingtoneModel(mContext, prefs);
-            mCityModel = new CityModel(mContext, prefs);
-            mAlarmModel = new AlarmModel(prefs, mRingtoneModel);
-            mSilentSettingsModel = new SilentSettingsModel(mContext, mNotificationModel);
-            mStopwatchModel = new StopwatchModel(mContext, prefs, mNotificationModel);
-            mTimerModel = new TimerModel(mContext, prefs, mRingtoneModel, mNotificationModel);
         }
     }
 
@@ -143,8 +143,8 @@ public final class DataModel {
      */
     public void updateAfterReboot() {
         enforceMainLooper();
-        mTimerModel.updateTimersAfterReboot();
-        mStopwatchModel.setStopwatch(getStopwatch().updateAfterReboot());
+        getTimerModel().updateTimersAfterReboot();
+        getStopwatchModel().setStopwatch(getStopwatch().updateAfterReboot());
     }
 
     /**
@@ -152,8 +152,8 @@ public final class DataModel {
      */
     public void updateAfterTimeSet() {
         enforceMainLooper();
-        mTimerModel.updateTimersAfterTimeSet();
-        mStopwatchModel.setStopwatch(getStopwatch().updateAfterTimeSet());
+        getTimerModel().updateTimersAfterTimeSet();
+        getStopwatchModel().setStopwatch(getStopwatch().updateAfterTimeSet());
     }
 
     /**
@@ -178,6 +178,48 @@ public final class DataModel {
         }
     }
 
+    private synchronized CityModel getCityModel() {
+        if (mCityModel == null) {
+            mCityModel = new CityModel(mContext, mPrefs);
+        }
+        return mCityModel;
+    }
+
+    private synchronized TimerModel getTimerModel() {
+        if (mTimerModel == null) {
+            mTimerModel = new TimerModel(mContext, mPrefs, getRingtoneModel(), mNotificationModel);
+        }
+        return mTimerModel;
+    }
+
+    private synchronized AlarmModel getAlarmModel() {
+        if (mAlarmModel == null) {
+            mAlarmModel = new AlarmModel(mPrefs, getRingtoneModel());
+        }
+        return mAlarmModel;
+    }
+
+    private synchronized SilentSettingsModel getSilentSettingsModel() {
+        if (mSilentSettingsModel == null) {
+            mSilentSettingsModel = new SilentSettingsModel(mContext, mNotificationModel);
+        }
+        return mSilentSettingsModel;
+    }
+
+    private synchronized StopwatchModel getStopwatchModel() {
+        if (mStopwatchModel == null) {
+            mStopwatchModel = new StopwatchModel(mContext, mPrefs, mNotificationModel);
+        }
+        return mStopwatchModel;
+    }
+
+    private synchronized RingtoneModel getRingtoneModel() {
+        if (mRingtoneModel == null) {
+            mRingtoneModel = new RingtoneModel(mContext, mPrefs);
+        }
+        return mRingtoneModel;
+    }
+
     /**
      * @return a handler associated with the main thread
      */
@@ -206,10 +248,10 @@ public final class DataModel {
             mNotificationModel.setApplicationInForeground(inForeground);
 
             // Refresh all notifications in response to a change in app open state.
-            mTimerModel.updateNotification();
-            mTimerModel.updateMissedNotification();
-            mStopwatchModel.updateNotification();
-            mSilentSettingsModel.updateSilentState();
+            getTimerModel().updateNotification();
+            getTimerModel().updateMissedNotification();
+            getStopwatchModel().updateNotification();
+            getSilentSettingsModel().updateSilentState();
         }
     }
 
@@ -219,9 +261,9 @@ public final class DataModel {
      */
     public void updateAllNotifications() {
         enforceMainLooper();
-        mTimerModel.updateNotification();
-        mTimerModel.updateMissedNotification();
-        mStopwatchModel.updateNotification();
+        getTimerModel().updateNotification();
+        getTimerModel().updateMissedNotification();
+        getStopwatchModel().updateNotification();
     }
 
     /**
@@ -229,7 +271,7 @@ public final class DataModel {
      */
     public List<City> getAllCities() {
         enforceMainLooper();
-        return mCityModel.getAllCities();
+        return getCityModel().getAllCities();
     }
 
     /**
@@ -237,7 +279,7 @@ public final class DataModel {
      */
     public City getHomeCity() {
         enforceMainLooper();
-        return mCityModel.getHomeCity();
+        return getCityModel().getHomeCity();
     }
 
     /**
@@ -245,7 +287,7 @@ public final class DataModel {
      */
     public List<City> getUnselectedCities() {
         enforceMainLooper();
-        return mCityModel.getUnselectedCities();
+        return getCityModel().getUnselectedCities();
     }
 
     /**
@@ -253,7 +295,7 @@ public final class DataModel {
      */
     public List<City> getSelectedCities() {
         enforceMainLooper();
-        return mCityModel.getSelectedCities();
+        return getCityModel().getSelectedCities();
     }
 
     /**
@@ -261,7 +303,7 @@ public final class DataModel {
      */
     public void setSelectedCities(Collection<City> cities) {
         enforceMainLooper();
-        mCityModel.setSelectedCities(cities);
+        getCityModel().setSelectedCities(cities);
     }
 
     /**
@@ -269,7 +311,7 @@ public final class DataModel {
      */
     public Comparator<City> getCityIndexComparator() {
         enforceMainLooper();
-        return mCityModel.getCityIndexComparator();
+        return getCityModel().getCityIndexComparator();
     }
 
     /**
@@ -277,7 +319,7 @@ public final class DataModel {
      */
     public void toggleCitySort() {
         enforceMainLooper();
-        mCityModel.toggleCitySort();
+        getCityModel().toggleCitySort();
     }
 
     /**
@@ -285,7 +327,7 @@ public final class DataModel {
      */
     public void addCityListener(CityListener cityListener) {
         enforceMainLooper();
-        mCityModel.addCityListener(cityListener);
+        getCityModel().addCityListener(cityListener);
     }
 
     /**
@@ -293,7 +335,7 @@ public final class DataModel {
      */
     public void removeCityListener(CityListener cityListener) {
         enforceMainLooper();
-        mCityModel.removeCityListener(cityListener);
+        getCityModel().removeCityListener(cityListener);
     }
 
     /**
@@ -301,7 +343,7 @@ public final class DataModel {
      */
     public void addTimerListener(TimerListener timerListener) {
         enforceMainLooper();
-        mTimerModel.addTimerListener(timerListener);
+        getTimerModel().addTimerListener(timerListener);
     }
 
     /**
@@ -309,7 +351,7 @@ public final class DataModel {
      */
     public void removeTimerListener(TimerListener timerListener) {
         enforceMainLooper();
-        mTimerModel.removeTimerListener(timerListener);
+        getTimerModel().removeTimerListener(timerListener);
     }
 
     /**
@@ -317,7 +359,7 @@ public final class DataModel {
      */
     public List<Timer> getTimers() {
         enforceMainLooper();
-        return mTimerModel.getTimers();
+        return getTimerModel().getTimers();
     }
 
     /**
@@ -337,7 +379,7 @@ public final class DataModel {
      * Load timers from SharedPreferences after a restore or reset of settings
      */
     public void loadTimers() {
-        mTimerModel.loadTimers();
+        getTimerModel().loadTimers();
     }
 
     /**
@@ -345,7 +387,7 @@ public final class DataModel {
      */
     public List<Timer> getExpiredTimers() {
         enforceMainLooper();
-        return mTimerModel.getExpiredTimers();
+        return getTimerModel().getExpiredTimers();
     }
 
     /**
@@ -354,7 +396,7 @@ public final class DataModel {
      */
     public Timer getTimer(int timerId) {
         enforceMainLooper();
-        return mTimerModel.getTimer(timerId);
+        return getTimerModel().getTimer(timerId);
     }
 
     /**
@@ -366,7 +408,7 @@ public final class DataModel {
      */
     public Timer addTimer(long length, String label, String buttonTime, boolean deleteAfterUse) {
         enforceMainLooper();
-        return mTimerModel.addTimer(length, label, buttonTime, deleteAfterUse);
+        return getTimerModel().addTimer(length, label, buttonTime, deleteAfterUse);
     }
 
     /**
@@ -374,7 +416,7 @@ public final class DataModel {
      */
     public void removeTimer(Timer timer) {
         enforceMainLooper();
-        mTimerModel.removeTimer(timer);
+        getTimerModel().removeTimer(timer);
     }
 
     /**
@@ -391,7 +433,7 @@ public final class DataModel {
     public void startTimer(Service service, Timer timer) {
         enforceMainLooper();
         final Timer started = timer.start();
-        mTimerModel.updateTimer(started);
+        getTimerModel().updateTimer(started);
         if (timer.getRemainingTime() <= 0) {
             if (service != null) {
                 expireTimer(service, started);
@@ -406,7 +448,130 @@ public final class DataModel {
      */
     public void pauseTimer(Timer timer) {
         enforceMainLooper();
-        mTimerModel.updateTimer(timer.pause());
+        getTimerModel().updateTimer(timer.pause());
+    }
+
+    /**
+     * Starts all paused and reset timers with a single commit to permanent storage.
+     */
+    public void startAllTimers() {
+        enforceMainLooper();
+        final List<Timer> timers = new ArrayList<>();
+        for (Timer timer : getTimers()) {
+            if (timer.isPaused() || timer.isReset()) {
+                timers.add(timer);
+            }
+        }
+        startTimers(timers);
+    }
+
+    /**
+     * Resumes all paused timers with a single commit to permanent storage.
+     */
+    public void resumeAllTimers() {
+        enforceMainLooper();
+        final List<Timer> timers = new ArrayList<>();
+        for (Timer timer : getTimers()) {
+            if (timer.isPaused()) {
+                timers.add(timer);
+            }
+        }
+        startTimers(timers);
+    }
+
+    /**
+     * Pauses all running timers with a single commit to permanent storage.
+     */
+    public void pauseAllTimers() {
+        enforceMainLooper();
+        final List<Timer> paused = new ArrayList<>();
+        for (Timer timer : getTimers()) {
+            if (timer.isRunning()) {
+                paused.add(timer.pause());
+            }
+        }
+        getTimerModel().updateTimers(paused);
+    }
+
+    /**
+     * @param timers the timers to which the time of their add time button should be added
+     */
+    public void addCustomTimeToTimers(List<Timer> timers) {
+        enforceMainLooper();
+        final List<Timer> updated = new ArrayList<>(timers.size());
+        for (Timer timer : timers) {
+            updated.add(timer.addCustomTime());
+        }
+        getTimerModel().updateTimers(updated);
+    }
+
+    /**
+     * @return the names of all timer groups in alphabetical order
+     */
+    public List<String> getTimerGroupNames() {
+        enforceMainLooper();
+        return getTimerModel().getTimerGroupNames();
+    }
+
+    /**
+     * @param name the name of the timer group
+     * @return the existing timers belonging to the group
+     */
+    public List<Timer> getTimerGroup(String name) {
+        enforceMainLooper();
+        return getTimerModel().getTimerGroup(name);
+    }
+
+    /**
+     * @param name   the name of the timer group to create or replace
+     * @param timers the timers that start together when the group is started
+     */
+    public void setTimerGroup(String name, List<Timer> timers) {
+        enforceMainLooper();
+        getTimerModel().setTimerGroup(name, timers);
+    }
+
+    /**
+     * @param name the name of the timer group to remove; its timers are left unchanged
+     */
+    public void removeTimerGroup(String name) {
+        enforceMainLooper();
+        getTimerModel().removeTimerGroup(name);
+    }
+
+    /**
+     * Starts all the timers of the given group together with a single commit to permanent storage.
+     *
+     * @param name the name of the timer group to start
+     */
+    public void startTimerGroup(String name) {
+        enforceMainLooper();
+        startTimers(getTimerModel().getTimerGroup(name));
+    }
+
+    /**
+     * @param timers the timers to be started together
+     */
+    private void startTimers(List<Timer> timers) {
+        final List<Timer> started = new ArrayList<>(timers.size());
+        for (Timer timer : timers) {
+            started.add(timer.start());
+        }
+        getTimerModel().updateTimers(started);
+
+        for (Timer timer : started) {
+            if (timer.getRemainingTime() <= 0) {
+                mContext.startService(TimerService.createTimerExpiredIntent(mContext, timer));
+            }
+        }
+    }
+
+    /**
+     * Re-evaluates the expiration callback of the next expiring timer.
+     */
+    public void updateTimerExpiration() {
+        enforceMainLooper();
+        getTimerModel().updateTimerExpiration();
     }
 
     /**
@@ -415,7 +580,7 @@ public final class DataModel {
      */
     public void expireTimer(Service service, Timer timer) {
         enforceMainLooper();
-        mTimerModel.expireTimer(service, timer);
+        getTimerModel().expireTimer(service, timer);
     }
 
     /**
@@ -428,7 +593,7 @@ public final class DataModel {
      */
     public void resetOrDeleteTimer(Timer timer, @StringRes int eventLabelId) {
         enforceMainLooper();
-        mTimerModel.resetTimer(timer, true, eventLabelId);
+        getTimerModel().resetTimer(timer, true, eventLabelId);
     }
 
     /**
@@ -438,7 +603,7 @@ public final class DataModel {
      */
     public void resetOrDeleteExpiredTimers(@StringRes int eventLabelId) {
         enforceMainLooper();
-        mTimerModel.resetOrDeleteExpiredTimers(eventLabelId);
+        getTimerModel().resetOrDeleteExpiredTimers(eventLabelId);
     }
 
     /**
@@ -448,7 +613,7 @@ public final class DataModel {
      */
     public void resetMissedTimers(@StringRes int eventLabelId) {
         enforceMainLooper();
-        mTimerModel.resetMissedTimers(eventLabelId);
+        getTimerModel().resetMissedTimers(eventLabelId);
     }
 
     /**
@@ -456,7 +621,7 @@ public final class DataModel {
      */
     public void addCustomTimeToTimer(Timer timer) {
         enforceMainLooper();
-        mTimerModel.updateTimer(timer.addCustomTime());
+        getTimerModel().updateTimer(timer.addCustomTime());
     }
 
     /**
@@ -465,7 +630,7 @@ public final class DataModel {
      */
     public void setTimerLabel(Timer timer, String label) {
         enforceMainLooper();
-        mTimerModel.updateTimer(timer.setLabel(label));
+        getTimerModel().updateTimer(timer.setLabel(label));
     }
 
     /**
@@ -474,7 +639,7 @@ public final class DataModel {
      */
     public void setNewTimerDuration(Timer timer, long newLength) {
         enforceMainLooper();
-        mTimerModel.updateTimer(timer.setNewDuration(newLength));
+        getTimerModel().updateTimer(timer.setNewDuration(newLength));
     }
 
     /**
@@ -483,7 +648,7 @@ public final class DataModel {
      */
     public void setTimerButtonTime(Timer timer, String buttonTime) {
         enforceMainLooper();
-        mTimerModel.updateTimer(timer.setButtonTime(buttonTime));
+        getTimerModel().updateTimer(timer.setButtonTime(buttonTime));
     }
 
     /**
@@ -491,7 +656,7 @@ public final class DataModel {
      */
     public void updateTimerNotification() {
         enforceMainLooper();
-        mTimerModel.updateNotification();
+        getTimerModel().updateNotification();
     }
 
     /**
@@ -499,7 +664,7 @@ public final class DataModel {
      */
     public Uri getDefaultTimerRingtoneUri() {
         enforceMainLooper();
-        return mTimerModel.getDefaultTimerRingtoneUri();
+        return getTimerModel().getDefaultTimerRingtoneUri();
     }
 
     /**
@@ -507,7 +672,7 @@ public final class DataModel {
      */
     public boolean isTimerRingtoneSilent() {
         enforceMainLooper();
-        return mTimerModel.isTimerRingtoneSilent();
+        return getTimerModel().isTimerRingtoneSilent();
     }
 
     /**
@@ -515,7 +680,7 @@ public final class DataModel {
      */
     public Uri getTimerRingtoneUri() {
         enforceMainLooper();
-        return mTimerModel.getTimerRingtoneUri();
+        return getTimerModel().getTimerRingtoneUri();
     }
 
     /**
@@ -523,7 +688,7 @@ public final class DataModel {
      */
     public void setTimerRingtoneUri(Uri uri) {
         enforceMainLooper();
-        mTimerModel.setTimerRingtoneUri(uri);
+        getTimerModel().setTimerRingtoneUri(uri);
     }
 
     /**
@@ -531,7 +696,7 @@ public final class DataModel {
      */
     public String getTimerRingtoneTitle() {
         enforceMainLooper();
-        return mTimerModel.getTimerRingtoneTitle();
+        return getTimerModel().getTimerRingtoneTitle();
     }
 
     /**
@@ -539,7 +704,7 @@ public final class DataModel {
      */
     public Uri getDefaultAlarmRingtoneUriFromSettings() {
         enforceMainLooper();
-        return mAlarmModel.getDefaultAlarmRingtoneUriFromSettings();
+        return getAlarmModel().getDefaultAlarmRingtoneUriFromSettings();
     }
 
     /**
@@ -547,7 +712,7 @@ public final class DataModel {
      */
     public Uri getAlarmRingtoneUriFromSettings() {
         enforceMainLooper();
-        return mAlarmModel.getAlarmRingtoneUriFromSettings();
+        return getAlarmModel().getAlarmRingtoneUriFromSettings();
     }
 
     /**
@@ -555,7 +720,7 @@ public final class DataModel {
      */
     public String getAlarmRingtoneTitle() {
         enforceMainLooper();
-        return mAlarmModel.getAlarmRingtoneTitle();
+        return getAlarmModel().getAlarmRingtoneTitle();
     }
 
     /**
@@ -563,7 +728,7 @@ public final class DataModel {
      */
     public void setAlarmRingtoneUriFromSettings(Uri uri) {
         enforceMainLooper();
-        mAlarmModel.setAlarmRingtoneUriFromSettings(uri);
+        getAlarmModel().setAlarmRingtoneUriFromSettings(uri);
     }
 
     /**
@@ -571,7 +736,7 @@ public final class DataModel {
      */
     public void setSelectedAlarmRingtoneUri(Uri uri) {
         enforceMainLooper();
-        mAlarmModel.setSelectedAlarmRingtoneUri(uri);
+        getAlarmModel().setSelectedAlarmRingtoneUri(uri);
     }
 
     /**
@@ -579,7 +744,7 @@ public final class DataModel {
      */
     public void addStopwatchListener(StopwatchListener stopwatchListener) {
         enforceMainLooper();
-        mStopwatchModel.addStopwatchListener(stopwatchListener);
+        getStopwatchModel().addStopwatchListener(stopwatchListener);
     }
 
     /**
@@ -587,7 +752,7 @@ public final class DataModel {
      */
     public void removeStopwatchListener(StopwatchListener stopwatchListener) {
         enforceMainLooper();
-        mStopwatchModel.removeStopwatchListener(stopwatchListener);
+        getStopwatchModel().removeStopwatchListener(stopwatchListener);
     }
 
     /**
@@ -595,7 +760,7 @@ public final class DataModel {
      */
     public Stopwatch getStopwatch() {
         enforceMainLooper();
-        return mStopwatchModel.getStopwatch();
+        return getStopwatchModel().getStopwatch();
     }
 
     /**
@@ -603,7 +768,7 @@ public final class DataModel {
      */
     public void startStopwatch() {
         enforceMainLooper();
-        mStopwatchModel.setStopwatch(getStopwatch().start());
+        getStopwatchModel().setStopwatch(getStopwatch().start());
     }
 
     /**
@@ -611,7 +776,7 @@ public final class DataModel {
      */
     public void pauseStopwatch() {
         enforceMainLooper();
-        mStopwatchModel.setStopwatch(getStopwatch().pause());
+        getStopwatchModel().setStopwatch(getStopwatch().pause());
     }
 
     /**
@@ -619,7 +784,7 @@ public final class DataModel {
      */
     public void resetStopwatch() {
         enforceMainLooper();
-        mStopwatchModel.setStopwatch(getStopwatch().reset());
+        getStopwatchModel().setStopwatch(getStopwatch().reset());
     }
 
     /**
@@ -627,7 +792,7 @@ public final class DataModel {
      */
     public List<Lap> getLaps() {
         enforceMainLooper();
-        return (mStopwatchModel != null) ? mStopwatchModel.getLaps() : new ArrayList<>();
+        return (mContext != null) ? getStopwatchModel().getLaps() : new ArrayList<>();
     }
 
     /**
@@ -635,7 +800,15 @@ public final class DataModel {
      */
     public Lap addLap() {
         enforceMainLooper();
-        return mStopwatchModel.addLap();
+        return getStopwatchModel().addLap();
+    }
+
+    /**
+     * @return the running statistics of the laps recorded for this stopwatch
+     */
+    public LapStats getLapStats() {
+        enforceMainLooper();
+        return getStopwatchModel().getLapStats();
     }
 
     /**
@@ -643,7 +816,7 @@ public final class DataModel {
      */
     public boolean canAddMoreLaps() {
         enforceMainLooper();
-        return mStopwatchModel.canAddMoreLaps();
+        return getStopwatchModel().canAddMoreLaps();
     }
 
     /**
@@ -651,7 +824,7 @@ public final class DataModel {
      */
     public long getLongestLapTime() {
         enforceMainLooper();
-        return mStopwatchModel.getLongestLapTime();
+        return getStopwatchModel().getLongestLapTime();
     }
 
     /**
@@ -660,7 +833,7 @@ public final class DataModel {
      */
     public long getCurrentLapTime(long time) {
         enforceMainLooper();
-        return mStopwatchModel.getCurrentLapTime(time);
+        return getStopwatchModel().getCurrentLapTime(time);
     }
 
     /**
@@ -700,7 +873,7 @@ public final class DataModel {
      */
     public void loadRingtoneTitles() {
         enforceNotMainLooper();
-        mRingtoneModel.loadRingtoneTitles();
+        getRingtoneModel().loadRingtoneTitles();
     }
 
     /**
@@ -708,7 +881,7 @@ public final class DataModel {
      */
     public void loadRingtonePermissions() {
         enforceNotMainLooper();
-        mRingtoneModel.loadRingtonePermissions();
+        getRingtoneModel().loadRingtonePermissions();
     }
 
     /**
@@ -717,16 +890,80 @@ public final class DataModel {
      */
     public String getRingtoneTitle(Uri uri) {
         enforceMainLooper();
-        return mRingtoneModel.getRingtoneTitle(uri);
+        return getRingtoneModel().getRingtoneTitle(uri);
+    }
+
+    /**
+     * @param uri the uri of a ringtone
+     * @return the title of the ringtone with the {@code uri} if it is known without any lookup;
+     * {@code null} otherwise
+     */
+    public String getCachedRingtoneTitle(Uri uri) {
+        enforceMainLooper();
+        return getRingtoneModel().getCachedRingtoneTitle(uri);
     }
 
     /**
+     * Looks up the title of a ringtone missing from the cache. This method <strong>must</strong>
+     * be called on a background thread because it creates a media player.
+     *
+     * @param uri the uri of a ringtone
+     * @return the title of the ringtone with the {@code uri}
+     */
+    public String loadRingtoneTitle(Uri uri) {
+        enforceNotMainLooper();
+        return getRingtoneModel().loadRingtoneTitle(uri);
+    }
+
+    /**
+     * @param uri the uri of a custom ringtone
+     * @return whether the ringtone was readable when it was last checked; {@code null} if it was
+     * never checked
+     */
+    public Boolean getCachedRingtoneReadability(Uri uri) {
+        return getRingtoneModel().getCachedRingtoneReadability(uri);
+    }
+
+    /**
+     * Checks whether a custom ringtone is readable. This method <strong>must</strong> be called on
+     * a background thread because it opens the ringtone.
+     *
+     * @param uri the uri of a custom ringtone
+     * @return {@code true} if the ringtone is readable; {@code false} otherwise
+     */
+    public boolean loadRingtoneReadability(Uri uri) {
+        enforceNotMainLooper();
+        return getRingtoneModel().loadRingtoneReadability(uri);
+    }
+
+    /**
+     * @return the uris of the system alarm ringtones
+     */
+    public List<Uri> getSystemRingtoneUris() {
+        enforceNotMainLooper();
+        return getRingtoneModel().getSystemRingtoneUris();
+    }
+
+    /**
+     * Imports an audio file to use as a ringtone and records its metadata. This method
+     * <strong>must</strong> be called on a background thread because it reads the whole file.
+     *
      * @param uri   the uri of an audio file to use as a ringtone
      * @param title the title of the audio content at the given {@code uri}
+     * @return the uri to pass to {@link #customRingtoneToAdd}
+     */
+    public Uri importCustomRingtone(Uri uri, String title) {
+        enforceNotMainLooper();
+        return getRingtoneModel().importCustomRingtone(uri, title);
+    }
+
+    /**
+     * @param uri   the uri of an imported audio file to use as a ringtone
+     * @param title the title of the audio content at the given {@code uri}
      */
     public Uri customRingtoneToAdd(Uri uri, String title) {
         enforceMainLooper();
-        return mRingtoneModel.customRingtoneToAdd(uri, title);
+        return getRingtoneModel().customRingtoneToAdd(uri, title);
     }
 
     /**
@@ -734,7 +971,7 @@ public final class DataModel {
      */
     public void removeCustomRingtone(Uri uri) {
         enforceMainLooper();
-        mRingtoneModel.removeCustomRingtone(uri);
+        getRingtoneModel().removeCustomRingtone(uri);
     }
 
     /**
@@ -742,7 +979,26 @@ public final class DataModel {
      * to avoid adding duplicates. {@code false} otherwise.
      */
     public boolean isCustomRingtoneAlreadyAdded(String name, long size) {
-        return mRingtoneModel.customRingtoneAlreadyAdded(name, size) != null;
+        return getRingtoneModel().customRingtoneAlreadyAdded(name, size) != null;
+    }
+
+    /**
+     * May be called from any thread.
+     *
+     * @return the uri of the local copy of the custom ringtone; {@code null} if there is none
+     */
+    public Uri getLocallyCachedRingtoneUri(Uri uri) {
+        return getRingtoneModel().getLocallyCachedRingtoneUri(uri);
+    }
+
+    /**
+     * May be called from any thread.
+     *
+     * @return the duration of the custom ringtone recorded when it was imported, in milliseconds;
+     * {@code -1} if it is unknown
+     */
+    public long getIndexedRingtoneDuration(Uri uri) {
+        return getRingtoneModel().getIndexedRingtoneDuration(uri);
     }
 
     /**
@@ -750,7 +1006,26 @@ public final class DataModel {
      */
     public List<CustomRingtone> getCustomRingtones() {
         enforceMainLooper();
-        return mRingtoneModel.getCustomRingtones();
+        return getRingtoneModel().getCustomRingtones();
+    }
+
+    /**
+     * May be called from any thread.
+     *
+     * @return a randomly selected system alarm ringtone; the default alarm ringtone if there is none
+     */
+    public Uri getRandomRingtoneUri() {
+        return getRingtoneModel().getRandomRingtoneUri();
+    }
+
+    /**
+     * May be called from any thread.
+     *
+     * @return a randomly selected readable custom ringtone; the default alarm ringtone if there is
+     * none
+     */
+    public Uri getRandomCustomRingtoneUri() {
+        return getRingtoneModel().getRandomCustomRingtoneUri();
     }
 
     /**
@@ -758,7 +1033,7 @@ public final class DataModel {
      */
     public void addSilentSettingsListener(OnSilentSettingsListener silentSettingsListener) {
         enforceMainLooper();
-        mSilentSettingsModel.addSilentSettingsListener(silentSettingsListener);
+        getSilentSettingsModel().addSilentSettingsListener(silentSettingsListener);
     }
 
     /**
@@ -766,7 +1041,7 @@ public final class DataModel {
      */
     public void removeSilentSettingsListener(OnSilentSettingsListener silentSettingsListener) {
         enforceMainLooper();
-        mSilentSettingsModel.removeSilentSettingsListener(silentSettingsListener);
+        getSilentSettingsModel().removeSilentSettingsListener(silentSettingsListener);
     }
 
     /**
@@ -0,0 +1,144 @@
+// SPDX-License-Identifier: GPL-3.0-only
+
+package com.best.deskclock.data;
+
+/**
+ * Running statistics of the recorded stopwatch laps.
+ * <p>
+ * The statistics are updated in constant time each time a lap is recorded so that they can be
+ * read while rendering without scanning the list of laps. The standard deviation is maintained
+ * with Welford's online algorithm.
+ */
+public final class LapStats {
+
+    private int mCount;
+
+    /**
+     * The time of the first recorded lap, to which all subsequent laps are compared.
+     */
+    private long mFirstLapTime;
+
+    private long mBestLapTime;
+
+    private long mWorstLapTime;
+
+    private long mLastLapTime;
+
+    private long mPreviousLapTime;
+
+    /**
+     * The time accumulated up to and including the last recorded lap.
+     */
+    private long mLastAccumulatedTime;
+
+    private double mMean;
+
+    /**
+     * The sum of squared differences from the mean, used to compute the standard deviation.
+     */
+    private double mSquaredDeviations;
+
+    /**
+     * @param lap the newly recorded lap
+     */
+    void add(Lap lap) {
+        final long lapTime = lap.getLapTime();
+
+        mCount++;
+        if (mCount == 1) {
+            mFirstLapTime = lapTime;
+            mBestLapTime = lapTime;
+            mWorstLapTime = lapTime;
+        } else {
+            mBestLapTime = Math.min(mBestLapTime, lapTime);
+            mWorstLapTime = Math.max(mWorstLapTime, lapTime);
+        }
+
+        mPreviousLapTime = mLastLapTime;
+        mLastLapTime = lapTime;
+        mLastAccumulatedTime = lap.getAccumulatedTime();
+
+        final double delta = lapTime - mMean;
+        mMean += delta / mCount;
+        mSquaredDeviations += delta * (lapTime - mMean);
+    }
+
+    /**
+     * Forgets all recorded laps.
+     */
+    void clear() {
+        mCount = 0;
+        mFirstLapTime = 0;
+        mBestLapTime = 0;
+        mWorstLapTime = 0;
+        mLastLapTime = 0;
+        mPreviousLapTime = 0;
+        mLastAccumulatedTime = 0;
+        mMean = 0;
+        mSquaredDeviations = 0;
+    }
+
+    /**
+     * @return the number of recorded laps
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * @return the time of the first recorded lap; {@code 0} if no lap is recorded
+     */
+    public long getFirstLapTime() {
+        return mFirstLapTime;
+    }
+
+    /**
+     * @return the shortest recorded lap time; {@code 0} if no lap is recorded
+     */
+    public long getBestLapTime() {
+        return mBestLapTime;
+    }
+
+    /**
+     * @return the longest recorded lap time; {@code 0} if no lap is recorded
+     */
+    public long getWorstLapTime() {
+        return mWorstLapTime;
+    }
+
+    /**
+     * @return the time of the last recorded lap; {@code 0} if no lap is recorded
+     */
+    public long getLastLapTime() {
+        return mLastLapTime;
+    }
+
+    /**
+     * @return the time accumulated up to and including the last recorded lap
+     */
+    public long getLastAccumulatedTime() {
+        return mLastAccumulatedTime;
+    }
+
+    /**
+     * @return the mean recorded lap time; {@code 0} if no lap is recorded
+     */
+    public long getMeanLapTime() {
+        return Math.round(mMean);
+    }
+
+    /**
+     * @return the standard deviation of the recorded lap times
+     */
+    public long getStandardDeviation() {
+        return mCount < 2 ? 0 : Math.round(Math.sqrt(mSquaredDeviations / mCount));
+    }
+
+    /**
+     * @return the difference between the last lap time and the one before it; negative when the
+     * pace increased, {@code 0} if fewer than two laps are recorded
+     */
+    public long getPaceDelta() {
+        return mCount < 2 ? 0 : mLastLapTime - mPreviousLapTime;
+    }
+}
@@ -0,0 +1,194 @@
+// SPDX-License-Identifier: GPL-3.0-only
+
+package com.best.deskclock.data;
+
+import android.Manifest;
+import android.app.Notification;
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.PackageManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.SparseArray;
+
+import androidx.core.app.ActivityCompat;
+import androidx.core.app.NotificationManagerCompat;
+
+import com.best.deskclock.utils.SdkUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Posts timer and stopwatch notifications on behalf of the models.
+ * <p>
+ * A notification is only rebuilt and posted when its visible content differs from the content
+ * that was last posted under the same id. Posts are also rate-limited per channel: updates that
+ * arrive within {@link #MIN_POST_INTERVAL} of the previous post on the same channel are coalesced
+ * and only the latest one is posted once the interval elapses.
+ * <p>
+ * Each posted notification carries a delete intent, so that the content of a notification
+ * dismissed by the user is forgotten and the next update posts it again.
+ */
+final class NotificationPoster {
+
+    /**
+     * The minimum delay between two posts on the same notification channel.
+     */
+    private static final long MIN_POST_INTERVAL = 250;
+
+    /**
+     * Broadcast when the user dismisses a notification posted by a NotificationPoster.
+     */
+    private static final String ACTION_NOTIFICATION_DISMISSED =
+            "com.best.deskclock.action.NOTIFICATION_DISMISSED";
+
+    /**
+     * Identifies the dismissed notification.
+     */
+    private static final String EXTRA_NOTIFICATION_ID = "com.best.deskclock.extra.NOTIFICATION_ID";
+
+    /**
+     * Builds a notification when it actually needs to be posted.
+     */
+    interface Factory {
+        Notification build();
+    }
+
+    private final Context mContext;
+
+    private final NotificationManagerCompat mNotificationManager;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * The content of the notifications currently posted, by notification id.
+     */
+    private final SparseArray<Object> mPostedContent = new SparseArray<>();
+
+    /**
+     * The posts waiting for the rate limit of their channel to elapse, by notification id.
+     */
+    private final SparseArray<PendingPost> mPendingPosts = new SparseArray<>();
+
+    /**
+     * The elapsed realtime of the last post, by channel id.
+     */
+    private final Map<String, Long> mLastPostTimes = new HashMap<>();
+
+    /**
+     * Forgets the content of the notifications dismissed by the user. Since the posted content is
+     * only remembered by this process, the receiver does not need to outlive it.
+     */
+    private final BroadcastReceiver mDismissReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            mPostedContent.remove(intent.getIntExtra(EXTRA_NOTIFICATION_ID, -1));
+        }
+    };
+
+    NotificationPoster(Context context) {
+        mContext = context;
+        mNotificationManager = NotificationManagerCompat.from(context);
+
+        final IntentFilter filter = new IntentFilter(ACTION_NOTIFICATION_DISMISSED);
+        if (SdkUtils.isAtLeastAndroid13()) {
+            context.registerReceiver(mDismissReceiver, filter, Context.RECEIVER_NOT_EXPORTED);
+        } else {
+            context.registerReceiver(mDismissReceiver, filter);
+        }
+    }
+
+    /**
+     * Posts the notification identified by {@code id} unless the same {@code content} is already
+     * displayed.
+     *
+     * @param channelId the channel to which the notification belongs
+     * @param id        identifies the notification
+     * @param content   a value describing everything visible in the notification
+     * @param factory   builds the notification if it must be posted
+     */
+    void post(String channelId, int id, Object content, Factory factory) {
+        final PendingPost pending = mPendingPosts.get(id);
+        if (pending == null && Objects.equals(mPostedContent.get(id), content)) {
+            return;
+        }
+
+        mPendingPosts.put(id, new PendingPost(channelId, id, content, factory));
+
+        final long now = SystemClock.elapsedRealtime();
+        final Long lastPostTime = mLastPostTimes.get(channelId);
+        final long nextPostTime = lastPostTime == null ? now : lastPostTime + MIN_POST_INTERVAL;
+        if (nextPostTime <= now) {
+            flush(channelId);
+        } else if (pending == null) {
+            mHandler.postDelayed(() -> flush(channelId), nextPostTime - now);
+        }
+    }
+
+    /**
+     * Cancels the notification identified by {@code id} along with any pending update of it.
+     */
+    void cancel(int id) {
+        mPendingPosts.remove(id);
+        mPostedContent.remove(id);
+        mNotificationManager.cancel(id);
+    }
+
+    /**
+     * Forgets the content of all posted notifications so that the next updates are posted even if
+     * the described content is unchanged (e.g. after a locale change).
+     */
+    void invalidate() {
+        mPostedContent.clear();
+    }
+
+    /**
+     * Posts all pending notifications belonging to the given {@code channelId}.
+     */
+    private void flush(String channelId) {
+        final boolean canPost = ActivityCompat.checkSelfPermission(mContext,
+                Manifest.permission.POST_NOTIFICATIONS) == PackageManager.PERMISSION_GRANTED;
+
+        boolean posted = false;
+        for (int i = mPendingPosts.size() - 1; i >= 0; i--) {
+            final PendingPost pending = mPendingPosts.valueAt(i);
+            if (!pending.channelId().equals(channelId)) {
+                continue;
+            }
+
+            mPendingPosts.removeAt(i);
+
+            if (canPost && !Objects.equals(mPostedContent.get(pending.id()), pending.content())) {
+                final Notification notification = pending.factory().build();
+                notification.deleteIntent = createDeleteIntent(pending.id());
+                mNotificationManager.notify(pending.id(), notification);
+                mPostedContent.put(pending.id(), pending.content());
+                posted = true;
+            }
+        }
+
+        if (posted) {
+            mLastPostTimes.put(channelId, SystemClock.elapsedRealtime());
+        }
+    }
+
+    /**
+     * @return an intent broadcast when the user dismisses the notification identified by {@code id}
+     */
+    private PendingIntent createDeleteIntent(int id) {
+        final Intent intent = new Intent(ACTION_NOTIFICATION_DISMISSED)
+                .setPackage(mContext.getPackageName())
+                .putExtra(EXTRA_NOTIFICATION_ID, id);
+        return PendingIntent.getBroadcast(mContext, id, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    private record PendingPost(String channelId, int id, Object content, Factory factory) {
+    }
+}
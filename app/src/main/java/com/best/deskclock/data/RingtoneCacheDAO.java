@@ -0,0 +1,132 @@
+// SPDX-License-Identifier: GPL-3.0-only
+
+package com.best.deskclock.data;
+
+import android.content.SharedPreferences;
+import android.net.Uri;
+import android.util.ArrayMap;
+
+import java.util.Map;
+
+/**
+ * This class encapsulates the storage of resolved ringtone details in {@link SharedPreferences},
+ * so that the ringtone picker can display them right away in later sessions:
+ * <ul>
+ *     <li>the titles of the system ringtones, which are expensive to look up;</li>
+ *     <li>whether each custom ringtone could be read when it was last checked.</li>
+ * </ul>
+ */
+final class RingtoneCacheDAO {
+
+    /**
+     * Key to a preference that stores the language in which the titles were resolved.
+     */
+    private static final String KEY_LANGUAGE = "language";
+
+    /**
+     * Key to a preference that records that the stored titles cover all system ringtones; it is
+     * only written by a complete walk over them.
+     */
+    private static final String KEY_TITLES_COMPLETE = "titles_complete";
+
+    /**
+     * Prefix for a key to a preference that stores the title associated with a ringtone uri.
+     */
+    private static final String TITLE_PREFIX = "title_";
+
+    /**
+     * Prefix for a key to a preference that stores whether the ringtone at a uri is readable.
+     */
+    private static final String READABLE_PREFIX = "readable_";
+
+    private RingtoneCacheDAO() {
+    }
+
+    /**
+     * @param language the language in which the titles are expected
+     * @return the stored ringtone titles; an empty map if they were resolved in another language
+     */
+    static Map<Uri, String> getRingtoneTitles(SharedPreferences prefs, String language) {
+        final Map<Uri, String> titles = new ArrayMap<>();
+        if (!language.equals(prefs.getString(KEY_LANGUAGE, null))) {
+            return titles;
+        }
+
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            final String key = entry.getKey();
+            if (key.startsWith(TITLE_PREFIX) && entry.getValue() instanceof String title) {
+                titles.put(Uri.parse(key.substring(TITLE_PREFIX.length())), title);
+            }
+        }
+
+        return titles;
+    }
+
+    /**
+     * @param language the language in which the titles are expected
+     * @return {@code true} if the stored titles cover all system ringtones in that language
+     */
+    static boolean areRingtoneTitlesComplete(SharedPreferences prefs, String language) {
+        return language.equals(prefs.getString(KEY_LANGUAGE, null))
+                && prefs.getBoolean(KEY_TITLES_COMPLETE, false);
+    }
+
+    /**
+     * Stores the given ringtone titles, which replace all stored titles if they were resolved in
+     * another language.
+     *
+     * @param complete {@code true} if the titles cover all system ringtones
+     */
+    static void putRingtoneTitles(SharedPreferences prefs, String language, Map<Uri, String> titles,
+                                  boolean complete) {
+
+        final SharedPreferences.Editor editor = prefs.edit();
+        if (!language.equals(prefs.getString(KEY_LANGUAGE, null))) {
+            removeRingtoneTitles(prefs, editor);
+            editor.putString(KEY_LANGUAGE, language);
+            editor.remove(KEY_TITLES_COMPLETE);
+        }
+
+        for (Map.Entry<Uri, String> entry : titles.entrySet()) {
+            editor.putString(TITLE_PREFIX + entry.getKey(), entry.getValue());
+        }
+        if (complete) {
+            editor.putBoolean(KEY_TITLES_COMPLETE, true);
+        }
+        editor.apply();
+    }
+
+    /**
+     * Removes all stored ringtone titles, e.g. once the default alarm ringtone changed.
+     */
+    static void clearRingtoneTitles(SharedPreferences prefs) {
+        final SharedPreferences.Editor editor = prefs.edit();
+        removeRingtoneTitles(prefs, editor);
+        editor.remove(KEY_LANGUAGE).remove(KEY_TITLES_COMPLETE).apply();
+    }
+
+    /**
+     * @return whether the ringtone at the given uri was readable when it was last checked;
+     * {@code null} if it was never checked
+     */
+    static Boolean isRingtoneReadable(SharedPreferences prefs, Uri uri) {
+        final String key = READABLE_PREFIX + uri;
+        return prefs.contains(key) ? prefs.getBoolean(key, true) : null;
+    }
+
+    static void setRingtoneReadable(SharedPreferences prefs, Uri uri, boolean readable) {
+        prefs.edit().putBoolean(READABLE_PREFIX + uri, readable).apply();
+    }
+
+    static void removeRingtoneReadable(SharedPreferences prefs, Uri uri) {
+        prefs.edit().remove(READABLE_PREFIX + uri).apply();
+    }
+
+    private static void removeRingtoneTitles(SharedPreferences prefs, SharedPreferences.Editor editor) {
+        for (String key : prefs.getAll().keySet()) {
+            if (key.startsWith(TITLE_PREFIX)) {
+                editor.remove(key);
+            }
+        }
+    }
+}
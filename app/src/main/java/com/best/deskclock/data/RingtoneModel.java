@@ -22,17 +22,20 @@ import android.content.SharedPreferences;
 import android.content.UriPermission;
 import android.database.ContentObserver;
 import android.database.Cursor;
+import android.media.MediaMetadataRetriever;
 import android.media.Ringtone;
 import android.media.RingtoneManager;
 import android.net.Uri;
 import android.os.Handler;
 import android.os.Looper;
+import android.provider.MediaStore;
 import android.provider.Settings;
 import android.util.ArrayMap;
 import android.util.ArraySet;
 
 import com.best.deskclock.R;
 import com.best.deskclock.provider.Alarm;
+import com.best.deskclock.settings.PreferencesKeys;
 import com.best.deskclock.utils.LogUtils;
 import com.best.deskclock.utils.RingtoneUtils;
 import com.best.deskclock.utils.SdkUtils;
@@ -43,28 +46,84 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * All ringtone data is accessed via this model.
  */
 public final class RingtoneModel {
 
+    /**
+     * The name of the preferences file, in the device protected storage on N+, storing the
+     * resolved ringtone details.
+     */
+    private static final String RINGTONE_CACHE_PREFERENCES = "ringtone_cache";
+
+    /**
+     * The name of the preferences file, in the device protected storage on N+, storing the
+     * metadata recorded when custom ringtones are imported.
+     */
+    private static final String CUSTOM_RINGTONE_INDEX_PREFERENCES = "custom_ringtone_index";
+
     private final Context mContext;
 
     private final SharedPreferences mPrefs;
 
+    /**
+     * Stores the resolved ringtone titles and readability across sessions.
+     */
+    private final SharedPreferences mCachePrefs;
+
+    /**
+     * Stores the size, duration, mime type and content hash of each custom ringtone.
+     */
+    private final SharedPreferences mIndexPrefs;
+
+    /**
+     * The opt-in local copies of the custom ringtones read through a content provider.
+     */
+    private final CustomRingtoneCache mLocalCache;
+
+    /**
+     * Copies and removes the local copies one task at a time, so that a copy never races the
+     * clearing of the cache when the setting is toggled quickly.
+     */
+    private final ExecutorService mLocalCacheExecutor = Executors.newSingleThreadExecutor();
+
+    /**
+     * The listener must be held by a hard reference or it would be garbage collected. See
+     * {@link SharedPreferences#registerOnSharedPreferenceChangeListener} for detail.
+     */
+    private final SharedPreferences.OnSharedPreferenceChangeListener mPreferenceListener =
+            new PreferenceListener();
+
     /**
      * Maps ringtone uri to ringtone title; looking up a title from scratch is expensive.
+     * <p>
+     * The map is filled from background threads, so all accesses are synchronized on it.
      */
     private final Map<Uri, String> mRingtoneTitles = new ArrayMap<>(16);
 
+    /**
+     * {@code true} once {@link #mRingtoneTitles} holds the titles of all system ringtones, rather
+     * than only those looked up one at a time. Guarded by {@link #mRingtoneTitles}.
+     */
+    private boolean mRingtoneTitlesComplete;
+
     /**
      * Clears data structures containing data that is locale-sensitive.
      */
@@ -85,6 +144,31 @@ public final class RingtoneModel {
      */
     private final ContentObserver mSystemObserver = new SystemAlarmAlertChangeObserver();
 
+    /**
+     * Observer for changes to the media store, which may add or remove system alarm ringtones.
+     */
+    private final ContentObserver mMediaObserver = new MediaChangeObserver();
+
+    /**
+     * The system alarm ringtones from which a random ringtone is picked.
+     */
+    private final RingtoneUriCache mSystemRingtoneUris = new RingtoneUriCache() {
+        @Override
+        Uri[] load() {
+            return loadSystemRingtoneUris();
+        }
+    };
+
+    /**
+     * The readable custom ringtones from which a random custom ringtone is picked.
+     */
+    private final RingtoneUriCache mCustomRingtoneUris = new RingtoneUriCache() {
+        @Override
+        Uri[] load() {
+            return loadCustomRingtoneUris();
+        }
+    };
+
     /**
      * A mutable copy of the custom ringtones.
      */
@@ -99,11 +183,21 @@ public final class RingtoneModel {
         }
 
         mPrefs = prefs;
+        mCachePrefs = mContext.getSharedPreferences(RINGTONE_CACHE_PREFERENCES, Context.MODE_PRIVATE);
+        mIndexPrefs = mContext.getSharedPreferences(CUSTOM_RINGTONE_INDEX_PREFERENCES, Context.MODE_PRIVATE);
+        mLocalCache = new CustomRingtoneCache(mContext);
+
+        // Copy or remove the local copies of the custom ringtones when the setting changes.
+        prefs.registerOnSharedPreferenceChangeListener(mPreferenceListener);
 
         // Clear caches affected by system settings when system settings change.
         final ContentResolver cr = mContext.getContentResolver();
         cr.registerContentObserver(Settings.System.DEFAULT_ALARM_ALERT_URI, false, mSystemObserver);
 
+        // Pick random ringtones among an up-to-date list of system ringtones.
+        cr.registerContentObserver(MediaStore.Audio.Media.INTERNAL_CONTENT_URI, true, mMediaObserver);
+        cr.registerContentObserver(MediaStore.Audio.Media.EXTERNAL_CONTENT_URI, true, mMediaObserver);
+
         // Clear caches affected by locale when locale changes.
         final IntentFilter localeBroadcastFilter = new IntentFilter(Intent.ACTION_LOCALE_CHANGED);
         if (SdkUtils.isAtLeastAndroid13()) {
@@ -113,42 +207,154 @@ public final class RingtoneModel {
         }
     }
 
-    Uri customRingtoneToAdd(Uri uri, String title) {
-        // If the new ringtone is already present in an existing ringtone, do nothing.
-        long size = RingtoneUtils.getRingtoneFileSize(mContext, uri);
-
-        Uri existingRingtone = customRingtoneAlreadyAdded(title, size);
-        if (existingRingtone != null) {
-            return existingRingtone;
+    /**
+     * Imports the audio content at the given uri, which is read only once: on N+ it is copied to
+     * the device protected storage to make it available during DirectBoot, and its size and
+     * content hash are computed along the way. Its duration and mime type are then recorded in the
+     * custom ringtone index along with them.
+     *
+     * @return the uri of the imported ringtone; the uri of an existing custom ringtone if the
+     * same content was already imported
+     */
+    Uri importCustomRingtone(Uri uri, String title) {
+        final ContentResolver contentResolver = mContext.getContentResolver();
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
 
-        // If device supports it make ringtone available during DirectBoot
+        File destFile = null;
         if (SdkUtils.isAtLeastAndroid7()) {
             String safeTitle = title.replaceAll("[^a-zA-Z0-9.\\-]", "_");
             String uniqueSuffix = "_" + UUID.randomUUID().toString();
-            String filename = safeTitle + uniqueSuffix;
-
-            File destFile = new File(mContext.getFilesDir(), filename);
-            try (InputStream inputStream = mContext.getContentResolver().openInputStream(uri);
-                OutputStream outputStream = new FileOutputStream(destFile)) {
-                if (inputStream != null) {
-                    byte[] buffer = new byte[4096];
-                    int bytesRead;
-                    while ((bytesRead = inputStream.read(buffer)) != -1) {
-                        outputStream.write(buffer, 0, bytesRead);
-                    }
-                    uri = Uri.fromFile(destFile);
-                } else {
-                    LogUtils.e("Failed to open input stream for URI: " + uri);
+            destFile = new File(mContext.getFilesDir(), safeTitle + uniqueSuffix);
+        }
+
+        long size = 0;
+        try (InputStream inputStream = contentResolver.openInputStream(uri);
+             OutputStream outputStream = destFile == null ? null : new FileOutputStream(destFile)) {
+            if (inputStream == null) {
+                LogUtils.e("Failed to open input stream for URI: " + uri);
+                return uri;
+            }
+
+            byte[] buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, bytesRead);
+                size += bytesRead;
+                if (outputStream != null) {
+                    outputStream.write(buffer, 0, bytesRead);
                 }
+            }
+        } catch (IOException e) {
+            LogUtils.e("Failed to import ringtone, continue using user storage", e);
+            deleteImportedFile(destFile);
+            return uri;
+        }
+
+        // If the new ringtone has the same content as an existing ringtone, use the existing one.
+        final String hash = toHexString(digest.digest());
+        Uri existingRingtone = CustomRingtoneIndexDAO.findRingtoneByHash(mIndexPrefs, hash);
+        if (existingRingtone == null) {
+            // Ringtones imported before the index existed have no hash.
+            existingRingtone = customRingtoneAlreadyAdded(title, size);
+        }
+        if (existingRingtone != null) {
+            deleteImportedFile(destFile);
+            return existingRingtone;
+        }
+
+        final Uri importedUri = destFile == null ? uri : Uri.fromFile(destFile);
+
+        long duration = -1;
+        String mimeType = null;
+        final MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try {
+            retriever.setDataSource(mContext, importedUri);
+            final String durationString = retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_DURATION);
+            if (durationString != null) {
+                duration = Long.parseLong(durationString);
+            }
+            mimeType = retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_MIMETYPE);
+        } catch (RuntimeException e) {
+            LogUtils.e("Failed to read the metadata of ringtone: " + uri, e);
+        } finally {
+            try {
+                retriever.release();
             } catch (IOException e) {
-                LogUtils.e("Failed to copy ringtone to device protected storage, continue using user storage", e);
+                LogUtils.e("Failed to release the metadata retriever", e);
             }
         }
+        if (mimeType == null) {
+            mimeType = contentResolver.getType(uri);
+        }
+
+        CustomRingtoneIndexDAO.putMetadata(mIndexPrefs, importedUri, size, duration, mimeType, hash);
+
+        // The ringtone could not be copied, so keep a local copy of it if the user opted in.
+        if (ContentResolver.SCHEME_CONTENT.equals(importedUri.getScheme())) {
+            mLocalCacheExecutor.execute(() -> {
+                if (SettingsDAO.isLocalRingtoneCacheEnabled(mPrefs)) {
+                    mLocalCache.put(mContext, importedUri);
+                }
+            });
+        }
+
+        return importedUri;
+    }
+
+    /**
+     * Copies the custom ringtones read through a content provider into the local cache if the
+     * user opted in; removes all copies otherwise. The setting is read when the task runs rather
+     * than when it is queued, so the last queued task always reflects the latest setting.
+     */
+    private void updateLocalRingtoneCache() {
+        mLocalCacheExecutor.execute(() -> {
+            if (!SettingsDAO.isLocalRingtoneCacheEnabled(mPrefs)) {
+                mLocalCache.clear();
+                return;
+            }
+
+            for (CustomRingtone ringtone : CustomRingtoneDAO.getCustomRingtones(mPrefs)) {
+                final Uri uri = ringtone.getUri();
+                if (ContentResolver.SCHEME_CONTENT.equals(uri.getScheme())) {
+                    mLocalCache.put(mContext, uri);
+                }
+            }
+        });
+    }
+
+    /**
+     * May be called from any thread.
+     *
+     * @return the uri of the local copy of the custom ringtone; {@code null} if there is none
+     */
+    Uri getLocallyCachedRingtoneUri(Uri uri) {
+        if (uri == null || !ContentResolver.SCHEME_CONTENT.equals(uri.getScheme())) {
+            return null;
+        }
+
+        return mLocalCache.getCachedUri(uri);
+    }
+
+    /**
+     * @param uri   the uri returned by {@link #importCustomRingtone}
+     * @param title the title of the audio content at the given {@code uri}
+     * @return the uri of the custom ringtone
+     */
+    Uri customRingtoneToAdd(Uri uri, String title) {
+        // If the ringtone was already imported, do nothing.
+        if (getCustomRingtone(uri) != null) {
+            return uri;
+        }
 
         final CustomRingtone ringtone = CustomRingtoneDAO.addCustomRingtone(mPrefs, uri, title);
         getMutableCustomRingtones().add(ringtone);
         Collections.sort(getMutableCustomRingtones());
+        mCustomRingtoneUris.invalidate();
 
         return uri;
     }
@@ -174,21 +380,38 @@ public final class RingtoneModel {
                 }
 
                 CustomRingtoneDAO.removeCustomRingtone(mPrefs, ringtone.getId());
+                CustomRingtoneIndexDAO.removeMetadata(mIndexPrefs, uri);
+                mLocalCacheExecutor.execute(() -> mLocalCache.remove(uri));
+                RingtoneCacheDAO.removeRingtoneReadable(mCachePrefs, uri);
                 ringtones.remove(ringtone);
+                mCustomRingtoneUris.invalidate();
                 break;
             }
         }
     }
 
+    /**
+     * Lists the custom ringtones from the preferences rather than from the list of the model, as
+     * this may be called from a background thread.
+     */
     Uri customRingtoneAlreadyAdded(String name, long size) {
-        for (CustomRingtone ringtone : getMutableCustomRingtones()) {
+        for (CustomRingtone ringtone : CustomRingtoneDAO.getCustomRingtones(mPrefs)) {
             String ringtoneName = ringtone.getTitle();
             Uri ringtoneUri = ringtone.getUri();
 
             // Compare the name
             if (ringtoneName != null && ringtoneName.equalsIgnoreCase(name)) {
-                // If the name is the same, try to compare the size
-                if (RingtoneUtils.getRingtoneFileSize(mContext, ringtoneUri) == size) {
+                // If the name is the same, compare the size recorded in the index.
+                long ringtoneSize = CustomRingtoneIndexDAO.getSize(mIndexPrefs, ringtoneUri);
+                if (ringtoneSize < 0) {
+                    // The ringtone was imported before the index existed; record its size once.
+                    ringtoneSize = RingtoneUtils.getRingtoneFileSize(mContext, ringtoneUri);
+                    if (ringtoneSize >= 0) {
+                        CustomRingtoneIndexDAO.putSize(mIndexPrefs, ringtoneUri, ringtoneSize);
+                    }
+                }
+
+                if (ringtoneSize == size) {
                     return ringtoneUri;
                 }
             }
@@ -197,6 +420,30 @@ public final class RingtoneModel {
         return null;
     }
 
+    /**
+     * May be called from any thread.
+     *
+     * @return the duration of the custom ringtone recorded when it was imported, in milliseconds;
+     * {@code -1} if it is unknown
+     */
+    long getIndexedRingtoneDuration(Uri uri) {
+        return CustomRingtoneIndexDAO.getDuration(mIndexPrefs, uri);
+    }
+
+    private static void deleteImportedFile(File file) {
+        if (file != null && file.exists() && !file.delete()) {
+            LogUtils.e("Failed to delete imported ringtone file");
+        }
+    }
+
+    static String toHexString(byte[] bytes) {
+        final StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
     private CustomRingtone getCustomRingtone(Uri uri) {
         for (CustomRingtone ringtone : getMutableCustomRingtones()) {
             if (ringtone.getUri().equals(uri)) {
@@ -229,11 +476,96 @@ public final class RingtoneModel {
             final CustomRingtone ringtone = i.next();
             i.set(ringtone.setHasPermissions(permissions.contains(ringtone.getUri())));
         }
+
+        // The permissions may have been granted or revoked since the custom ringtones were listed.
+        mCustomRingtoneUris.invalidate();
+    }
+
+    /**
+     * May be called from any thread. The ringtones are only listed again after they changed.
+     *
+     * @return a randomly selected system alarm ringtone; the default alarm ringtone if there is none
+     */
+    Uri getRandomRingtoneUri() {
+        final Uri uri = mSystemRingtoneUris.pickRandom();
+        return uri == null ? RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM) : uri;
+    }
+
+    /**
+     * May be called from any thread. The ringtones are only listed again after they changed.
+     *
+     * @return a randomly selected readable custom ringtone; the default alarm ringtone if there is
+     * none
+     */
+    Uri getRandomCustomRingtoneUri() {
+        final Uri uri = mCustomRingtoneUris.pickRandom();
+        return uri == null ? RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM) : uri;
+    }
+
+    private Uri[] loadSystemRingtoneUris() {
+        final RingtoneManager ringtoneManager = new RingtoneManager(mContext);
+        ringtoneManager.setType(RingtoneManager.TYPE_ALARM);
+
+        final List<Uri> uris = new ArrayList<>();
+        try (Cursor cursor = ringtoneManager.getCursor()) {
+            for (cursor.moveToFirst(); !cursor.isAfterLast(); cursor.moveToNext()) {
+                final Uri uri = ringtoneManager.getRingtoneUri(cursor.getPosition());
+                if (uri != null) {
+                    uris.add(uri);
+                }
+            }
+        } catch (Throwable throwable) {
+            // best attempt only
+            LogUtils.e("Error listing the system ringtones", throwable);
+        }
+
+        return uris.toArray(new Uri[0]);
+    }
+
+    /**
+     * Lists the custom ringtones from the preferences rather than from the list of the model, which
+     * is only accessed from the main thread.
+     */
+    private Uri[] loadCustomRingtoneUris() {
+        final List<UriPermission> uriPermissions =
+                mContext.getContentResolver().getPersistedUriPermissions();
+        final Set<Uri> permissions = new ArraySet<>(uriPermissions.size());
+        for (UriPermission uriPermission : uriPermissions) {
+            permissions.add(uriPermission.getUri());
+        }
+
+        final List<Uri> uris = new ArrayList<>();
+        for (CustomRingtone ringtone : CustomRingtoneDAO.getCustomRingtones(mPrefs)) {
+            final Uri uri = ringtone.getUri();
+            // Ringtones copied to the device protected storage are read without any permission.
+            final boolean readable = ContentResolver.SCHEME_FILE.equals(uri.getScheme())
+                    ? new File(Objects.requireNonNull(uri.getPath())).exists()
+                    : permissions.contains(uri);
+            if (readable) {
+                uris.add(uri);
+            }
+        }
+
+        return uris.toArray(new Uri[0]);
     }
 
     void loadRingtoneTitles() {
         // Early return if the cache is already primed.
-        if (!mRingtoneTitles.isEmpty()) {
+        synchronized (mRingtoneTitles) {
+            if (mRingtoneTitlesComplete) {
+                return;
+            }
+        }
+
+        // Titles resolved by a complete walk in a previous session spare walking again; titles
+        // looked up one at a time do not.
+        final String language = getTitleLanguage();
+        if (RingtoneCacheDAO.areRingtoneTitlesComplete(mCachePrefs, language)) {
+            final Map<Uri, String> persistedTitles = RingtoneCacheDAO.getRingtoneTitles(mCachePrefs, language);
+            synchronized (mRingtoneTitles) {
+                mRingtoneTitles.putAll(persistedTitles);
+                mRingtoneTitlesComplete = true;
+            }
             return;
         }
 
@@ -241,19 +573,32 @@ public final class RingtoneModel {
         ringtoneManager.setType(STREAM_ALARM);
 
         // Cache a title for each system ringtone.
+        final Map<Uri, String> titles = new ArrayMap<>();
+        boolean complete = false;
         try (Cursor cursor = ringtoneManager.getCursor()) {
             for (cursor.moveToFirst(); !cursor.isAfterLast(); cursor.moveToNext()) {
                 final String ringtoneTitle = cursor.getString(TITLE_COLUMN_INDEX);
                 final Uri ringtoneUri = ringtoneManager.getRingtoneUri(cursor.getPosition());
-                mRingtoneTitles.put(ringtoneUri, ringtoneTitle);
+                titles.put(ringtoneUri, ringtoneTitle);
             }
+            complete = true;
         } catch (Throwable throwable) {
             // best attempt only
             LogUtils.e("Error loading ringtone title cache", throwable);
         }
+
+        synchronized (mRingtoneTitles) {
+            mRingtoneTitles.putAll(titles);
+            mRingtoneTitlesComplete = complete;
+        }
+        RingtoneCacheDAO.putRingtoneTitles(mCachePrefs, language, titles, complete);
     }
 
-    String getRingtoneTitle(Uri uri) {
+    /**
+     * @return the title of the ringtone with the {@code uri} if it is known without any lookup;
+     * {@code null} otherwise
+     */
+    String getCachedRingtoneTitle(Uri uri) {
         final Context localizedContext = Utils.getLocalizedContext(mContext);
 
         // Special case: no ringtone has a title of "random" or "random_custom.
@@ -273,23 +618,68 @@ public final class RingtoneModel {
         }
 
         // Check the cache.
-        String title = mRingtoneTitles.get(uri);
-
-        if (title == null) {
-            // This is slow because a media player is created during Ringtone object creation.
-            final Ringtone ringtone = RingtoneManager.getRingtone(mContext, uri);
-            if (ringtone == null) {
-                LogUtils.e("No ringtone for uri: %s", uri);
-                return localizedContext.getString(R.string.unknown_ringtone_title);
-            }
+        synchronized (mRingtoneTitles) {
+            return mRingtoneTitles.get(uri);
+        }
+    }
 
-            // Cache the title for later use.
-            title = ringtone.getTitle(mContext);
+    /**
+     * Looks up the title of a ringtone that is not cached yet. This is slow because a media player
+     * is created during Ringtone object creation.
+     */
+    String loadRingtoneTitle(Uri uri) {
+        final Ringtone ringtone = RingtoneManager.getRingtone(mContext, uri);
+        if (ringtone == null) {
+            LogUtils.e("No ringtone for uri: %s", uri);
+            return Utils.getLocalizedContext(mContext).getString(R.string.unknown_ringtone_title);
+        }
+
+        // Cache the title for later use, including in later sessions.
+        final String title = ringtone.getTitle(mContext);
+        synchronized (mRingtoneTitles) {
             mRingtoneTitles.put(uri, title);
         }
+        RingtoneCacheDAO.putRingtoneTitles(mCachePrefs, getTitleLanguage(),
+                Collections.singletonMap(uri, title), false);
         return title;
     }
 
+    /**
+     * @return whether the ringtone with the {@code uri} was readable when it was last checked;
+     * {@code null} if it was never checked
+     */
+    Boolean getCachedRingtoneReadability(Uri uri) {
+        return RingtoneCacheDAO.isRingtoneReadable(mCachePrefs, uri);
+    }
+
+    /**
+     * Checks whether the ringtone with the {@code uri} is readable and remembers the result.
+     */
+    boolean loadRingtoneReadability(Uri uri) {
+        final boolean readable = RingtoneUtils.isRingtoneUriReadable(mContext, uri);
+        RingtoneCacheDAO.setRingtoneReadable(mCachePrefs, uri, readable);
+        return readable;
+    }
+
+    /**
+     * @return the system alarm ringtones, listed again only after the media store changed
+     */
+    List<Uri> getSystemRingtoneUris() {
+        return Arrays.asList(mSystemRingtoneUris.get());
+    }
+
+    String getRingtoneTitle(Uri uri) {
+        final String title = getCachedRingtoneTitle(uri);
+        return title != null ? title : loadRingtoneTitle(uri);
+    }
+
+    /**
+     * @return the language of the cached titles, such as "Default ringtone (Oxygen)"
+     */
+    private String getTitleLanguage() {
+        return Locale.getDefault().toLanguageTag();
+    }
+
     private List<CustomRingtone> getMutableCustomRingtones() {
         if (mCustomRingtones == null) {
             mCustomRingtones = CustomRingtoneDAO.getCustomRingtones(mPrefs);
@@ -309,6 +699,7 @@ public final class RingtoneModel {
     public void releaseResources() {
         try {
             mContext.getContentResolver().unregisterContentObserver(mSystemObserver);
+            mContext.getContentResolver().unregisterContentObserver(mMediaObserver);
         } catch (Exception e) {
             LogUtils.e("Failed to unregister ContentObserver", e);
         }
@@ -319,6 +710,19 @@ public final class RingtoneModel {
         }
     }
 
+    /**
+     * This listener is notified when shared preferences change. The local copies of the custom
+     * ringtones follow the local ringtone cache setting.
+     */
+    private final class PreferenceListener implements SharedPreferences.OnSharedPreferenceChangeListener {
+        @Override
+        public void onSharedPreferenceChanged(SharedPreferences prefs, String key) {
+            if (PreferencesKeys.KEY_LOCAL_RINGTONE_CACHE.equals(key)) {
+                updateLocalRingtoneCache();
+            }
+        }
+    }
+
     /**
      * This receiver is notified when system settings change. Cached information built on
      * those system settings must be cleared.
@@ -334,7 +738,83 @@ public final class RingtoneModel {
             super.onChange(selfChange);
 
             // Titles such as "Default ringtone (Oxygen)" are wrong after default ringtone changes.
-            mRingtoneTitles.clear();
+            synchronized (mRingtoneTitles) {
+                mRingtoneTitles.clear();
+                mRingtoneTitlesComplete = false;
+            }
+            RingtoneCacheDAO.clearRingtoneTitles(mCachePrefs);
+        }
+    }
+
+    /**
+     * This observer is notified when the media store changes. The list of system ringtones must be
+     * built again.
+     */
+    private final class MediaChangeObserver extends ContentObserver {
+
+        private MediaChangeObserver() {
+            super(new Handler(Looper.getMainLooper()));
+        }
+
+        @Override
+        public void onChange(boolean selfChange) {
+            super.onChange(selfChange);
+
+            mSystemRingtoneUris.invalidate();
+        }
+    }
+
+    /**
+     * A list of ringtone uris, loaded on first use and kept until it is invalidated.
+     * <p>
+     * The list may be used from any thread. It is loaded without holding the lock, so that
+     * invalidating it never waits for a load; a list loaded while it was invalidated is discarded.
+     */
+    private abstract static class RingtoneUriCache {
+
+        private Uri[] mUris;
+
+        /**
+         * Incremented each time the list is invalidated.
+         */
+        private int mGeneration;
+
+        abstract Uri[] load();
+
+        /**
+         * @return a randomly selected uri of the list; {@code null} if the list is empty
+         */
+        Uri pickRandom() {
+            final Uri[] uris = get();
+            return uris.length == 0 ? null : uris[ThreadLocalRandom.current().nextInt(uris.length)];
+        }
+
+        /**
+         * @return the uris of the list, loaded if the list was invalidated
+         */
+        Uri[] get() {
+            Uri[] uris;
+            final int generation;
+            synchronized (this) {
+                uris = mUris;
+                generation = mGeneration;
+            }
+
+            if (uris == null) {
+                uris = load();
+                synchronized (this) {
+                    if (generation == mGeneration) {
+                        mUris = uris;
+                    }
+                }
+            }
+
+            return uris;
+        }
+
+        synchronized void invalidate() {
+            mUris = null;
+            mGeneration++;
         }
     }
 
@@ -345,7 +825,11 @@ public final class RingtoneModel {
         @Override
         public void onReceive(Context context, Intent intent) {
             // Titles such as "Default ringtone (Oxygen)" are wrong after locale changes.
-            mRingtoneTitles.clear();
+            synchronized (mRingtoneTitles) {
+                mRingtoneTitles.clear();
+                mRingtoneTitlesComplete = false;
+            }
+            RingtoneCacheDAO.clearRingtoneTitles(mCachePrefs);
         }
     }
 }
@@ -0,0 +1,319 @@
+// SPDX-License-Identifier: GPL-3.0-only
+
+package com.best.deskclock.data;
+
+import static com.best.deskclock.DeskClockApplication.getDefaultSharedPreferences;
+import static com.best.deskclock.settings.PreferencesKeys.*;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.SharedPreferences.OnSharedPreferenceChangeListener;
+
+import com.best.deskclock.data.DataModel.PowerButtonBehavior;
+import com.best.deskclock.data.DataModel.VolumeButtonBehavior;
+
+/**
+ * An immutable snapshot of the settings read while alarms are scheduled and fired.
+ * <p>
+ * The values are parsed from the {@link SharedPreferences} once when the snapshot is built rather
+ * than on each read. A single preference listener keeps the snapshot up to date: each change
+ * builds a new snapshot from the current one with the changed key read again, and publishes it
+ * through a volatile reference, so that the snapshot can be read from any thread without locking.
+ * A snapshot never changes once built; read it again with {@link #get} to see later changes.
+ */
+public final class Settings {
+
+    /**
+     * The current snapshot; {@code null} until the settings are first read.
+     */
+    private static volatile Settings sSettings;
+
+    /**
+     * Retain a hard reference to the shared preference observer to prevent it from being garbage
+     * collected. See {@link SharedPreferences#registerOnSharedPreferenceChangeListener} for detail.
+     */
+    @SuppressWarnings("FieldCanBeLocal")
+    private static OnSharedPreferenceChangeListener sPreferenceListener;
+
+    private final int mAlarmTimeout;
+
+    private final int mSnoozeLength;
+
+    private final long mAlarmVolumeCrescendoDuration;
+
+    private final int mAlarmNotificationReminderTime;
+
+    private final int mFlipAction;
+
+    private final int mShakeAction;
+
+    private final int mShakeIntensity;
+
+    private final VolumeButtonBehavior mAlarmVolumeButtonBehavior;
+
+    private final PowerButtonBehavior mAlarmPowerButtonBehavior;
+
+    private final Weekdays.Order mWeekdayOrder;
+
+    private final boolean mSwipeActionEnabled;
+
+    private final boolean mSnoozedOrDismissedAlarmVibrationsEnabled;
+
+    private final boolean mBackFlashForTriggeredAlarm;
+
+    private Settings(Builder builder) {
+        mAlarmTimeout = builder.mAlarmTimeout;
+        mSnoozeLength = builder.mSnoozeLength;
+        mAlarmVolumeCrescendoDuration = builder.mAlarmVolumeCrescendoDuration;
+        mAlarmNotificationReminderTime = builder.mAlarmNotificationReminderTime;
+        mFlipAction = builder.mFlipAction;
+        mShakeAction = builder.mShakeAction;
+        mShakeIntensity = builder.mShakeIntensity;
+        mAlarmVolumeButtonBehavior = builder.mAlarmVolumeButtonBehavior;
+        mAlarmPowerButtonBehavior = builder.mAlarmPowerButtonBehavior;
+        mWeekdayOrder = builder.mWeekdayOrder;
+        mSwipeActionEnabled = builder.mSwipeActionEnabled;
+        mSnoozedOrDismissedAlarmVibrationsEnabled = builder.mSnoozedOrDismissedAlarmVibrationsEnabled;
+        mBackFlashForTriggeredAlarm = builder.mBackFlashForTriggeredAlarm;
+    }
+
+    /**
+     * @return the current snapshot of the settings
+     */
+    public static Settings get(Context context) {
+        Settings settings = sSettings;
+        if (settings == null) {
+            synchronized (Settings.class) {
+                settings = sSettings;
+                if (settings == null) {
+                    final SharedPreferences prefs = getDefaultSharedPreferences(context);
+                    sPreferenceListener = new PreferenceListener();
+                    prefs.registerOnSharedPreferenceChangeListener(sPreferenceListener);
+                    settings = new Builder(prefs).build();
+                    sSettings = settings;
+                }
+            }
+        }
+        return settings;
+    }
+
+    /**
+     * @return the number of minutes an alarm may ring before it has timed out and becomes missed
+     */
+    public int getAlarmTimeout() {
+        return mAlarmTimeout;
+    }
+
+    /**
+     * @return the number of minutes an alarm will remain snoozed before it rings again
+     */
+    public int getSnoozeLength() {
+        return mSnoozeLength;
+    }
+
+    /**
+     * @return the duration, in milliseconds, of the crescendo to apply to alarm ringtone playback;
+     * {@code 0} implies no crescendo should be applied.
+     */
+    public long getAlarmVolumeCrescendoDuration() {
+        return mAlarmVolumeCrescendoDuration;
+    }
+
+    /**
+     * @return the number of minutes before the upcoming alarm notification appears
+     */
+    public int getAlarmNotificationReminderTime() {
+        return mAlarmNotificationReminderTime;
+    }
+
+    /**
+     * @return the action to be performed after flipping the device.
+     */
+    public int getFlipAction() {
+        return mFlipAction;
+    }
+
+    /**
+     * @return the action to be performed after shaking the device.
+     */
+    public int getShakeAction() {
+        return mShakeAction;
+    }
+
+    /**
+     * @return the shake intensity value.
+     */
+    public int getShakeIntensity() {
+        return mShakeIntensity;
+    }
+
+    /**
+     * @return the behavior to execute when volume button is pressed while firing an alarm
+     */
+    public VolumeButtonBehavior getAlarmVolumeButtonBehavior() {
+        return mAlarmVolumeButtonBehavior;
+    }
+
+    /**
+     * @return the behavior to execute when power button is pressed while firing an alarm
+     */
+    public PowerButtonBehavior getAlarmPowerButtonBehavior() {
+        return mAlarmPowerButtonBehavior;
+    }
+
+    /**
+     * @return the display order of the weekdays
+     */
+    public Weekdays.Order getWeekdayOrder() {
+        return mWeekdayOrder;
+    }
+
+    /**
+     * @return {@code true} if swipe action is enabled to dismiss or snooze alarms. {@code false} otherwise.
+     */
+    public boolean isSwipeActionEnabled() {
+        return mSwipeActionEnabled;
+    }
+
+    /**
+     * @return {@code true} if vibrations are enabled to indicate whether the alarm is snoozed or dismissed.
+     * {@code false} otherwise.
+     */
+    public boolean areSnoozedOrDismissedAlarmVibrationsEnabled() {
+        return mSnoozedOrDismissedAlarmVibrationsEnabled;
+    }
+
+    /**
+     * @return {@code true} if the back flash should turn on when the alarm is triggered.
+     * {@code false} otherwise.
+     */
+    public boolean shouldTurnOnBackFlashForTriggeredAlarm() {
+        return mBackFlashForTriggeredAlarm;
+    }
+
+    /**
+     * Collects the values of a new snapshot, either from scratch or from the current snapshot.
+     */
+    private static final class Builder {
+
+        private int mAlarmTimeout;
+
+        private int mSnoozeLength;
+
+        private long mAlarmVolumeCrescendoDuration;
+
+        private int mAlarmNotificationReminderTime;
+
+        private int mFlipAction;
+
+        private int mShakeAction;
+
+        private int mShakeIntensity;
+
+        private VolumeButtonBehavior mAlarmVolumeButtonBehavior;
+
+        private PowerButtonBehavior mAlarmPowerButtonBehavior;
+
+        private Weekdays.Order mWeekdayOrder;
+
+        private boolean mSwipeActionEnabled;
+
+        private boolean mSnoozedOrDismissedAlarmVibrationsEnabled;
+
+        private boolean mBackFlashForTriggeredAlarm;
+
+        /**
+         * Reads all the settings.
+         */
+        Builder(SharedPreferences prefs) {
+            mAlarmTimeout = SettingsDAO.getAlarmTimeout(prefs);
+            mSnoozeLength = SettingsDAO.getSnoozeLength(prefs);
+            mAlarmVolumeCrescendoDuration = SettingsDAO.getAlarmVolumeCrescendoDuration(prefs);
+            mAlarmNotificationReminderTime = SettingsDAO.getAlarmNotificationReminderTime(prefs);
+            mFlipAction = SettingsDAO.getFlipAction(prefs);
+            mShakeAction = SettingsDAO.getShakeAction(prefs);
+            mShakeIntensity = SettingsDAO.getShakeIntensity(prefs);
+            mAlarmVolumeButtonBehavior = SettingsDAO.getAlarmVolumeButtonBehavior(prefs);
+            mAlarmPowerButtonBehavior = SettingsDAO.getAlarmPowerButtonBehavior(prefs);
+            mWeekdayOrder = SettingsDAO.getWeekdayOrder(prefs);
+            mSwipeActionEnabled = SettingsDAO.isSwipeActionEnabled(prefs);
+            mSnoozedOrDismissedAlarmVibrationsEnabled =
+                    SettingsDAO.areSnoozedOrDismissedAlarmVibrationsEnabled(prefs);
+            mBackFlashForTriggeredAlarm = SettingsDAO.shouldTurnOnBackFlashForTriggeredAlarm(prefs);
+        }
+
+        /**
+         * Starts from the values of the given snapshot.
+         */
+        Builder(Settings settings) {
+            mAlarmTimeout = settings.mAlarmTimeout;
+            mSnoozeLength = settings.mSnoozeLength;
+            mAlarmVolumeCrescendoDuration = settings.mAlarmVolumeCrescendoDuration;
+            mAlarmNotificationReminderTime = settings.mAlarmNotificationReminderTime;
+            mFlipAction = settings.mFlipAction;
+            mShakeAction = settings.mShakeAction;
+            mShakeIntensity = settings.mShakeIntensity;
+            mAlarmVolumeButtonBehavior = settings.mAlarmVolumeButtonBehavior;
+            mAlarmPowerButtonBehavior = settings.mAlarmPowerButtonBehavior;
+            mWeekdayOrder = settings.mWeekdayOrder;
+            mSwipeActionEnabled = settings.mSwipeActionEnabled;
+            mSnoozedOrDismissedAlarmVibrationsEnabled = settings.mSnoozedOrDismissedAlarmVibrationsEnabled;
+            mBackFlashForTriggeredAlarm = settings.mBackFlashForTriggeredAlarm;
+        }
+
+        /**
+         * Reads the given key again into the snapshot being built.
+         *
+         * @return {@code true} if the key is part of the snapshot; {@code false} otherwise
+         */
+        boolean update(SharedPreferences prefs, String key) {
+            switch (key) {
+                case KEY_AUTO_SILENCE -> mAlarmTimeout = SettingsDAO.getAlarmTimeout(prefs);
+                case KEY_ALARM_SNOOZE_DURATION -> mSnoozeLength = SettingsDAO.getSnoozeLength(prefs);
+                case KEY_ALARM_VOLUME_CRESCENDO_DURATION ->
+                        mAlarmVolumeCrescendoDuration = SettingsDAO.getAlarmVolumeCrescendoDuration(prefs);
+                case KEY_ALARM_NOTIFICATION_REMINDER_TIME ->
+                        mAlarmNotificationReminderTime = SettingsDAO.getAlarmNotificationReminderTime(prefs);
+                case KEY_FLIP_ACTION -> mFlipAction = SettingsDAO.getFlipAction(prefs);
+                case KEY_SHAKE_ACTION -> mShakeAction = SettingsDAO.getShakeAction(prefs);
+                case KEY_SHAKE_INTENSITY -> mShakeIntensity = SettingsDAO.getShakeIntensity(prefs);
+                case KEY_VOLUME_BUTTONS ->
+                        mAlarmVolumeButtonBehavior = SettingsDAO.getAlarmVolumeButtonBehavior(prefs);
+                case KEY_POWER_BUTTON ->
+                        mAlarmPowerButtonBehavior = SettingsDAO.getAlarmPowerButtonBehavior(prefs);
+                case KEY_WEEK_START -> mWeekdayOrder = SettingsDAO.getWeekdayOrder(prefs);
+                case KEY_SWIPE_ACTION -> mSwipeActionEnabled = SettingsDAO.isSwipeActionEnabled(prefs);
+                case KEY_ENABLE_SNOOZED_OR_DISMISSED_ALARM_VIBRATIONS -> mSnoozedOrDismissedAlarmVibrationsEnabled =
+                        SettingsDAO.areSnoozedOrDismissedAlarmVibrationsEnabled(prefs);
+                case KEY_TURN_ON_BACK_FLASH_FOR_TRIGGERED_ALARM ->
+                        mBackFlashForTriggeredAlarm = SettingsDAO.shouldTurnOnBackFlashForTriggeredAlarm(prefs);
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Settings build() {
+            return new Settings(this);
+        }
+    }
+
+    private static final class PreferenceListener implements OnSharedPreferenceChangeListener {
+        @Override
+        public void onSharedPreferenceChanged(SharedPreferences prefs, String key) {
+            synchronized (Settings.class) {
+                if (key == null) {
+                    // The preferences were cleared.
+                    sSettings = new Builder(prefs).build();
+                    return;
+                }
+
+                final Builder builder = new Builder(sSettings);
+                if (builder.update(prefs, key)) {
+                    sSettings = builder.build();
+                }
+            }
+        }
+    }
+}
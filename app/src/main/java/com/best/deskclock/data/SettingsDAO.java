@@ -555,6 +555,15 @@ public final class SettingsDAO {
         return prefs.getBoolean(KEY_ADVANCED_AUDIO_PLAYBACK, DEFAULT_ADVANCED_AUDIO_PLAYBACK);
     }
 
+    /**
+     * @return {@code true} if the custom ringtones read through a content provider should be
+     * copied to the device protected storage. {@code false} otherwise.
+     */
+    public static boolean isLocalRingtoneCacheEnabled(SharedPreferences prefs) {
+        // Default value must match the one in res/xml/settings_alarm.xml
+        return prefs.getBoolean(KEY_LOCAL_RINGTONE_CACHE, DEFAULT_LOCAL_RINGTONE_CACHE);
+    }
+
     /**
      * @return {@code true} if the ringtone should be automatically routed to Bluetooth devices.
      * {@code false} otherwise.
@@ -48,6 +48,20 @@ final class SilentSettingsModel {
      */
     private static final Uri VOLUME_URI = Uri.withAppendedPath(CONTENT_URI, "volume_alarm_speaker");
 
+    /**
+     * Flags identifying the settings that must be inspected again.
+     */
+    private static final int DO_NOT_DISTURB_SETTING = 1;
+    private static final int VOLUME_SETTING = 1 << 1;
+    private static final int RINGTONE_SETTING = 1 << 2;
+    private static final int ALL_SETTINGS = DO_NOT_DISTURB_SETTING | VOLUME_SETTING | RINGTONE_SETTING;
+
+    /**
+     * The delay used to coalesce bursts of setting changes (e.g. while dragging a volume slider)
+     * into a single check.
+     */
+    private static final long CHECK_DELAY = 250;
+
     private final Context mContext;
 
     /**
@@ -71,9 +85,31 @@ final class SilentSettingsModel {
     private final List<OnSilentSettingsListener> mListeners = new ArrayList<>(1);
 
     /**
-     * The background task that checks the device system settings that influence alarm firing.
+     * Checks the device system settings that influence alarm firing in the background.
+     */
+    private final SilenceSettingsChecker mChecker = new SilenceSettingsChecker();
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Runs a check once the changes of the settings have settled.
+     */
+    private final Runnable mCheckRunnable = this::checkSilentSettings;
+
+    /**
+     * The settings that changed since they were last inspected.
+     */
+    private int mChangedSettings = ALL_SETTINGS;
+
+    /**
+     * {@code true} while a check runs in the background.
+     */
+    private boolean mCheckInFlight;
+
+    /**
+     * {@code true} if settings changed while a check was running in the background.
      */
-    private CheckSilenceSettingsTask mCheckSilenceSettingsTask;
+    private boolean mCheckPending;
 
     SilentSettingsModel(Context context, NotificationModel notificationModel) {
         mContext = context;
@@ -84,9 +120,9 @@ final class SilentSettingsModel {
 
         // Watch for changes to the settings that may silence alarms.
         final ContentResolver cr = context.getContentResolver();
-        final ContentObserver contentChangeWatcher = new ContentChangeWatcher();
-        cr.registerContentObserver(VOLUME_URI, false, contentChangeWatcher);
-        cr.registerContentObserver(DEFAULT_ALARM_ALERT_URI, false, contentChangeWatcher);
+        cr.registerContentObserver(VOLUME_URI, false, new ContentChangeWatcher(VOLUME_SETTING));
+        cr.registerContentObserver(DEFAULT_ALARM_ALERT_URI, false,
+                new ContentChangeWatcher(RINGTONE_SETTING));
         final IntentFilter filter = new IntentFilter(ACTION_INTERRUPTION_FILTER_CHANGED);
         if (SdkUtils.isAtLeastAndroid13()) {
             context.registerReceiver(new DoNotDisturbChangeReceiver(), filter, Context.RECEIVER_NOT_EXPORTED);
@@ -104,25 +140,67 @@ final class SilentSettingsModel {
     }
 
     /**
-     * If the app is in the foreground, start a task to determine if any device setting will block
-     * alarms from firing. If the app is in the background, clear any results from the last time
-     * those settings were inspected.
+     * If the app is in the foreground, determine in the background if any device setting will
+     * block alarms from firing. If the app is in the background, clear any results from the last
+     * time those settings were inspected.
+     * <p>
+     * The do not disturb and volume settings are cheap to read and may change without a
+     * notification, so they are always inspected again; only the expensive lookup of the default
+     * alarm ringtone is skipped unless it changed.
      */
     void updateSilentState() {
-        // Cancel any task in flight, the result is no longer relevant.
-        if (mCheckSilenceSettingsTask != null) {
-            mCheckSilenceSettingsTask.cancel();
-            mCheckSilenceSettingsTask = null;
-        }
+        mHandler.removeCallbacks(mCheckRunnable);
 
         if (mNotificationModel.isApplicationInForeground()) {
-            mCheckSilenceSettingsTask = new CheckSilenceSettingsTask();
-            mCheckSilenceSettingsTask.execute();
+            mChangedSettings |= DO_NOT_DISTURB_SETTING | VOLUME_SETTING;
+            checkSilentSettings();
         } else {
+            mCheckPending = false;
             setSilentState(null);
         }
     }
 
+    /**
+     * Records that the given settings changed and schedules a check of the silent state once
+     * the changes have settled.
+     *
+     * @param settings flags identifying the settings that changed
+     */
+    private void onSettingsChanged(int settings) {
+        mChangedSettings |= settings;
+
+        if (mNotificationModel.isApplicationInForeground()) {
+            mHandler.removeCallbacks(mCheckRunnable);
+            mHandler.postDelayed(mCheckRunnable, CHECK_DELAY);
+        }
+    }
+
+    /**
+     * Inspects the changed settings in the background and reports the silent state on the main
+     * thread. If a check is already running, another one is started when it completes.
+     */
+    private void checkSilentSettings() {
+        if (mCheckInFlight) {
+            mCheckPending = true;
+            return;
+        }
+
+        final int changedSettings = mChangedSettings;
+        mChangedSettings = 0;
+        mCheckInFlight = true;
+
+        mChecker.check(changedSettings, silentSetting -> {
+            mCheckInFlight = false;
+
+            if (mCheckPending) {
+                mCheckPending = false;
+                checkSilentSettings();
+            } else if (mNotificationModel.isApplicationInForeground()) {
+                setSilentState(silentSetting);
+            }
+        });
+    }
+
     /**
      * @param silentSetting the latest notion of which setting is suppressing alarms; {@code null}
      *                      if no settings are suppressing alarms
@@ -134,40 +212,56 @@ final class SilentSettingsModel {
     }
 
     /**
-     * This task inspects a variety of system settings that can prevent alarms from firing or the
-     * associated ringtone from playing. If any of them would prevent an alarm from firing or
-     * making noise, a description of the setting is reported to this model on the main thread.
+     * Receives the result of a check on the main thread.
      */
-    private final class CheckSilenceSettingsTask {
-        final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
-        final Handler mHandler = new Handler(Looper.getMainLooper());
+    private interface CheckCallback {
+        void onChecked(SilentSetting silentSetting);
+    }
+
+    /**
+     * Inspects a variety of system settings that can prevent alarms from firing or the associated
+     * ringtone from playing, on a single background thread that lives as long as this model.
+     * The state of each setting is cached so that only the settings that changed are queried.
+     */
+    private final class SilenceSettingsChecker {
+        private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+
+        // The cached states are only accessed from the executor thread.
+        private boolean mDoNotDisturbBlockingAlarms;
+        private boolean mAlarmStreamMuted;
+        private boolean mSystemAlarmRingtoneSilent;
 
-        private void execute() {
+        /**
+         * @param changedSettings flags identifying the settings to query again
+         * @param callback        receives the setting suppressing alarms, or {@code null}
+         */
+        private void check(int changedSettings, CheckCallback callback) {
             mExecutor.execute(() -> {
+                if ((changedSettings & DO_NOT_DISTURB_SETTING) != 0) {
+                    mDoNotDisturbBlockingAlarms = isDoNotDisturbBlockingAlarms();
+                }
+                if ((changedSettings & VOLUME_SETTING) != 0) {
+                    mAlarmStreamMuted = isAlarmStreamMuted();
+                }
+                if ((changedSettings & RINGTONE_SETTING) != 0) {
+                    mSystemAlarmRingtoneSilent = isSystemAlarmRingtoneSilent();
+                }
+
                 final SilentSetting silentSetting;
-                if (isDoNotDisturbBlockingAlarms()) {
+                if (mDoNotDisturbBlockingAlarms) {
                     silentSetting = SilentSetting.DO_NOT_DISTURB;
-                } else if (isAlarmStreamMuted()) {
+                } else if (mAlarmStreamMuted) {
                     silentSetting = SilentSetting.MUTED_VOLUME;
-                } else if (isSystemAlarmRingtoneSilent()) {
+                } else if (mSystemAlarmRingtoneSilent) {
                     silentSetting = SilentSetting.SILENT_RINGTONE;
                 } else {
                     silentSetting = null;
                 }
 
-                mHandler.post(() -> {
-                    if (mCheckSilenceSettingsTask == this) {
-                        mCheckSilenceSettingsTask = null;
-                        setSilentState(silentSetting);
-                    }
-                });
+                mHandler.post(() -> callback.onChecked(silentSetting));
             });
         }
 
-        private void cancel() {
-            mExecutor.shutdownNow();
-        }
-
         private boolean isDoNotDisturbBlockingAlarms() {
             try {
                 final int interruptionFilter = mNotificationManager.getCurrentInterruptionFilter();
@@ -201,13 +295,16 @@ final class SilentSettingsModel {
      * Observe changes to specific URI for settings that can silence firing alarms.
      */
     private final class ContentChangeWatcher extends ContentObserver {
-        private ContentChangeWatcher() {
+        private final int mSetting;
+
+        private ContentChangeWatcher(int setting) {
             super(new Handler(Looper.getMainLooper()));
+            mSetting = setting;
         }
 
         @Override
         public void onChange(boolean selfChange) {
-            updateSilentState();
+            onSettingsChanged(mSetting);
         }
     }
 
@@ -217,7 +314,7 @@ final class SilentSettingsModel {
     private final class DoNotDisturbChangeReceiver extends BroadcastReceiver {
         @Override
         public void onReceive(Context context, Intent intent) {
-            updateSilentState();
+            onSettingsChanged(DO_NOT_DISTURB_SETTING);
         }
     }
 }
@@ -6,8 +6,9 @@
 
 package com.best.deskclock.data;
 
+import static com.best.deskclock.utils.NotificationUtils.STOPWATCH_NOTIFICATION_CHANNEL_ID;
+
 import android.Manifest;
-import android.app.Notification;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
@@ -17,7 +18,6 @@ import android.content.pm.PackageManager;
 
 import androidx.annotation.VisibleForTesting;
 import androidx.core.app.ActivityCompat;
-import androidx.core.app.NotificationManagerCompat;
 
 import com.best.deskclock.utils.SdkUtils;
 
@@ -39,11 +39,6 @@ final class StopwatchModel {
      */
     private final NotificationModel mNotificationModel;
 
-    /**
-     * Used to create and destroy system notifications related to the stopwatch.
-     */
-    private final NotificationManagerCompat mNotificationManager;
-
     /**
      * Update stopwatch notification when locale changes.
      */
@@ -61,6 +56,11 @@ final class StopwatchModel {
     private final StopwatchNotificationBuilder mNotificationBuilder =
             new StopwatchNotificationBuilder();
 
+    /**
+     * Posts the stopwatch notification only when its content changes.
+     */
+    private final NotificationPoster mNotificationPoster;
+
     /**
      * The current state of the stopwatch.
      */
@@ -71,11 +71,16 @@ final class StopwatchModel {
      */
     private List<Lap> mLaps;
 
+    /**
+     * The running statistics of the recorded stopwatch laps.
+     */
+    private LapStats mLapStats;
+
     StopwatchModel(Context context, SharedPreferences prefs, NotificationModel notificationModel) {
         mContext = context;
         mPrefs = prefs;
         mNotificationModel = notificationModel;
-        mNotificationManager = NotificationManagerCompat.from(context);
+        mNotificationPoster = new NotificationPoster(context);
 
         // Update stopwatch notification when locale changes.
         final IntentFilter localeBroadcastFilter = new IntentFilter(Intent.ACTION_LOCALE_CHANGED);
@@ -154,15 +159,16 @@ final class StopwatchModel {
 
         final long totalTime = getStopwatch().getTotalTime();
         final List<Lap> laps = getMutableLaps();
+        final LapStats lapStats = getLapStats();
 
         final int lapNumber = laps.size() + 1;
         StopwatchDAO.addLap(mPrefs, lapNumber, totalTime);
 
-        final long prevAccumulatedTime = laps.isEmpty() ? 0 : laps.get(0).getAccumulatedTime();
-        final long lapTime = totalTime - prevAccumulatedTime;
+        final long lapTime = totalTime - lapStats.getLastAccumulatedTime();
 
         final Lap lap = new Lap(lapNumber, lapTime, totalTime);
         laps.add(0, lap);
+        lapStats.add(lap);
 
         // Refresh the stopwatch notification to reflect the latest stopwatch state.
         if (!mNotificationModel.isApplicationInForeground()) {
@@ -179,35 +185,46 @@ final class StopwatchModel {
     void clearLaps() {
         StopwatchDAO.clearLaps(mPrefs);
         getMutableLaps().clear();
+        getLapStats().clear();
+    }
+
+    /**
+     * @return the running statistics of the recorded laps
+     */
+    LapStats getLapStats() {
+        if (mLapStats == null) {
+            mLapStats = new LapStats();
+
+            // Laps are stored from newest to oldest.
+            final List<Lap> laps = getMutableLaps();
+            for (int i = laps.size() - 1; i >= 0; i--) {
+                mLapStats.add(laps.get(i));
+            }
+        }
+
+        return mLapStats;
     }
 
     /**
      * @return {@code true} iff more laps can be recorded
      */
     boolean canAddMoreLaps() {
-        return getLaps().size() < 98;
+        return getLapStats().getCount() < 98;
     }
 
     /**
      * @return the longest lap time of all recorded laps and the current lap
      */
     long getLongestLapTime() {
-        long maxLapTime = 0;
-
-        final List<Lap> laps = getLaps();
-        if (!laps.isEmpty()) {
-            // Compute the maximum lap time across all recorded laps.
-            for (Lap lap : getLaps()) {
-                maxLapTime = Math.max(maxLapTime, lap.getLapTime());
-            }
-
-            // Compare with the maximum lap time for the current lap.
-            final Stopwatch stopwatch = getStopwatch();
-            final long currentLapTime = stopwatch.getTotalTime() - laps.get(0).getAccumulatedTime();
-            maxLapTime = Math.max(maxLapTime, currentLapTime);
+        final LapStats lapStats = getLapStats();
+        if (lapStats.getCount() == 0) {
+            return 0;
         }
 
-        return maxLapTime;
+        // Compare the longest recorded lap with the current lap.
+        final Stopwatch stopwatch = getStopwatch();
+        final long currentLapTime = stopwatch.getTotalTime() - lapStats.getLastAccumulatedTime();
+        return Math.max(lapStats.getWorstLapTime(), currentLapTime);
     }
 
     /**
@@ -219,8 +236,7 @@ final class StopwatchModel {
      * negative elapsed times are normalized to {@code 0}
      */
     long getCurrentLapTime(long time) {
-        final Lap previousLap = getLaps().get(0);
-        final long currentLapTime = time - previousLap.getAccumulatedTime();
+        final long currentLapTime = time - getLapStats().getLastAccumulatedTime();
         return Math.max(0, currentLapTime);
     }
 
@@ -232,20 +248,21 @@ final class StopwatchModel {
 
         // Notification should be hidden if the stopwatch has no time or the app is open.
         if (stopwatch.isReset() || mNotificationModel.isApplicationInForeground()) {
-            mNotificationManager.cancel(mNotificationModel.getStopwatchNotificationId());
+            mNotificationPoster.cancel(mNotificationModel.getStopwatchNotificationId());
             return;
         }
 
-        // Otherwise build and post a notification reflecting the latest stopwatch state.
-        final Notification notification = mNotificationBuilder.build(mContext, mNotificationModel, stopwatch);
-
         if (ActivityCompat.checkSelfPermission(mContext, Manifest.permission.POST_NOTIFICATIONS)
                 != PackageManager.PERMISSION_GRANTED) {
             // Always false, because notification activation is always checked when the application is started.
             return;
         }
 
-        mNotificationManager.notify(mNotificationModel.getStopwatchNotificationId(), notification);
+        // Otherwise post a notification reflecting the latest stopwatch state.
+        mNotificationPoster.post(STOPWATCH_NOTIFICATION_CHANNEL_ID,
+                mNotificationModel.getStopwatchNotificationId(),
+                StopwatchNotificationBuilder.getContentKey(stopwatch, getLapStats().getCount()),
+                () -> mNotificationBuilder.build(mContext, mNotificationModel, stopwatch));
     }
 
     private List<Lap> getMutableLaps() {
@@ -262,6 +279,8 @@ final class StopwatchModel {
     private final class LocaleChangedReceiver extends BroadcastReceiver {
         @Override
         public void onReceive(Context context, Intent intent) {
+            mNotificationBuilder.releaseBuilder();
+            mNotificationPoster.invalidate();
             updateNotification();
         }
     }
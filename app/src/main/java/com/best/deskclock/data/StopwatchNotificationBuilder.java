@@ -6,6 +6,7 @@
 
 package com.best.deskclock.data;
 
+import static android.text.format.DateUtils.SECOND_IN_MILLIS;
 import static android.view.View.GONE;
 import static android.view.View.VISIBLE;
 import static com.best.deskclock.utils.NotificationUtils.STOPWATCH_NOTIFICATION_CHANNEL_ID;
@@ -34,22 +35,32 @@ import com.best.deskclock.utils.Utils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Builds notification to reflect the latest state of the stopwatch and recorded laps.
  */
 class StopwatchNotificationBuilder {
 
+    /**
+     * The notification builder kept across updates so that only the fields that depend on the
+     * stopwatch state are replaced.
+     */
+    private Builder mBuilder;
+
+    /**
+     * @param stopwatch the stopwatch displayed by the notification
+     * @param lapCount  the number of recorded laps
+     * @return a value that describes everything visible in the notification built for the stopwatch
+     */
+    static Object getContentKey(Stopwatch stopwatch, int lapCount) {
+        return new StopwatchContent(stopwatch.getState(), stopwatch.getLastStartTime(),
+                stopwatch.getAccumulatedTime(), lapCount);
+    }
+
     public Notification build(Context context, NotificationModel nm, Stopwatch stopwatch) {
         @StringRes final int eventLabel = R.string.label_notification;
 
-        // Intent to load the app when the notification is tapped.
-        final Intent showApp = new Intent(context, DeskClock.class)
-                .setAction(StopwatchService.ACTION_SHOW_STOPWATCH)
-                .putExtra(Events.EXTRA_EVENT_LABEL, eventLabel);
-
-        final PendingIntent pendingShowApp = Utils.pendingActivityIntent(context, showApp);
-
         // Compute some values required below.
         final boolean running = stopwatch.isRunning();
         final long base = SystemClock.elapsedRealtime() - stopwatch.getTotalTime();
@@ -83,11 +94,21 @@ class StopwatchNotificationBuilder {
                 actions.add(new Action.Builder(icon2, title2, intent2).build());
             }
 
-            // Show the current lap number if any laps have been recorded.
-            final int lapCount = DataModel.getDataModel().getLaps().size();
+            // Show the current lap number if any laps have been recorded, along with the pace of
+            // the last lap once it can be compared with the one before it.
+            final LapStats lapStats = DataModel.getDataModel().getLapStats();
+            final int lapCount = lapStats.getCount();
             if (lapCount > 0) {
                 final int lapNumber = lapCount + 1;
-                final String lap = context.getString(R.string.sw_notification_lap_number, lapNumber);
+                final String lap;
+                if (lapCount > 1) {
+                    final String paceDelta = String.format(Locale.getDefault(), "%+.2f",
+                            lapStats.getPaceDelta() / (float) SECOND_IN_MILLIS);
+                    lap = context.getString(R.string.sw_notification_lap_number_with_pace, lapNumber,
+                            paceDelta);
+                } else {
+                    lap = context.getString(R.string.sw_notification_lap_number, lapNumber);
+                }
                 content.setTextViewText(R.id.state, lap);
                 content.setViewVisibility(R.id.state, VISIBLE);
             } else {
@@ -119,27 +140,55 @@ class StopwatchNotificationBuilder {
             content.setViewVisibility(R.id.state, VISIBLE);
         }
 
-        final Builder notification = new Builder(context, STOPWATCH_NOTIFICATION_CHANNEL_ID)
-                .setLocalOnly(true)
+        if (mBuilder == null) {
+            // Intent to load the app when the notification is tapped.
+            final Intent showApp = new Intent(context, DeskClock.class)
+                    .setAction(StopwatchService.ACTION_SHOW_STOPWATCH)
+                    .putExtra(Events.EXTRA_EVENT_LABEL, eventLabel);
+
+            final PendingIntent pendingShowApp = Utils.pendingActivityIntent(context, showApp);
+
+            mBuilder = new Builder(context, STOPWATCH_NOTIFICATION_CHANNEL_ID)
+                    .setLocalOnly(true)
+                    .setContentIntent(pendingShowApp)
+                    .setPriority(SdkUtils.isAtLeastAndroid7()
+                            ? NotificationManager.IMPORTANCE_LOW
+                            : Notification.PRIORITY_LOW)
+                    .setSmallIcon(R.drawable.ic_tab_stopwatch_static)
+                    .setStyle(new NotificationCompat.DecoratedCustomViewStyle())
+                    .setColor(context.getColor(R.color.md_theme_primary))
+                    .setGroup(nm.getStopwatchNotificationGroupKey());
+
+            if (SdkUtils.isAtLeastAndroid8()) {
+                NotificationUtils.createChannel(context, STOPWATCH_NOTIFICATION_CHANNEL_ID);
+            }
+        }
+
+        // Only replace the fields that depend on the stopwatch state.
+        final Builder notification = mBuilder
                 .setOngoing(running)
                 .setCustomContentView(content)
-                .setContentIntent(pendingShowApp)
                 .setAutoCancel(stopwatch.isPaused())
-                .setPriority(SdkUtils.isAtLeastAndroid7()
-                        ? NotificationManager.IMPORTANCE_LOW
-                        : Notification.PRIORITY_LOW)
-                .setSmallIcon(R.drawable.ic_tab_stopwatch_static)
-                .setStyle(new NotificationCompat.DecoratedCustomViewStyle())
-                .setColor(context.getColor(R.color.md_theme_primary))
-                .setGroup(nm.getStopwatchNotificationGroupKey());
+                .clearActions();
 
         for (Action action : actions) {
             notification.addAction(action);
         }
 
-        if (SdkUtils.isAtLeastAndroid8()) {
-            NotificationUtils.createChannel(context, STOPWATCH_NOTIFICATION_CHANNEL_ID);
-        }
         return notification.build();
     }
+
+    /**
+     * Forgets the notification builder so it is recreated with up-to-date resources.
+     */
+    void releaseBuilder() {
+        mBuilder = null;
+    }
+
+    /**
+     * Describes the visible content of the stopwatch notification.
+     */
+    private record StopwatchContent(Stopwatch.State state, long lastStartTime,
+                                    long accumulatedTime, int lapCount) {
+    }
 }
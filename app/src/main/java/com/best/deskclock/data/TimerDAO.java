@@ -13,6 +13,7 @@ import android.content.SharedPreferences;
 import com.best.deskclock.data.Timer.State;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -79,6 +80,16 @@ public final class TimerDAO {
      */
     private static final String DELETE_AFTER_USE = "delete_after_use_";
 
+    /**
+     * Key to a preference that stores the set of timer group names.
+     */
+    private static final String TIMER_GROUPS = "timer_groups";
+
+    /**
+     * Prefix for a key to a preference that stores the set of timer ids belonging to a group.
+     */
+    private static final String TIMER_GROUP_IDS = "timer_group_ids_";
+
     private TimerDAO() {
     }
 
@@ -132,15 +143,7 @@ public final class TimerDAO {
         editor.putStringSet(TIMER_IDS, timerIds);
 
         // Record the fields of the timer.
-        editor.putInt(STATE + id, timer.getState().getValue());
-        editor.putLong(LENGTH + id, timer.getLength());
-        editor.putLong(TOTAL_LENGTH + id, timer.getTotalLength());
-        editor.putLong(LAST_START_TIME + id, timer.getLastStartTime());
-        editor.putLong(LAST_WALL_CLOCK_TIME + id, timer.getLastWallClockTime());
-        editor.putLong(REMAINING_TIME + id, timer.getRemainingTime());
-        editor.putString(LABEL + id, timer.getLabel());
-        editor.putString(BUTTON_TIME + id, timer.getButtonTime());
-        editor.putBoolean(DELETE_AFTER_USE + id, timer.getDeleteAfterUse());
+        putTimer(editor, id, timer);
 
         editor.apply();
 
@@ -154,19 +157,21 @@ public final class TimerDAO {
      * @param timer the timer to be updated
      */
     static void updateTimer(SharedPreferences prefs, Timer timer) {
+        updateTimers(prefs, Collections.singletonList(timer));
+    }
+
+    /**
+     * Records all given timers with a single commit to permanent storage.
+     *
+     * @param timers the timers to be updated
+     */
+    static void updateTimers(SharedPreferences prefs, Collection<Timer> timers) {
         final SharedPreferences.Editor editor = prefs.edit();
 
-        // Record the fields of the timer.
-        final int id = timer.getId();
-        editor.putInt(STATE + id, timer.getState().getValue());
-        editor.putLong(LENGTH + id, timer.getLength());
-        editor.putLong(TOTAL_LENGTH + id, timer.getTotalLength());
-        editor.putLong(LAST_START_TIME + id, timer.getLastStartTime());
-        editor.putLong(LAST_WALL_CLOCK_TIME + id, timer.getLastWallClockTime());
-        editor.putLong(REMAINING_TIME + id, timer.getRemainingTime());
-        editor.putString(LABEL + id, timer.getLabel());
-        editor.putString(BUTTON_TIME + id, timer.getButtonTime());
-        editor.putBoolean(DELETE_AFTER_USE + id, timer.getDeleteAfterUse());
+        // Record the fields of each timer.
+        for (Timer timer : timers) {
+            putTimer(editor, timer.getId(), timer);
+        }
 
         editor.apply();
     }
@@ -175,13 +180,40 @@ public final class TimerDAO {
      * @param timer the timer to be removed
      */
     static void removeTimer(SharedPreferences prefs, Timer timer) {
-        final SharedPreferences.Editor editor = prefs.edit();
+        removeTimers(prefs, Collections.singletonList(timer));
+    }
 
-        final int id = timer.getId();
+    /**
+     * Removes all given timers with a single commit to permanent storage. The timers are also
+     * removed from their groups, and the groups left empty are removed.
+     *
+     * @param timers the timers to be removed
+     */
+    static void removeTimers(SharedPreferences prefs, Collection<Timer> timers) {
+        final SharedPreferences.Editor editor = prefs.edit();
 
-        // Remove the timer id from the set of all timer ids.
         final Set<String> timerIds = new HashSet<>(getTimerIds(prefs));
-        timerIds.remove(String.valueOf(id));
+        final Set<String> removedIds = new HashSet<>(timers.size());
+
+        for (Timer timer : timers) {
+            final int id = timer.getId();
+
+            // Remove the timer id from the set of all timer ids.
+            timerIds.remove(String.valueOf(id));
+            removedIds.add(String.valueOf(id));
+
+            // Record the fields of the timer.
+            editor.remove(STATE + id);
+            editor.remove(LENGTH + id);
+            editor.remove(TOTAL_LENGTH + id);
+            editor.remove(LAST_START_TIME + id);
+            editor.remove(LAST_WALL_CLOCK_TIME + id);
+            editor.remove(REMAINING_TIME + id);
+            editor.remove(LABEL + id);
+            editor.remove(BUTTON_TIME + id);
+            editor.remove(DELETE_AFTER_USE + id);
+        }
+
         if (timerIds.isEmpty()) {
             editor.remove(TIMER_IDS);
             editor.remove(NEXT_TIMER_ID);
@@ -189,20 +221,103 @@ public final class TimerDAO {
             editor.putStringSet(TIMER_IDS, timerIds);
         }
 
-        // Record the fields of the timer.
-        editor.remove(STATE + id);
-        editor.remove(LENGTH + id);
-        editor.remove(TOTAL_LENGTH + id);
-        editor.remove(LAST_START_TIME + id);
-        editor.remove(LAST_WALL_CLOCK_TIME + id);
-        editor.remove(REMAINING_TIME + id);
-        editor.remove(LABEL + id);
-        editor.remove(BUTTON_TIME + id);
-        editor.remove(DELETE_AFTER_USE + id);
+        // Timer ids are reused once all timers are removed, so no group may keep a removed id.
+        final Set<String> names = getTimerGroupNames(prefs);
+        for (String name : new ArrayList<>(names)) {
+            final Set<String> ids = new HashSet<>(
+                    prefs.getStringSet(TIMER_GROUP_IDS + name, Collections.emptySet()));
+            if (ids.removeAll(removedIds)) {
+                if (ids.isEmpty()) {
+                    names.remove(name);
+                    editor.remove(TIMER_GROUP_IDS + name);
+                } else {
+                    editor.putStringSet(TIMER_GROUP_IDS + name, ids);
+                }
+            }
+        }
+        putTimerGroupNames(editor, names);
 
         editor.apply();
     }
 
+    /**
+     * @return the names of all timer groups
+     */
+    static Set<String> getTimerGroupNames(SharedPreferences prefs) {
+        return new HashSet<>(prefs.getStringSet(TIMER_GROUPS, Collections.emptySet()));
+    }
+
+    /**
+     * @param name the name of the timer group
+     * @return the ids of the timers belonging to the group; empty if the group does not exist
+     */
+    static Set<Integer> getTimerGroupIds(SharedPreferences prefs, String name) {
+        final Set<String> ids = prefs.getStringSet(TIMER_GROUP_IDS + name, Collections.emptySet());
+        final Set<Integer> timerIds = new HashSet<>(ids.size());
+        for (String id : ids) {
+            timerIds.add(Integer.parseInt(id));
+        }
+
+        return timerIds;
+    }
+
+    /**
+     * @param name   the name of the timer group to create or replace
+     * @param timers the existing timers belonging to the group; the group is removed if empty
+     */
+    static void setTimerGroup(SharedPreferences prefs, String name, Collection<Timer> timers) {
+        if (timers.isEmpty()) {
+            removeTimerGroup(prefs, name);
+            return;
+        }
+
+        final Set<String> names = getTimerGroupNames(prefs);
+        names.add(name);
+
+        final Set<String> ids = new HashSet<>(timers.size());
+        for (Timer timer : timers) {
+            ids.add(String.valueOf(timer.getId()));
+        }
+
+        prefs.edit()
+                .putStringSet(TIMER_GROUPS, names)
+                .putStringSet(TIMER_GROUP_IDS + name, ids)
+                .apply();
+    }
+
+    /**
+     * @param name the name of the timer group to remove
+     */
+    static void removeTimerGroup(SharedPreferences prefs, String name) {
+        final Set<String> names = getTimerGroupNames(prefs);
+        names.remove(name);
+
+        final SharedPreferences.Editor editor = prefs.edit();
+        putTimerGroupNames(editor, names);
+        editor.remove(TIMER_GROUP_IDS + name);
+        editor.apply();
+    }
+
+    private static void putTimerGroupNames(SharedPreferences.Editor editor, Set<String> names) {
+        if (names.isEmpty()) {
+            editor.remove(TIMER_GROUPS);
+        } else {
+            editor.putStringSet(TIMER_GROUPS, names);
+        }
+    }
+
+    private static void putTimer(SharedPreferences.Editor editor, int id, Timer timer) {
+        editor.putInt(STATE + id, timer.getState().getValue());
+        editor.putLong(LENGTH + id, timer.getLength());
+        editor.putLong(TOTAL_LENGTH + id, timer.getTotalLength());
+        editor.putLong(LAST_START_TIME + id, timer.getLastStartTime());
+        editor.putLong(LAST_WALL_CLOCK_TIME + id, timer.getLastWallClockTime());
+        editor.putLong(REMAINING_TIME + id, timer.getRemainingTime());
+        editor.putString(LABEL + id, timer.getLabel());
+        editor.putString(BUTTON_TIME + id, timer.getButtonTime());
+        editor.putBoolean(DELETE_AFTER_USE + id, timer.getDeleteAfterUse());
+    }
+
     private static Set<String> getTimerIds(SharedPreferences prefs) {
         return prefs.getStringSet(TIMER_IDS, Collections.emptySet());
     }
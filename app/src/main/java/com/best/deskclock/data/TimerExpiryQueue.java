@@ -0,0 +1,141 @@
+// SPDX-License-Identifier: GPL-3.0-only
+
+package com.best.deskclock.data;
+
+import android.util.SparseIntArray;
+
+import java.util.Arrays;
+
+/**
+ * An indexed min-heap of running {@link Timer timers} ordered by their expiration time.
+ * <p>
+ * Each timer is located through its id so that a single timer can be inserted, repositioned or
+ * removed in O(log n) without scanning every timer. The head of the queue is always the next
+ * timer to expire.
+ */
+final class TimerExpiryQueue {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * The heap of running timers; the timer expiring first is at index 0.
+     */
+    private Timer[] mHeap = new Timer[INITIAL_CAPACITY];
+
+    /**
+     * Maps a timer id to its index in {@link #mHeap}.
+     */
+    private final SparseIntArray mIndexes = new SparseIntArray();
+
+    private int mSize;
+
+    /**
+     * @return the running timer that will expire first; {@code null} if no timer is running
+     */
+    Timer peek() {
+        return mSize == 0 ? null : mHeap[0];
+    }
+
+    /**
+     * Inserts, repositions or removes the given {@code timer} depending on whether it is running.
+     *
+     * @param timer the latest state of a timer
+     */
+    void update(Timer timer) {
+        if (!timer.isRunning()) {
+            remove(timer.getId());
+            return;
+        }
+
+        final int index = mIndexes.get(timer.getId(), -1);
+        if (index == -1) {
+            if (mSize == mHeap.length) {
+                mHeap = Arrays.copyOf(mHeap, mSize * 2);
+            }
+            mHeap[mSize] = timer;
+            mIndexes.put(timer.getId(), mSize);
+            siftUp(mSize++);
+            return;
+        }
+
+        final long before = mHeap[index].getExpirationTime();
+        mHeap[index] = timer;
+        if (timer.getExpirationTime() < before) {
+            siftUp(index);
+        } else {
+            siftDown(index);
+        }
+    }
+
+    /**
+     * @param timerId identifies the timer to remove from the queue; ignored if absent
+     */
+    void remove(int timerId) {
+        final int index = mIndexes.get(timerId, -1);
+        if (index == -1) {
+            return;
+        }
+
+        mIndexes.delete(timerId);
+        final int last = --mSize;
+        final Timer moved = mHeap[last];
+        mHeap[last] = null;
+
+        if (index == last) {
+            return;
+        }
+
+        mHeap[index] = moved;
+        mIndexes.put(moved.getId(), index);
+        siftDown(index);
+        siftUp(index);
+    }
+
+    /**
+     * Discards all timers from the queue.
+     */
+    void clear() {
+        Arrays.fill(mHeap, 0, mSize, null);
+        mIndexes.clear();
+        mSize = 0;
+    }
+
+    private void siftUp(int index) {
+        final Timer timer = mHeap[index];
+        final long expirationTime = timer.getExpirationTime();
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            final Timer parentTimer = mHeap[parent];
+            if (parentTimer.getExpirationTime() <= expirationTime) {
+                break;
+            }
+            place(parentTimer, index);
+            index = parent;
+        }
+        place(timer, index);
+    }
+
+    private void siftDown(int index) {
+        final Timer timer = mHeap[index];
+        final long expirationTime = timer.getExpirationTime();
+        final int half = mSize >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            final int right = child + 1;
+            if (right < mSize && mHeap[right].getExpirationTime() < mHeap[child].getExpirationTime()) {
+                child = right;
+            }
+            if (expirationTime <= mHeap[child].getExpirationTime()) {
+                break;
+            }
+            place(mHeap[child], index);
+            index = child;
+        }
+        place(timer, index);
+    }
+
+    private void place(Timer timer, int index) {
+        mHeap[index] = timer;
+        mIndexes.put(timer.getId(), index);
+    }
+}
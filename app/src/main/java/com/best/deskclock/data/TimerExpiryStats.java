@@ -0,0 +1,72 @@
+// SPDX-License-Identifier: GPL-3.0-only
+
+package com.best.deskclock.data;
+
+import com.best.deskclock.utils.LogUtils;
+
+import java.util.Locale;
+
+/**
+ * Records how late timers actually expire compared to their scheduled expiration time.
+ * <p>
+ * The lateness of each expiry is counted in a fixed-bucket histogram which is written to the
+ * application logs, so it can be exported from the "About" screen along with the other logs.
+ */
+final class TimerExpiryStats {
+
+    /**
+     * The upper bounds (exclusive) in milliseconds of the histogram buckets; the last bucket
+     * counts every expiry later than the last bound.
+     */
+    private static final long[] BUCKET_BOUNDS = {10, 50, 100, 250, 500, 1000, 2000, 5000, 60000};
+
+    private final int[] mBuckets = new int[BUCKET_BOUNDS.length + 1];
+
+    private int mCount;
+
+    private long mTotalLateness;
+
+    private long mMaxLateness;
+
+    /**
+     * @param timer    the timer that expired
+     * @param lateness the delay in milliseconds between the scheduled and the observed expiry
+     */
+    void record(Timer timer, long lateness) {
+        lateness = Math.max(0, lateness);
+
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS.length && lateness >= BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+
+        mBuckets[bucket]++;
+        mCount++;
+        mTotalLateness += lateness;
+        mMaxLateness = Math.max(mMaxLateness, lateness);
+
+        LogUtils.i("Timer %d expired %d ms late; lateness histogram: %s",
+                timer.getId(), lateness, this);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        long lowerBound = 0;
+        for (int i = 0; i < mBuckets.length; i++) {
+            if (i < BUCKET_BOUNDS.length) {
+                builder.append(String.format(Locale.US, "[%d-%d ms): %d, ",
+                        lowerBound, BUCKET_BOUNDS[i], mBuckets[i]));
+                lowerBound = BUCKET_BOUNDS[i];
+            } else {
+                builder.append(String.format(Locale.US, "[%d+ ms): %d", lowerBound, mBuckets[i]));
+            }
+        }
+
+        final long mean = mCount == 0 ? 0 : mTotalLateness / mCount;
+        builder.append(String.format(Locale.US, "; count=%d, mean=%d ms, max=%d ms",
+                mCount, mean, mMaxLateness));
+
+        return builder.toString();
+    }
+}
@@ -6,6 +6,8 @@
 
 package com.best.deskclock.data;
 
+import java.util.List;
+
 /**
  * The interface through which interested parties are notified of changes to one of the timers.
  */
@@ -22,6 +24,18 @@ public interface TimerListener {
      */
     void timerUpdated(Timer before, Timer after);
 
+    /**
+     * Called once for a bulk operation that updated several timers at the same time.
+     *
+     * @param before the timer states before the update
+     * @param after  the timer states after the update, in the same order as {@code before}
+     */
+    default void timersUpdated(List<Timer> before, List<Timer> after) {
+        for (int i = 0; i < before.size(); i++) {
+            timerUpdated(before.get(i), after.get(i));
+        }
+    }
+
     /**
      * @param timer the timer that was removed
      */
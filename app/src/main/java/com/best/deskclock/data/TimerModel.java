@@ -8,10 +8,12 @@ package com.best.deskclock.data;
 
 import static android.app.AlarmManager.ELAPSED_REALTIME_WAKEUP;
 import static android.text.format.DateUtils.MINUTE_IN_MILLIS;
+import static android.text.format.DateUtils.SECOND_IN_MILLIS;
 
 import static com.best.deskclock.data.Timer.State.EXPIRED;
 import static com.best.deskclock.data.Timer.State.RESET;
 import static com.best.deskclock.settings.PreferencesKeys.KEY_TIMER_RINGTONE;
+import static com.best.deskclock.utils.NotificationUtils.TIMER_MODEL_NOTIFICATION_CHANNEL_ID;
 
 import android.Manifest;
 import android.annotation.SuppressLint;
@@ -30,6 +32,7 @@ import android.net.Uri;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.PowerManager;
+import android.os.SystemClock;
 import android.util.ArraySet;
 
 import androidx.annotation.StringRes;
@@ -61,6 +64,13 @@ final class TimerModel {
      */
     private static final long MISSED_THRESHOLD = -MINUTE_IN_MILLIS;
 
+    /**
+     * Running timers expiring within this delay are tracked with a partial wake lock and a
+     * main-thread callback, which are not subject to the batching of alarms while dozing. The
+     * exact alarm is therefore scheduled this long before the expiration time.
+     */
+    private static final long PRECISE_EXPIRY_LEAD_TIME = 5 * SECOND_IN_MILLIS;
+
     private final Context mContext;
 
     private final SharedPreferences mPrefs;
@@ -108,6 +118,11 @@ final class TimerModel {
      */
     private final TimerNotificationBuilder mNotificationBuilder = new TimerNotificationBuilder();
 
+    /**
+     * Posts the notifications of unexpired timers only when their content changes.
+     */
+    private final NotificationPoster mNotificationPoster;
+
     /**
      * The ids of expired timers for which the ringer is ringing. Not all expired timers have their
      * ids in this collection. If a timer was already expired when the app was started its id will
@@ -116,6 +131,11 @@ final class TimerModel {
     @SuppressLint("NewApi")
     private final Set<Integer> mRingingIds = new ArraySet<>();
 
+    /**
+     * Records the observed lateness of timer expiries.
+     */
+    private final TimerExpiryStats mExpiryStats = new TimerExpiryStats();
+
     /**
      * The uri of the default ringtone to use for timers until the user explicitly chooses one.
      */
@@ -146,6 +166,41 @@ final class TimerModel {
      */
     private List<Timer> mMissedTimers;
 
+    /**
+     * The running timers ordered by their expiration time.
+     */
+    private TimerExpiryQueue mExpiryQueue;
+
+    /**
+     * The timer for which the expiration callback is currently scheduled; {@code null} if none.
+     */
+    private Timer mScheduledTimer;
+
+    /**
+     * {@code false} until the expiration callback has been scheduled by this process, or when it
+     * must be re-evaluated regardless of the timer at the head of the expiry queue.
+     */
+    private boolean mScheduledTimerValid;
+
+    /**
+     * {@code true} while a bulk operation is in progress; the expiration callback is then updated
+     * once at the end of the operation rather than after each timer change.
+     */
+    private boolean mDeferAlarmManagerUpdate;
+
+    /**
+     * Used to re-check the next expiring timer when it expires in less than 5 seconds.
+     */
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Forces the expiration callback to be re-evaluated for the timer at the head of the queue.
+     */
+    private final Runnable mExpirationCheck = () -> {
+        mScheduledTimerValid = false;
+        updateAlarmManager();
+    };
+
     /**
      * The service that keeps this application in the foreground while a heads-up timer
      * notification is displayed. Marking the service as foreground prevents the operating system
@@ -161,6 +216,7 @@ final class TimerModel {
         mRingtoneModel = ringtoneModel;
         mNotificationModel = notificationModel;
         mNotificationManager = NotificationManagerCompat.from(context);
+        mNotificationPoster = new NotificationPoster(context);
 
         mAlarmManager = (AlarmManager) mContext.getSystemService(Context.ALARM_SERVICE);
 
@@ -177,8 +233,13 @@ final class TimerModel {
     }
 
     static void schedulePendingIntent(AlarmManager am, long triggerTime, PendingIntent pi) {
-        // Ensure the timer fires even if the device is dozing.
-        am.setExactAndAllowWhileIdle(ELAPSED_REALTIME_WAKEUP, triggerTime, pi);
+        if (SdkUtils.isAtLeastAndroid12() && !am.canScheduleExactAlarms()) {
+            // Exact alarms were revoked by the user; fall back to an inexact alarm.
+            am.setAndAllowWhileIdle(ELAPSED_REALTIME_WAKEUP, triggerTime, pi);
+        } else {
+            // Ensure the timer fires even if the device is dozing.
+            am.setExactAndAllowWhileIdle(ELAPSED_REALTIME_WAKEUP, triggerTime, pi);
+        }
     }
 
     /**
@@ -275,9 +336,22 @@ final class TimerModel {
             LogUtils.wtf("Expected TimerServices to be identical");
         }
 
+        if (timer.isRunning()) {
+            mExpiryStats.record(timer, -timer.getRemainingTime());
+        }
+
         updateTimer(timer.expire());
     }
 
+    /**
+     * Re-evaluates the expiration callback of the next expiring timer. This is called when the
+     * alarm scheduled ahead of the expiration time is delivered.
+     */
+    void updateTimerExpiration() {
+        mScheduledTimerValid = false;
+        updateAlarmManager();
+    }
+
     /**
      * @param timer an updated timer to store
      */
@@ -295,6 +369,83 @@ final class TimerModel {
         }
     }
 
+    /**
+     * Stores all given timers with a single commit to permanent storage, a single update of the
+     * expiration callback and of the notifications, and a single batched listener event.
+     *
+     * @param timers updated timers to store
+     */
+    void updateTimers(List<Timer> timers) {
+        final List<Timer> before = new ArrayList<>(timers.size());
+        final List<Timer> after = new ArrayList<>(timers.size());
+        doUpdateTimers(timers, before, after);
+
+        if (after.isEmpty()) {
+            return;
+        }
+
+        // Update the notifications once after all timers are updated.
+        updateNotification();
+
+        boolean expiredChanged = false;
+        boolean missedChanged = false;
+        for (int i = 0; i < after.size(); i++) {
+            final Timer oldTimer = before.get(i);
+            final Timer newTimer = after.get(i);
+            if (oldTimer.getState() != newTimer.getState()) {
+                expiredChanged |= oldTimer.isExpired() || newTimer.isExpired();
+                missedChanged |= oldTimer.isMissed() || newTimer.isMissed();
+            }
+        }
+
+        if (expiredChanged) {
+            updateHeadsUpNotification();
+        }
+        if (missedChanged) {
+            updateMissedNotification();
+        }
+    }
+
+    /**
+     * @return the names of all timer groups in alphabetical order
+     */
+    List<String> getTimerGroupNames() {
+        final List<String> names = new ArrayList<>(TimerDAO.getTimerGroupNames(mPrefs));
+        Collections.sort(names);
+        return names;
+    }
+
+    /**
+     * @param name the name of the timer group
+     * @return the existing timers belonging to the group in their creation order
+     */
+    List<Timer> getTimerGroup(String name) {
+        final Set<Integer> ids = TimerDAO.getTimerGroupIds(mPrefs, name);
+        final List<Timer> timers = new ArrayList<>(ids.size());
+        for (Timer timer : getMutableTimers()) {
+            if (ids.contains(timer.getId())) {
+                timers.add(timer);
+            }
+        }
+
+        return timers;
+    }
+
+    /**
+     * @param name   the name of the timer group to create or replace
+     * @param timers the timers that start together when the group is started
+     */
+    void setTimerGroup(String name, List<Timer> timers) {
+        TimerDAO.setTimerGroup(mPrefs, name, timers);
+    }
+
+    /**
+     * @param name the name of the timer group to remove; its timers are left unchanged
+     */
+    void removeTimerGroup(String name) {
+        TimerDAO.removeTimerGroup(mPrefs, name);
+    }
+
     /**
      * @param timer an existing timer to be removed
      */
@@ -337,9 +488,11 @@ final class TimerModel {
      */
     void updateTimersAfterReboot() {
         final List<Timer> timers = new ArrayList<>(getTimers());
+        beginBulkUpdate();
         for (Timer timer : timers) {
             doUpdateAfterRebootTimer(timer);
         }
+        endBulkUpdate();
 
         // Update the notifications once after all timers are updated.
         updateNotification();
@@ -352,9 +505,11 @@ final class TimerModel {
      */
     void updateTimersAfterTimeSet() {
         final List<Timer> timers = new ArrayList<>(getTimers());
+        beginBulkUpdate();
         for (Timer timer : timers) {
             doUpdateAfterTimeSetTimer(timer);
         }
+        endBulkUpdate();
 
         // Update the notifications once after all timers are updated.
         updateNotification();
@@ -369,12 +524,10 @@ final class TimerModel {
      * @param eventLabelId the label of the timer event to send; 0 if no event should be sent
      */
     void resetOrDeleteExpiredTimers(@StringRes int eventLabelId) {
-        final List<Timer> timers = new ArrayList<>(getTimers());
-        for (Timer timer : timers) {
-            if (timer.isExpired()) {
-                doResetOrDeleteTimer(timer, true, eventLabelId);
-            }
-        }
+        final List<Timer> expired = new ArrayList<>(getExpiredTimers());
+        beginBulkUpdate();
+        doResetOrDeleteTimers(expired, eventLabelId);
+        endBulkUpdate();
 
         // Update the notifications once after all timers are updated.
         updateHeadsUpNotification();
@@ -386,12 +539,10 @@ final class TimerModel {
      * @param eventLabelId the label of the timer event to send; 0 if no event should be sent
      */
     void resetMissedTimers(@StringRes int eventLabelId) {
-        final List<Timer> timers = new ArrayList<>(getTimers());
-        for (Timer timer : timers) {
-            if (timer.isMissed()) {
-                doResetOrDeleteTimer(timer, true, eventLabelId);
-            }
-        }
+        final List<Timer> missed = new ArrayList<>(getMissedTimers());
+        beginBulkUpdate();
+        doResetOrDeleteTimers(missed, eventLabelId);
+        endBulkUpdate();
 
         // Update the notifications once after all timers are updated.
         updateMissedNotification();
@@ -477,6 +628,42 @@ final class TimerModel {
      */
     public void loadTimers() {
         mTimers = TimerDAO.getTimers(mPrefs);
+        mExpiredTimers = null;
+        mMissedTimers = null;
+        mExpiryQueue = null;
+        mScheduledTimerValid = false;
+        updateAlarmManager();
+    }
+
+    /**
+     * @return the running timers ordered by expiration time, built from the cached timers on demand
+     */
+    private TimerExpiryQueue getExpiryQueue() {
+        if (mExpiryQueue == null) {
+            mExpiryQueue = new TimerExpiryQueue();
+
+            for (Timer timer : getMutableTimers()) {
+                mExpiryQueue.update(timer);
+            }
+        }
+
+        return mExpiryQueue;
+    }
+
+    /**
+     * Defers updates of the expiration callback until {@link #endBulkUpdate()} is called.
+     */
+    private void beginBulkUpdate() {
+        mDeferAlarmManagerUpdate = true;
+    }
+
+    /**
+     * Updates the expiration callback once to reflect all changes made since
+     * {@link #beginBulkUpdate()}.
+     */
+    private void endBulkUpdate() {
+        mDeferAlarmManagerUpdate = false;
+        updateAlarmManager();
     }
 
     private List<Timer> getMutableExpiredTimers() {
@@ -532,6 +719,7 @@ final class TimerModel {
 
         // Update the timer in the cache.
         final Timer oldTimer = timers.set(index, timer);
+        getExpiryQueue().update(timer);
 
         // Clear the cache of expired timers if the timer changed to/from expired.
         if (before.isExpired() || timer.isExpired()) {
@@ -556,6 +744,63 @@ final class TimerModel {
         return oldTimer;
     }
 
+    /**
+     * This method updates the data of several timers without updating notifications. The timers
+     * are stored with a single commit and listeners receive a single batched event.
+     *
+     * @param timers updated timers to store
+     * @param before receives the states of the changed timers prior to the update
+     * @param after  receives the states of the changed timers after the update
+     */
+    private void doUpdateTimers(List<Timer> timers, List<Timer> before, List<Timer> after) {
+        final List<Timer> cached = getMutableTimers();
+        for (Timer timer : timers) {
+            final int index = cached.indexOf(timer);
+
+            // Ignore unknown timers and timers that did not change.
+            if (index == -1 || cached.get(index) == timer) {
+                continue;
+            }
+
+            // Update the timer in the cache.
+            final Timer oldTimer = cached.set(index, timer);
+            getExpiryQueue().update(timer);
+
+            // Clear the caches of expired and missed timers if the timer changed to/from them.
+            if (oldTimer.isExpired() || timer.isExpired()) {
+                mExpiredTimers = null;
+            }
+            if (oldTimer.isMissed() || timer.isMissed()) {
+                mMissedTimers = null;
+            }
+
+            before.add(oldTimer);
+            after.add(timer);
+        }
+
+        if (after.isEmpty()) {
+            return;
+        }
+
+        // Update the timers in permanent storage.
+        TimerDAO.updateTimers(mPrefs, after);
+
+        // Update the timer expiration callback.
+        updateAlarmManager();
+
+        // Update the timer ringer.
+        for (int i = 0; i < after.size(); i++) {
+            updateRinger(before.get(i), after.get(i));
+        }
+
+        // Notify listeners of the change.
+        final List<Timer> beforeTimers = Collections.unmodifiableList(before);
+        final List<Timer> afterTimers = Collections.unmodifiableList(after);
+        for (TimerListener timerListener : mTimerListeners) {
+            timerListener.timersUpdated(beforeTimers, afterTimers);
+        }
+    }
+
     /**
      * This method removes timer data without updating notifications. This is useful in bulk-remove
      * scenarios so the notifications are only rebuilt once.
@@ -563,39 +808,66 @@ final class TimerModel {
      * @param timer an existing timer to be removed
      */
     private void doRemoveTimer(Timer timer) {
-        // Remove the timer from permanent storage.
-        TimerDAO.removeTimer(mPrefs, timer);
-
-        // Remove the timer from the cache.
-        final List<Timer> timers = getMutableTimers();
-        final int index = timers.indexOf(timer);
+        doRemoveTimers(Collections.singletonList(timer));
+    }
 
-        // If the timer cannot be located there is nothing to remove.
-        if (index == -1) {
+    /**
+     * This method removes the data of several timers with a single commit to permanent storage,
+     * without updating notifications.
+     *
+     * @param timers existing timers to be removed
+     */
+    private void doRemoveTimers(List<Timer> timers) {
+        if (timers.isEmpty()) {
             return;
         }
 
-        timer = timers.remove(index);
+        // Remove the timers from permanent storage.
+        TimerDAO.removeTimers(mPrefs, timers);
 
-        // Clear the cache of expired timers if a new expired timer was added.
-        if (timer.isExpired()) {
-            mExpiredTimers = null;
+        final List<Timer> removed = new ArrayList<>(timers.size());
+        final List<Timer> cached = getMutableTimers();
+        for (Timer timer : timers) {
+            // Remove the timer from the cache.
+            final int index = cached.indexOf(timer);
+
+            // If the timer cannot be located there is nothing to remove.
+            if (index == -1) {
+                continue;
+            }
+
+            timer = cached.remove(index);
+            getExpiryQueue().remove(timer.getId());
+            cancelUnexpiredTimerNotification(timer);
+
+            // Clear the cache of expired timers if a new expired timer was added.
+            if (timer.isExpired()) {
+                mExpiredTimers = null;
+            }
+
+            // Clear the cache of missed timers if a new missed timer was added.
+            if (timer.isMissed()) {
+                mMissedTimers = null;
+            }
+
+            removed.add(timer);
         }
 
-        // Clear the cache of missed timers if a new missed timer was added.
-        if (timer.isMissed()) {
-            mMissedTimers = null;
+        if (removed.isEmpty()) {
+            return;
         }
 
         // Update the timer expiration callback.
         updateAlarmManager();
 
-        // Update the timer ringer.
-        updateRinger(timer, null);
+        for (Timer timer : removed) {
+            // Update the timer ringer.
+            updateRinger(timer, null);
 
-        // Notify listeners of the change.
-        for (TimerListener timerListener : mTimerListeners) {
-            timerListener.timerRemoved(timer);
+            // Notify listeners of the change.
+            for (TimerListener timerListener : mTimerListeners) {
+                timerListener.timerRemoved(timer);
+            }
         }
     }
 
@@ -628,6 +900,34 @@ final class TimerModel {
         }
     }
 
+    /**
+     * This method resets or deletes several expired or missed timers with a single commit for the
+     * reset timers and a single commit for the deleted ones, without updating notifications.
+     *
+     * @param timers       the timers to be reset or deleted
+     * @param eventLabelId the label of the timer events to send; 0 if no event should be sent
+     */
+    private void doResetOrDeleteTimers(List<Timer> timers, @StringRes int eventLabelId) {
+        final List<Timer> deleted = new ArrayList<>();
+        final List<Timer> reset = new ArrayList<>();
+        for (Timer timer : timers) {
+            if ((timer.isExpired() || timer.isMissed()) && timer.getDeleteAfterUse()) {
+                deleted.add(timer);
+                if (eventLabelId != 0) {
+                    Events.sendTimerEvent(R.string.action_delete, eventLabelId);
+                }
+            } else if (!timer.isReset()) {
+                reset.add(timer.reset());
+                if (eventLabelId != 0) {
+                    Events.sendTimerEvent(R.string.action_reset, eventLabelId);
+                }
+            }
+        }
+
+        doRemoveTimers(deleted);
+        doUpdateTimers(reset, new ArrayList<>(), new ArrayList<>());
+    }
+
     /**
      * This method updates/removes timer data after a reboot without updating notifications.
      *
@@ -650,20 +950,26 @@ final class TimerModel {
      * Updates the callback given to this application from the {@link AlarmManager} that signals the
      * expiration of the next timer. If no timers are currently set to expire (i.e. no running
      * timers exist) then this method clears the expiration callback from AlarmManager.
+     * <p>
+     * The callback is only rescheduled when the timer at the head of the expiry queue changes.
      */
     private void updateAlarmManager() {
+        if (mDeferAlarmManagerUpdate) {
+            return;
+        }
+
         // Locate the next firing timer if one exists.
-        Timer nextExpiringTimer = null;
-        for (Timer timer : getMutableTimers()) {
-            if (timer.isRunning()) {
-                if (nextExpiringTimer == null) {
-                    nextExpiringTimer = timer;
-                } else if (timer.getExpirationTime() < nextExpiringTimer.getExpirationTime()) {
-                    nextExpiringTimer = timer;
-                }
-            }
+        final Timer nextExpiringTimer = getExpiryQueue().peek();
+
+        // If the next firing timer is unchanged, the existing callback is still valid.
+        if (isScheduled(nextExpiringTimer)) {
+            return;
         }
 
+        mScheduledTimer = nextExpiringTimer;
+        mScheduledTimerValid = true;
+        mHandler.removeCallbacks(mExpirationCheck);
+
         // Build the intent that signals the timer expiration.
         final Intent intent = TimerService.createTimerExpiredIntent(mContext, nextExpiringTimer);
 
@@ -679,18 +985,38 @@ final class TimerModel {
             Added out of curiosity to see how it will be solved in the LineageOS clock app (https://gitlab.com/LineageOS/issues/android/-/issues/5579). */
         } else if (nextExpiringTimer.getRemainingTime() <= 0) {
             mContext.startService(intent);
-        } else if (nextExpiringTimer.getRemainingTime() < 5000) {
+        } else if (nextExpiringTimer.getRemainingTime() <= PRECISE_EXPIRY_LEAD_TIME) {
             PowerManager.WakeLock wl = AlarmAlertWakeLock.createPartialWakeLock(mContext);
-            wl.acquire(nextExpiringTimer.getRemainingTime());
-            new Handler(Looper.getMainLooper()).postDelayed(this::updateAlarmManager, nextExpiringTimer.getRemainingTime());
+            wl.acquire(nextExpiringTimer.getRemainingTime() + SECOND_IN_MILLIS);
+            mHandler.postDelayed(mExpirationCheck, nextExpiringTimer.getRemainingTime());
         } else {
-            // Update the existing timer expiration callback.
+            // Update the existing timer expiration callback. The alarm fires ahead of the
+            // expiration time so that a delay introduced by doze can be absorbed before the
+            // timer is tracked precisely.
             final PendingIntent pi = PendingIntent.getService(mContext,
                     0, intent, PendingIntent.FLAG_ONE_SHOT | PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
-            schedulePendingIntent(mAlarmManager, nextExpiringTimer.getExpirationTime(), pi);
+            final long triggerTime = nextExpiringTimer.getExpirationTime() - PRECISE_EXPIRY_LEAD_TIME;
+            schedulePendingIntent(mAlarmManager, triggerTime, pi);
         }
     }
 
+    /**
+     * @param timer the timer at the head of the expiry queue; {@code null} if none
+     * @return {@code true} iff the expiration callback is already scheduled for this timer
+     */
+    private boolean isScheduled(Timer timer) {
+        if (!mScheduledTimerValid) {
+            return false;
+        }
+
+        if (timer == null || mScheduledTimer == null) {
+            return timer == mScheduledTimer;
+        }
+
+        return timer.getId() == mScheduledTimer.getId()
+                && timer.getExpirationTime() == mScheduledTimer.getExpirationTime();
+    }
+
     /**
      * Starts and stops the ringer for timers if the change to the timer demands it.
      *
@@ -765,9 +1091,10 @@ final class TimerModel {
         // Notifications should be hidden if the app is open.
         if (mNotificationModel.isApplicationInForeground()) {
             for (Timer timer : unexpired) {
-                mNotificationManager.cancel(mNotificationModel.getUnexpiredTimerNotificationId(timer.getId()));
-                mNotificationManager.cancel(mNotificationModel.getSummaryNotificationId());
+                cancelUnexpiredTimerNotification(timer);
             }
+            mNotificationPoster.cancel(mNotificationModel.getSummaryNotificationId());
+            scheduleNotificationRefresh(Collections.emptyList());
             return;
         }
 
@@ -775,24 +1102,76 @@ final class TimerModel {
 
         // Create notifications for each unexpired timers
         for (Timer timer : unexpired) {
-            int notificationId = mNotificationModel.getUnexpiredTimerNotificationId(timer.getId());
-
             if (timer.isRunning() || timer.isPaused()) {
-                Notification notification = mNotificationBuilder.build(mContext, mNotificationModel, timer);
-                mNotificationManager.notify(notificationId, notification);
+                final int notificationId = mNotificationModel.getUnexpiredTimerNotificationId(timer.getId());
+                mNotificationPoster.post(TIMER_MODEL_NOTIFICATION_CHANNEL_ID, notificationId,
+                        TimerNotificationBuilder.getContentKey(timer),
+                        () -> mNotificationBuilder.build(mContext, mNotificationModel, timer));
                 hasActiveTimers = true;
             } else {
-                mNotificationManager.cancel(notificationId);
+                cancelUnexpiredTimerNotification(timer);
             }
         }
 
         // Display or delete the summary notification
+        final int summaryId = mNotificationModel.getSummaryNotificationId();
         if (hasActiveTimers) {
-            Notification summary = mNotificationBuilder.buildSummaryNotification(mContext, mNotificationModel);
-            mNotificationManager.notify(mNotificationModel.getSummaryNotificationId(), summary);
+            mNotificationPoster.post(TIMER_MODEL_NOTIFICATION_CHANNEL_ID, summaryId,
+                    TimerNotificationBuilder.getSummaryContentKey(unexpired),
+                    () -> mNotificationBuilder.buildSummaryNotification(mContext, mNotificationModel,
+                            unexpired));
         } else {
-            mNotificationManager.cancel(mNotificationModel.getSummaryNotificationId());
+            mNotificationPoster.cancel(summaryId);
         }
+
+        scheduleNotificationRefresh(unexpired);
+    }
+
+    /**
+     * Before Android 7, the remaining time of running timers is displayed as text rounded to the
+     * minute, so the notifications must be updated each time a minute of a running timer elapses.
+     * The update is scheduled here rather than when a notification is built, since notifications
+     * whose content is unchanged are not rebuilt.
+     *
+     * @param timers the timers whose notifications are displayed
+     */
+    private void scheduleNotificationRefresh(List<Timer> timers) {
+        if (SdkUtils.isAtLeastAndroid7()) {
+            return;
+        }
+
+        long nextMinuteChange = Long.MAX_VALUE;
+        for (Timer timer : timers) {
+            final long remainingTime = timer.getRemainingTime();
+            if (timer.isRunning() && remainingTime > MINUTE_IN_MILLIS) {
+                nextMinuteChange = Math.min(nextMinuteChange, remainingTime % MINUTE_IN_MILLIS);
+            }
+        }
+
+        final Intent intent = TimerService.createUpdateNotificationIntent(mContext);
+        if (nextMinuteChange == Long.MAX_VALUE) {
+            // Cancel the update notification callback.
+            final PendingIntent pi = PendingIntent.getService(mContext,
+                    0, intent, PendingIntent.FLAG_ONE_SHOT | PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE);
+            if (pi != null) {
+                mAlarmManager.cancel(pi);
+                pi.cancel();
+            }
+        } else {
+            // Schedule a callback to update the time-sensitive information of the running timers.
+            final PendingIntent pi = PendingIntent.getService(mContext,
+                    0, intent, PendingIntent.FLAG_ONE_SHOT | PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+            final long triggerTime = SystemClock.elapsedRealtime() + nextMinuteChange;
+            schedulePendingIntent(mAlarmManager, triggerTime, pi);
+        }
+    }
+
+    /**
+     * @param timer the timer whose running/paused notification must be removed
+     */
+    private void cancelUnexpiredTimerNotification(Timer timer) {
+        mNotificationPoster.cancel(mNotificationModel.getUnexpiredTimerNotificationId(timer.getId()));
+        mNotificationBuilder.releaseBuilder(timer.getId());
     }
 
     /**
@@ -858,6 +1237,8 @@ final class TimerModel {
         @Override
         public void onReceive(Context context, Intent intent) {
             mTimerRingtoneTitle = null;
+            mNotificationBuilder.releaseBuilders();
+            mNotificationPoster.invalidate();
             updateNotification();
             updateMissedNotification();
             updateHeadsUpNotification();
@@ -13,7 +13,6 @@ import static androidx.core.app.NotificationCompat.Builder;
 import static com.best.deskclock.utils.NotificationUtils.FIRING_NOTIFICATION_CHANNEL_ID;
 import static com.best.deskclock.utils.NotificationUtils.TIMER_MODEL_NOTIFICATION_CHANNEL_ID;
 
-import android.app.AlarmManager;
 import android.app.Notification;
 import android.app.NotificationManager;
 import android.app.PendingIntent;
@@ -22,6 +21,7 @@ import android.content.Intent;
 import android.content.res.Resources;
 import android.os.SystemClock;
 import android.text.TextUtils;
+import android.util.SparseArray;
 import android.widget.RemoteViews;
 
 import androidx.annotation.DrawableRes;
@@ -45,7 +45,32 @@ import java.util.List;
  */
 class TimerNotificationBuilder {
 
-    private static final int REQUEST_CODE_UPCOMING = 0;
+    /**
+     * The notification builders of the unexpired timers, by timer id. They are kept across updates
+     * so that only the fields that depend on the timer state are replaced.
+     */
+    private final SparseArray<Builder> mBuilders = new SparseArray<>();
+
+    /**
+     * @param timer the timer displayed by an unexpired timer notification
+     * @return a value that describes everything visible in the notification built for the timer
+     */
+    static Object getContentKey(Timer timer) {
+        final long time;
+        if (timer.isRunning()) {
+            time = timer.getExpirationTime();
+        } else {
+            time = timer.getRemainingTime();
+        }
+
+        // Before Android 7, the remaining time is displayed as text rounded to the minute.
+        final long remainingMinutes = SdkUtils.isAtLeastAndroid7()
+                ? 0
+                : timer.getRemainingTime() / MINUTE_IN_MILLIS;
+
+        return new TimerContent(timer.getState(), time, timer.getLength(), timer.getLabel(),
+                timer.getButtonTime(), remainingMinutes);
+    }
 
     /**
      * @param timer the timer on which to base the chronometer display
@@ -139,31 +164,47 @@ class TimerNotificationBuilder {
             actions.add(new Action.Builder(icon2, title2, intent2).build());
         }
 
-        // Intent to load the app and show the timer when the notification is tapped.
-        final Intent showApp = new Intent(context, DeskClock.class)
-                .setAction(TimerService.ACTION_SHOW_TIMER)
-                .putExtra(TimerService.EXTRA_TIMER_ID, timerId)
-                .putExtra(Events.EXTRA_EVENT_LABEL, R.string.label_notification);
+        Builder notification = mBuilders.get(timerId);
+        if (notification == null) {
+            // Intent to load the app and show the timer when the notification is tapped.
+            final Intent showApp = new Intent(context, DeskClock.class)
+                    .setAction(TimerService.ACTION_SHOW_TIMER)
+                    .putExtra(TimerService.EXTRA_TIMER_ID, timerId)
+                    .putExtra(Events.EXTRA_EVENT_LABEL, R.string.label_notification);
+
+            final PendingIntent pendingShowApp = Utils.pendingActivityIntent(context, showApp);
+
+            notification = new Builder(context, TIMER_MODEL_NOTIFICATION_CHANNEL_ID)
+                    .setOngoing(true)
+                    .setLocalOnly(true)
+                    .setShowWhen(false)
+                    .setAutoCancel(false)
+                    .setContentIntent(pendingShowApp)
+                    .setPriority(SdkUtils.isAtLeastAndroid7()
+                            ? NotificationManager.IMPORTANCE_LOW
+                            : Notification.PRIORITY_LOW)
+                    .setCategory(NotificationCompat.CATEGORY_ALARM)
+                    .setSmallIcon(R.drawable.ic_hourglass_bottom)
+                    .setSortKey(nm.getTimerNotificationSortKey())
+                    .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+                    .setStyle(new NotificationCompat.DecoratedCustomViewStyle())
+                    .setColor(context.getColor(R.color.md_theme_primary));
+
+            if (SdkUtils.isAtLeastAndroid7()) {
+                notification.setGroup(nm.getTimerNotificationGroupKey());
+            }
 
-        final PendingIntent pendingShowApp = Utils.pendingActivityIntent(context, showApp);
+            if (SdkUtils.isAtLeastAndroid8()) {
+                NotificationUtils.createChannel(context, TIMER_MODEL_NOTIFICATION_CHANNEL_ID);
+            }
 
-        final Builder notification = new Builder(context, TIMER_MODEL_NOTIFICATION_CHANNEL_ID)
-                .setOngoing(true)
-                .setLocalOnly(true)
-                .setShowWhen(false)
-                .setAutoCancel(false)
-                .setContentTitle(contentTitle)
+            mBuilders.put(timerId, notification);
+        }
+
+        // Only replace the fields that depend on the timer state.
+        notification.setContentTitle(contentTitle)
                 .setContentText(timer.getTotalDuration())
-                .setContentIntent(pendingShowApp)
-                .setPriority(SdkUtils.isAtLeastAndroid7()
-                        ? NotificationManager.IMPORTANCE_LOW
-                        : Notification.PRIORITY_LOW)
-                .setCategory(NotificationCompat.CATEGORY_ALARM)
-                .setSmallIcon(R.drawable.ic_hourglass_bottom)
-                .setSortKey(nm.getTimerNotificationSortKey())
-                .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
-                .setStyle(new NotificationCompat.DecoratedCustomViewStyle())
-                .setColor(context.getColor(R.color.md_theme_primary));
+                .clearActions();
 
         for (Action action : actions) {
             notification.addAction(action);
@@ -171,44 +212,35 @@ class TimerNotificationBuilder {
 
         if (SdkUtils.isAtLeastAndroid7()) {
             notification.setCustomContentView(buildChronometer(context.getPackageName(), base,
-                            running, titleText, stateText)).setGroup(nm.getTimerNotificationGroupKey());
+                            running, titleText, stateText));
         } else {
             final CharSequence contentText = stateText != null
                     ? stateText
                     : TimerStringFormatter.formatTimeRemaining(context, timer.getRemainingTime(), false);
 
+            // The notification is updated each minute by TimerModel.
             notification.setContentTitle(titleText).setContentText(contentText);
-
-            final AlarmManager am = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-            final Intent updateNotification = TimerService.createUpdateNotificationIntent(context);
-            final long remainingTime = timer.getRemainingTime();
-            if (timer.isRunning() && remainingTime > MINUTE_IN_MILLIS) {
-                // Schedule a callback to update the time-sensitive information of the running timer
-                final PendingIntent pi = PendingIntent.getService(context, REQUEST_CODE_UPCOMING, updateNotification,
-                                PendingIntent.FLAG_ONE_SHOT | PendingIntent.FLAG_UPDATE_CURRENT
-                                        | PendingIntent.FLAG_IMMUTABLE);
-
-                final long nextMinuteChange = remainingTime % MINUTE_IN_MILLIS;
-                final long triggerTime = SystemClock.elapsedRealtime() + nextMinuteChange;
-                TimerModel.schedulePendingIntent(am, triggerTime, pi);
-            } else {
-                // Cancel the update notification callback.
-                final PendingIntent pi = PendingIntent.getService(context, 0, updateNotification,
-                        PendingIntent.FLAG_ONE_SHOT | PendingIntent.FLAG_NO_CREATE
-                                | PendingIntent.FLAG_IMMUTABLE);
-                if (pi != null) {
-                    am.cancel(pi);
-                    pi.cancel();
-                }
-            }
         }
 
-        if (SdkUtils.isAtLeastAndroid8()) {
-            NotificationUtils.createChannel(context, TIMER_MODEL_NOTIFICATION_CHANNEL_ID);
-        }
         return notification.build();
     }
 
+    /**
+     * Discards the notification builder kept for the given timer once its notification is gone.
+     *
+     * @param timerId identifies the timer whose notification was cancelled
+     */
+    void releaseBuilder(int timerId) {
+        mBuilders.remove(timerId);
+    }
+
+    /**
+     * Forgets all notification builders so they are recreated with up-to-date resources.
+     */
+    void releaseBuilders() {
+        mBuilders.clear();
+    }
+
     Notification buildHeadsUp(Context context, List<Timer> expired) {
         final Timer timer = expired.get(0);
         final int timerId = timer.getId();
@@ -403,7 +435,28 @@ class TimerNotificationBuilder {
         return notification.build();
     }
 
-    public Notification buildSummaryNotification(Context context, NotificationModel nm) {
+    /**
+     * @param timers the timers whose notifications are displayed
+     * @return a value that describes everything visible in the summary notification
+     */
+    static Object getSummaryContentKey(List<Timer> timers) {
+        int running = 0;
+        int paused = 0;
+        for (Timer timer : timers) {
+            if (timer.isRunning()) {
+                running++;
+            } else if (timer.isPaused()) {
+                paused++;
+            }
+        }
+
+        // The actions on all timers are only offered when several timers are displayed.
+        final boolean several = running + paused > 1;
+        return new SummaryContent(several && running > 0, several && paused > 0);
+    }
+
+    public Notification buildSummaryNotification(Context context, NotificationModel nm,
+                                                 List<Timer> timers) {
         // Intent to load the app and show the timer when the notification is tapped.
         final Intent showApp = new Intent(context, DeskClock.class)
                 .setAction(TimerService.ACTION_SHOW_TIMER)
@@ -416,7 +469,7 @@ class TimerNotificationBuilder {
             NotificationUtils.createChannel(context, TIMER_MODEL_NOTIFICATION_CHANNEL_ID);
         }
 
-        return new NotificationCompat.Builder(context, TIMER_MODEL_NOTIFICATION_CHANNEL_ID)
+        final Builder notification = new Builder(context, TIMER_MODEL_NOTIFICATION_CHANNEL_ID)
                 .setSmallIcon(R.drawable.ic_hourglass_bottom)
                 .setGroup(nm.getTimerNotificationGroupKey())
                 .setGroupSummary(true)
@@ -428,8 +481,25 @@ class TimerNotificationBuilder {
                 .setCategory(NotificationCompat.CATEGORY_EVENT)
                 .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
                 .setLocalOnly(true)
-                .setColor(context.getColor(R.color.md_theme_primary))
-                .build();
+                .setColor(context.getColor(R.color.md_theme_primary));
+
+        final SummaryContent content = (SummaryContent) getSummaryContentKey(timers);
+        if (content.pauseAll()) {
+            final Intent pauseAll = TimerService.createPauseAllTimersIntent(context)
+                    .putExtra(Events.EXTRA_EVENT_LABEL, R.string.label_notification);
+            final PendingIntent intent = Utils.pendingServiceIntent(context, pauseAll);
+            notification.addAction(new Action.Builder(R.drawable.ic_fab_pause,
+                    context.getText(R.string.timer_pause_all), intent).build());
+        }
+        if (content.resumeAll()) {
+            final Intent resumeAll = TimerService.createResumeAllTimersIntent(context)
+                    .putExtra(Events.EXTRA_EVENT_LABEL, R.string.label_notification);
+            final PendingIntent intent = Utils.pendingServiceIntent(context, resumeAll);
+            notification.addAction(new Action.Builder(R.drawable.ic_fab_play,
+                    context.getText(R.string.timer_resume_all), intent).build());
+        }
+
+        return notification.build();
     }
 
     private RemoteViews buildChronometer(String packageName, long base, boolean running, CharSequence titleText,
@@ -444,4 +514,17 @@ class TimerNotificationBuilder {
         content.setTextViewText(R.id.state, stateText);
         return content;
     }
+
+    /**
+     * Describes the visible content of an unexpired timer notification.
+     */
+    private record TimerContent(Timer.State state, long time, long length, String label,
+                                String buttonTime, long remainingMinutes) {
+    }
+
+    /**
+     * Describes the actions offered by the summary notification.
+     */
+    private record SummaryContent(boolean pauseAll, boolean resumeAll) {
+    }
 }
@@ -0,0 +1,307 @@
+// SPDX-License-Identifier: GPL-3.0-only
+
+package com.best.deskclock.events;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.os.SystemClock;
+
+import androidx.annotation.StringRes;
+
+import com.best.deskclock.AsyncHandler;
+import com.best.deskclock.BuildConfig;
+import com.best.deskclock.utils.LogUtils;
+import com.best.deskclock.utils.SdkUtils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Records every event in an append-only binary journal stored on the device.
+ * <p>
+ * Each event is written as a fixed-size record made of the category, action and label resource
+ * ids followed by the elapsed realtime at which it occurred. Recording an event only appends
+ * these values to an in-memory buffer; the buffer is written to disk on the {@link AsyncHandler}
+ * thread when it fills up or shortly after the first buffered event.
+ * <p>
+ * Records whose category is {@link #ANCHOR_CATEGORY} are anchors: their action and label hold the
+ * high and low halves of the wall clock time matching their elapsed realtime. Each anchor is
+ * followed by a record whose category is {@link #VERSION_CATEGORY} and whose action holds the
+ * version code of the application. An anchor is written when the process starts and at the
+ * beginning of each journal file, so that the elapsed realtime of the records that follow can be
+ * converted to a date when the journal is exported.
+ * <p>
+ * Resource ids are only meaningful within the build that recorded them, so the records written by
+ * another version of the application are left out of the export rather than named wrongly.
+ * <p>
+ * When the journal exceeds {@link #MAX_JOURNAL_SIZE}, it replaces the previous rotated journal
+ * and a new one is started, so at most twice that size is used on disk.
+ */
+public final class JournalEventTracker implements EventTracker {
+
+    private static final LogUtils.Logger LOGGER = new LogUtils.Logger("JournalEventTracker");
+
+    private static final String JOURNAL_FILE = "events.journal";
+
+    private static final String ROTATED_JOURNAL_FILE = "events.journal.1";
+
+    /**
+     * The size of a record: three int resource ids followed by a long elapsed realtime.
+     */
+    private static final int RECORD_SIZE = 3 * Integer.BYTES + Long.BYTES;
+
+    /**
+     * The maximum size of a journal file before it is rotated.
+     */
+    private static final long MAX_JOURNAL_SIZE = 8192 * RECORD_SIZE;
+
+    /**
+     * The number of buffered bytes that triggers an immediate write of the buffer.
+     */
+    private static final int FLUSH_THRESHOLD = 64 * RECORD_SIZE;
+
+    /**
+     * The maximum delay before buffered records are written to disk.
+     */
+    private static final long FLUSH_DELAY = 10000;
+
+    /**
+     * The category of the records anchoring the elapsed realtime to the wall clock time.
+     */
+    private static final int ANCHOR_CATEGORY = 0;
+
+    /**
+     * The category of the records holding the version code of the application that wrote the
+     * records following them.
+     */
+    private static final int VERSION_CATEGORY = 1;
+
+    private static JournalEventTracker sInstance;
+
+    private final Context mContext;
+
+    private final File mDirectory;
+
+    /**
+     * Guards the journal files.
+     */
+    private final Object mFileLock = new Object();
+
+    private final ByteArrayOutputStream mPendingBytes = new ByteArrayOutputStream(FLUSH_THRESHOLD);
+
+    private final DataOutputStream mPendingRecords = new DataOutputStream(mPendingBytes);
+
+    private final Runnable mFlushRunnable = this::flush;
+
+    private boolean mFlushScheduled;
+
+    private boolean mImmediateFlushScheduled;
+
+    private JournalEventTracker(Context context) {
+        mContext = context;
+
+        // Events are also recorded while the device is locked, before the user unlocks it.
+        final Context storageContext = SdkUtils.isAtLeastAndroid7()
+                ? context.createDeviceProtectedStorageContext()
+                : context;
+        mDirectory = storageContext.getFilesDir();
+
+        appendAnchor();
+    }
+
+    /**
+     * @return the journal shared by the whole application
+     */
+    public static synchronized JournalEventTracker getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new JournalEventTracker(context.getApplicationContext());
+        }
+
+        return sInstance;
+    }
+
+    @Override
+    public void sendEvent(@StringRes int category, @StringRes int action, @StringRes int label) {
+        append(category, action, label, SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * Writes all events recorded by this version of the application to the given {@code writer}
+     * as comma-separated lines holding the date of the event followed by the resource names of
+     * its category, action and label.
+     */
+    public void export(Writer writer) throws IOException {
+        flush();
+
+        final SimpleDateFormat dateFormat =
+                new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US);
+
+        synchronized (mFileLock) {
+            long wallClockOffset = 0;
+            int versionCode = -1;
+            for (String name : new String[]{ROTATED_JOURNAL_FILE, JOURNAL_FILE}) {
+                final File journal = new File(mDirectory, name);
+                if (!journal.exists()) {
+                    continue;
+                }
+
+                try (DataInputStream in = new DataInputStream(
+                        new BufferedInputStream(new FileInputStream(journal)))) {
+
+                    while (true) {
+                        final int category = in.readInt();
+                        final int action = in.readInt();
+                        final int label = in.readInt();
+                        final long elapsedRealtime = in.readLong();
+
+                        if (category == ANCHOR_CATEGORY) {
+                            final long wallClockTime = ((long) action << 32) | (label & 0xFFFFFFFFL);
+                            wallClockOffset = wallClockTime - elapsedRealtime;
+                            // Journals written before the version was recorded are left out.
+                            versionCode = -1;
+                            continue;
+                        } else if (category == VERSION_CATEGORY) {
+                            versionCode = action;
+                            continue;
+                        } else if (versionCode != BuildConfig.VERSION_CODE) {
+                            continue;
+                        }
+
+                        writer.write(dateFormat.format(new Date(wallClockOffset + elapsedRealtime)));
+                        writer.write(',');
+                        writer.write(getResourceName(category));
+                        writer.write(',');
+                        writer.write(getResourceName(action));
+                        writer.write(',');
+                        writer.write(getResourceName(label));
+                        writer.write('\n');
+                    }
+                } catch (EOFException ignored) {
+                    // The end of the journal file was reached.
+                }
+            }
+        }
+    }
+
+    /**
+     * Buffers an anchor record for the current time; it is written along with the next event.
+     */
+    private synchronized void appendAnchor() {
+        final byte[] anchor = createAnchorRecord();
+        mPendingBytes.write(anchor, 0, anchor.length);
+    }
+
+    private synchronized void append(int category, int action, int label, long elapsedRealtime) {
+        try {
+            mPendingRecords.writeInt(category);
+            mPendingRecords.writeInt(action);
+            mPendingRecords.writeInt(label);
+            mPendingRecords.writeLong(elapsedRealtime);
+        } catch (IOException e) {
+            // Writing to an in-memory stream cannot fail.
+            LOGGER.e("Unable to buffer event", e);
+        }
+
+        if (mPendingBytes.size() >= FLUSH_THRESHOLD) {
+            if (!mImmediateFlushScheduled) {
+                mImmediateFlushScheduled = true;
+                AsyncHandler.post(mFlushRunnable);
+            }
+        } else if (!mFlushScheduled) {
+            mFlushScheduled = true;
+            AsyncHandler.postDelayed(mFlushRunnable, FLUSH_DELAY);
+        }
+    }
+
+    /**
+     * Writes the buffered records to the journal, rotating it first if it would grow too large.
+     */
+    private void flush() {
+        final byte[] records;
+        synchronized (this) {
+            mFlushScheduled = false;
+            mImmediateFlushScheduled = false;
+            records = mPendingBytes.toByteArray();
+            mPendingBytes.reset();
+        }
+
+        if (records.length == 0) {
+            return;
+        }
+
+        synchronized (mFileLock) {
+            final File journal = new File(mDirectory, JOURNAL_FILE);
+            if (journal.length() + records.length > MAX_JOURNAL_SIZE) {
+                final File rotatedJournal = new File(mDirectory, ROTATED_JOURNAL_FILE);
+                if (!journal.renameTo(rotatedJournal)) {
+                    LOGGER.w("Unable to rotate the event journal");
+                    if (!journal.delete()) {
+                        LOGGER.e("Unable to delete the event journal");
+                        return;
+                    }
+                }
+            }
+
+            final boolean newJournal = journal.length() == 0;
+            try (FileOutputStream out = new FileOutputStream(journal, true)) {
+                if (newJournal) {
+                    out.write(createAnchorRecord());
+                }
+                out.write(records);
+            } catch (IOException e) {
+                LOGGER.e("Unable to write the event journal", e);
+            }
+        }
+    }
+
+    /**
+     * @return an anchor record for the current time, followed by the version record
+     */
+    private static byte[] createAnchorRecord() {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(2 * RECORD_SIZE);
+        final DataOutputStream record = new DataOutputStream(bytes);
+        final long wallClockTime = System.currentTimeMillis();
+        final long elapsedRealtime = SystemClock.elapsedRealtime();
+        try {
+            record.writeInt(ANCHOR_CATEGORY);
+            record.writeInt((int) (wallClockTime >>> 32));
+            record.writeInt((int) wallClockTime);
+            record.writeLong(elapsedRealtime);
+
+            record.writeInt(VERSION_CATEGORY);
+            record.writeInt(BuildConfig.VERSION_CODE);
+            record.writeInt(0);
+            record.writeLong(elapsedRealtime);
+        } catch (IOException e) {
+            // Writing to an in-memory stream cannot fail.
+            LOGGER.e("Unable to create anchor record", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the name of the given resource id; an empty string if it is 0 or unknown
+     */
+    private String getResourceName(@StringRes int resId) {
+        if (resId == 0) {
+            return "";
+        }
+
+        try {
+            return mContext.getResources().getResourceEntryName(resId);
+        } catch (Resources.NotFoundException e) {
+            return Integer.toHexString(resId);
+        }
+    }
+}
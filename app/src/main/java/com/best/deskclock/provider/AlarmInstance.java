@@ -6,7 +6,6 @@
 
 package com.best.deskclock.provider;
 
-import static com.best.deskclock.DeskClockApplication.getDefaultSharedPreferences;
 import static com.best.deskclock.settings.PreferencesDefaultValues.ALARM_TIMEOUT_AT_THE_END_OF_THE_RINGTONE;
 import static com.best.deskclock.settings.PreferencesDefaultValues.ALARM_TIMEOUT_NEVER;
 
@@ -23,7 +22,7 @@ import androidx.annotation.NonNull;
 
 import com.best.deskclock.R;
 import com.best.deskclock.alarms.AlarmStateManager;
-import com.best.deskclock.data.SettingsDAO;
+import com.best.deskclock.data.Settings;
 import com.best.deskclock.utils.LogUtils;
 import com.best.deskclock.utils.RingtoneUtils;
 
@@ -384,7 +383,7 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
      */
     public Calendar getNotificationTime(Context context) {
         Calendar calendar = getAlarmTime();
-        int getAlarmNotificationReminderTime = SettingsDAO.getAlarmNotificationReminderTime(getDefaultSharedPreferences(context));
+        int getAlarmNotificationReminderTime = Settings.get(context).getAlarmNotificationReminderTime();
         calendar.add(Calendar.MINUTE, -getAlarmNotificationReminderTime);
         return calendar;
     }
@@ -406,7 +405,7 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
      * @return the time when alarm should be silence, or null if never
      */
     public Calendar getTimeout(Context context) {
-        final int timeoutMinutes = SettingsDAO.getAlarmTimeout(getDefaultSharedPreferences(context));
+        final int timeoutMinutes = Settings.get(context).getAlarmTimeout();
         Calendar calendar = getAlarmTime();
 
         // Alarm silence has been set to "Never"
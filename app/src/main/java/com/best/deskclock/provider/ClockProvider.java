@@ -12,10 +12,13 @@ import static com.best.deskclock.provider.ClockDatabaseHelper.ALARMS_TABLE_NAME;
 import static com.best.deskclock.provider.ClockDatabaseHelper.INSTANCES_TABLE_NAME;
 
 import android.content.ContentProvider;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentResolver;
 import android.content.ContentUris;
 import android.content.ContentValues;
 import android.content.Context;
+import android.content.OperationApplicationException;
 import android.content.UriMatcher;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
@@ -23,14 +26,17 @@ import android.database.sqlite.SQLiteQueryBuilder;
 import android.net.Uri;
 import android.text.TextUtils;
 import android.util.ArrayMap;
+import android.util.ArraySet;
 
 import androidx.annotation.NonNull;
 
 import com.best.deskclock.utils.LogUtils;
 import com.best.deskclock.utils.SdkUtils;
 
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 public class ClockProvider extends ContentProvider {
 
@@ -126,6 +132,12 @@ public class ClockProvider extends ContentProvider {
         sURIMatcher.addURI(ClockContract.AUTHORITY, "alarms_with_instances", ALARMS_WITH_INSTANCES);
     }
 
+    /**
+     * The URIs changed by the batch being applied on the current thread, whose observers are
+     * notified once the batch completes; {@code null} while no batch is being applied.
+     */
+    private final ThreadLocal<Set<Uri>> mBatchChangedUris = new ThreadLocal<>();
+
     private ClockDatabaseHelper mOpenHelper;
 
     public ClockProvider() {
@@ -282,10 +294,52 @@ public class ClockProvider extends ContentProvider {
         return count;
     }
 
+    /**
+     * Applies all the operations in a single transaction, so that they either all succeed or all
+     * fail, and notifies each affected table only once after the transaction is committed.
+     */
+    @NonNull
+    @Override
+    public ContentProviderResult[] applyBatch(@NonNull ArrayList<ContentProviderOperation> operations)
+            throws OperationApplicationException {
+
+        final Set<Uri> changedUris = new ArraySet<>();
+        final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
+        final ContentProviderResult[] results;
+
+        mBatchChangedUris.set(changedUris);
+        db.beginTransaction();
+        try {
+            results = super.applyBatch(operations);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            mBatchChangedUris.remove();
+        }
+
+        final ContentResolver resolver = Objects.requireNonNull(getContext()).getContentResolver();
+        for (Uri uri : changedUris) {
+            notifyChange(resolver, uri);
+        }
+
+        return results;
+    }
+
     /**
      * Notify affected URIs of changes.
      */
     private void notifyChange(ContentResolver resolver, Uri uri) {
+        final Set<Uri> batchChangedUris = mBatchChangedUris.get();
+        if (batchChangedUris != null) {
+            // Notifying a table also notifies the observers of each of its rows.
+            switch (sURIMatcher.match(uri)) {
+                case ALARMS, ALARMS_ID -> batchChangedUris.add(AlarmsColumns.CONTENT_URI);
+                case INSTANCES, INSTANCES_ID -> batchChangedUris.add(InstancesColumns.CONTENT_URI);
+                default -> batchChangedUris.add(uri);
+            }
+            return;
+        }
+
         resolver.notifyChange(uri, null);
 
         final int match = sURIMatcher.match(uri);
@@ -12,6 +12,7 @@ import android.media.RingtoneManager;
 import android.net.Uri;
 
 import com.best.deskclock.R;
+import com.best.deskclock.alarms.AlarmFireTracer;
 import com.best.deskclock.utils.LogUtils;
 import com.best.deskclock.utils.RingtoneUtils;
 import com.best.deskclock.utils.SdkUtils;
@@ -133,12 +134,22 @@ public final class AsyncRingtonePlayer {
      * Plays the ringtone.
      */
     public void play(Uri ringtoneUri, long crescendoDuration) {
+        play(ringtoneUri, crescendoDuration, 0);
+    }
+
+    /**
+     * Plays the ringtone, resuming its crescendo after the part of it already played.
+     *
+     * @param crescendoElapsed the part of the crescendo already played
+     */
+    public void play(Uri ringtoneUri, long crescendoDuration, long crescendoElapsed) {
         LOGGER.d("Executing play");
         mExecutor.execute(() -> {
-            if (getPlaybackDelegate().play(mContext, ringtoneUri, crescendoDuration)) {
+            if (getPlaybackDelegate().play(mContext, ringtoneUri, crescendoDuration, crescendoElapsed)) {
                 scheduleVolumeAdjustment();
             }
-        });    }
+        });
+    }
 
     /**
      * Stops playing the ringtone.
@@ -212,7 +223,13 @@ public final class AsyncRingtonePlayer {
         private long mCrescendoStopTime = 0;
 
         @Override
-        public boolean play(Context context, Uri ringtoneUri, long crescendoDuration) {
+        public boolean play(Context context, Uri ringtoneUri, long crescendoDuration,
+                            long crescendoElapsed) {
+
+            // A crescendo that was already completed is not played again.
+            if (crescendoElapsed >= crescendoDuration) {
+                crescendoDuration = 0;
+            }
             mCrescendoDuration = crescendoDuration;
 
             mAudioManager = (AudioManager) context.getSystemService(Context.AUDIO_SERVICE);
@@ -240,13 +257,14 @@ public final class AsyncRingtonePlayer {
                 mMediaPlayer.setVolume(IN_CALL_VOLUME, IN_CALL_VOLUME);
             } else if (crescendoDuration > 0) {
                 mMediaPlayer.setVolume(0f, 0f);
-                mCrescendoStopTime = Utils.now() + crescendoDuration;
+                mCrescendoStopTime = Utils.now() + crescendoDuration - crescendoElapsed;
             } else {
                 mMediaPlayer.setVolume(1f, 1f);
             }
 
             requestAudioFocus();
             mMediaPlayer.start();
+            AlarmFireTracer.markCurrent(AlarmFireTracer.STAGE_AUDIBLE);
 
             return crescendoDuration > 0;
         }
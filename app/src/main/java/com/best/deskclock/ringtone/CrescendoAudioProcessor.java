@@ -0,0 +1,143 @@
+// SPDX-License-Identifier: GPL-3.0-only
+
+package com.best.deskclock.ringtone;
+
+import androidx.annotation.OptIn;
+import androidx.media3.common.C;
+import androidx.media3.common.audio.BaseAudioProcessor;
+import androidx.media3.common.util.UnstableApi;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Applies the ringtone crescendo directly to the decoded audio samples.
+ * <p>
+ * The gain rises linearly in decibels from -40dB (near silent) to 0dB (max) over the crescendo
+ * duration. It is derived from the number of audio frames already processed, so the volume
+ * increases smoothly on every sample without any periodic callback on the main thread. The gain
+ * curve is computed once and linearly interpolated between its points.
+ * <p>
+ * The position in the crescendo is kept when the player flushes its audio pipeline (e.g. when
+ * the ringtone loops or is seeked) and only restarts when the processor is reset. A crescendo
+ * interrupted before it completed (e.g. by the death of the process) can be resumed by starting
+ * the processor at the elapsed part of the crescendo.
+ */
+@OptIn(markerClass = UnstableApi.class)
+final class CrescendoAudioProcessor extends BaseAudioProcessor {
+
+    /**
+     * The number of segments of the precomputed gain curve.
+     */
+    private static final int CURVE_RESOLUTION = 1024;
+
+    /**
+     * The gain scalars of the crescendo, from the start (-40dB) to the end (0dB) of the crescendo.
+     */
+    private static final float[] GAIN_CURVE = buildGainCurve();
+
+    private final long mDurationMillis;
+
+    /**
+     * The part of the crescendo that was already played when the processor was created.
+     */
+    private final long mElapsedMillis;
+
+    /**
+     * The number of audio frames processed since the crescendo started.
+     */
+    private long mProcessedFrames;
+
+    /**
+     * @param durationMillis the length of time over which the crescendo occurs
+     * @param elapsedMillis  the part of the crescendo already played
+     */
+    CrescendoAudioProcessor(long durationMillis, long elapsedMillis) {
+        mDurationMillis = durationMillis;
+        mElapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    protected AudioFormat onConfigure(AudioFormat inputAudioFormat)
+            throws UnhandledAudioFormatException {
+
+        if (inputAudioFormat.encoding != C.ENCODING_PCM_16BIT
+                && inputAudioFormat.encoding != C.ENCODING_PCM_FLOAT) {
+            throw new UnhandledAudioFormatException(inputAudioFormat);
+        }
+
+        return mDurationMillis > 0 ? inputAudioFormat : AudioFormat.NOT_SET;
+    }
+
+    @Override
+    public void queueInput(ByteBuffer inputBuffer) {
+        final int remaining = inputBuffer.remaining();
+        if (remaining == 0) {
+            return;
+        }
+
+        final ByteBuffer outputBuffer = replaceOutputBuffer(remaining);
+        final long totalFrames = mDurationMillis * inputAudioFormat.sampleRate / 1000;
+        final int channelCount = inputAudioFormat.channelCount;
+
+        if (mProcessedFrames == 0) {
+            mProcessedFrames = mElapsedMillis * inputAudioFormat.sampleRate / 1000;
+        }
+
+        if (mProcessedFrames >= totalFrames) {
+            // The crescendo is complete; the samples are passed through untouched.
+            outputBuffer.put(inputBuffer);
+        } else if (inputAudioFormat.encoding == C.ENCODING_PCM_16BIT) {
+            while (inputBuffer.hasRemaining()) {
+                final float gain = getGain(mProcessedFrames++, totalFrames);
+                for (int i = 0; i < channelCount; i++) {
+                    outputBuffer.putShort((short) (inputBuffer.getShort() * gain));
+                }
+            }
+        } else {
+            while (inputBuffer.hasRemaining()) {
+                final float gain = getGain(mProcessedFrames++, totalFrames);
+                for (int i = 0; i < channelCount; i++) {
+                    outputBuffer.putFloat(inputBuffer.getFloat() * gain);
+                }
+            }
+        }
+
+        outputBuffer.flip();
+    }
+
+    @Override
+    protected void onReset() {
+        mProcessedFrames = 0;
+    }
+
+    /**
+     * @param frame       the index of the audio frame since the crescendo started
+     * @param totalFrames the number of audio frames over which the crescendo occurs
+     * @return the gain scalar to apply to the samples of the given frame
+     */
+    private static float getGain(long frame, long totalFrames) {
+        if (frame >= totalFrames) {
+            return 1f;
+        }
+
+        final float position = (float) frame / totalFrames * CURVE_RESOLUTION;
+        final int index = (int) position;
+        final float start = GAIN_CURVE[index];
+        return start + (GAIN_CURVE[index + 1] - start) * (position - index);
+    }
+
+    /**
+     * @return the gain scalars that produce a linear increase in volume (in decibels)
+     */
+    private static float[] buildGainCurve() {
+        final float[] curve = new float[CURVE_RESOLUTION + 1];
+        for (int i = 0; i <= CURVE_RESOLUTION; i++) {
+            // Compute a target decibel between -40dB (near silent) and 0dB (max).
+            final float gain = ((float) i / CURVE_RESOLUTION * 40) - 40;
+
+            // Convert the target gain (in decibels) into the corresponding volume scalar.
+            curve[i] = (float) Math.pow(10f, gain / 20f);
+        }
+        return curve;
+    }
+}
@@ -10,8 +10,22 @@ import com.best.deskclock.data.CustomRingtone;
 
 class CustomRingtoneHolder extends RingtoneHolder {
 
-    CustomRingtoneHolder(CustomRingtone ringtone) {
+    /**
+     * Whether the ringtone could be read when it was last checked; assumed until it is checked.
+     */
+    private boolean mReadable;
+
+    CustomRingtoneHolder(CustomRingtone ringtone, boolean readable) {
         super(ringtone.getUri(), ringtone.getTitle());
+        mReadable = readable;
+    }
+
+    boolean isReadable() {
+        return mReadable;
+    }
+
+    void setReadable(boolean readable) {
+        mReadable = readable;
     }
 
     @Override
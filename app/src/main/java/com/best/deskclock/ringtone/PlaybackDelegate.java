@@ -16,10 +16,11 @@ public interface PlaybackDelegate {
     /**
      * Start playing the ringtone.
      *
+     * @param crescendoElapsed the part of the crescendo already played, when resuming a ringtone
      * @return {@code true} if a {@link #adjustVolume volume adjustment} should be scheduled.
      * {@code false} otherwise.
      */
-    boolean play(Context context, Uri ringtoneUri, long crescendoDuration);
+    boolean play(Context context, Uri ringtoneUri, long crescendoDuration, long crescendoElapsed);
 
     /**
      * Stop any ongoing ringtone playback.
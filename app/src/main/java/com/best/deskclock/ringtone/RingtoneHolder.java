@@ -16,7 +16,7 @@ import com.best.deskclock.utils.RingtoneUtils;
 
 abstract class RingtoneHolder extends ItemAdapter.ItemHolder<Uri> {
 
-    private final String mName;
+    private String mName;
     private boolean mSelected;
     private boolean mPlaying;
 
@@ -49,7 +49,14 @@ abstract class RingtoneHolder extends ItemAdapter.ItemHolder<Uri> {
         mPlaying = playing;
     }
 
+    /**
+     * @return the name of the ringtone; {@code null} while its title is not resolved yet
+     */
     String getName() {
-        return mName != null ? mName : DataModel.getDataModel().getRingtoneTitle(getUri());
+        return mName != null ? mName : DataModel.getDataModel().getCachedRingtoneTitle(getUri());
+    }
+
+    void setName(String name) {
+        mName = name;
     }
 }
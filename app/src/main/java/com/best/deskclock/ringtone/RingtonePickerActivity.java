@@ -69,6 +69,7 @@ import com.best.deskclock.widget.CollapsingToolbarBaseActivity;
 import com.google.android.material.color.MaterialColors;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -125,6 +126,11 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
      */
     RecyclerView mRingtoneContent;
 
+    /**
+     * Resolves the details of the ringtones missing from the cache, one load after another.
+     */
+    private final ExecutorService mRingtoneDetailsExecutor = Executors.newSingleThreadExecutor();
+
     /**
      * The title of the default ringtone.
      */
@@ -363,6 +369,13 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
         super.onStop();
     }
 
+    @Override
+    protected void onDestroy() {
+        mRingtoneDetailsExecutor.shutdownNow();
+
+        super.onDestroy();
+    }
+
     @Override
     protected void onSaveInstanceState(@NonNull Bundle outState) {
         super.onSaveInstanceState(outState);
@@ -384,6 +397,9 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
         // Update the adapter with fresh data.
         mRingtoneAdapter.setItems(itemHolders);
 
+        // Resolve the titles and readability that are not cached without delaying the display.
+        resolveRingtoneDetails(itemHolders);
+
         // Attempt to select the requested ringtone.
         final RingtoneHolder toSelect = getRingtoneHolder(mSelectedRingtoneUri);
         if (toSelect != null) {
@@ -407,6 +423,59 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
     public void onLoaderReset(@NonNull Loader<List<ItemAdapter.ItemHolder<Uri>>> loader) {
     }
 
+    /**
+     * Looks up, in a background task, the titles missing from the cache and checks again whether
+     * each custom ringtone can be read. Each row is updated as soon as its details are resolved.
+     */
+    private void resolveRingtoneDetails(List<ItemAdapter.ItemHolder<Uri>> itemHolders) {
+        final List<RingtoneHolder> toResolve = new ArrayList<>();
+        for (ItemAdapter.ItemHolder<Uri> itemHolder : itemHolders) {
+            if (itemHolder instanceof final RingtoneHolder ringtoneHolder) {
+                if (ringtoneHolder instanceof CustomRingtoneHolder || ringtoneHolder.getName() == null) {
+                    toResolve.add(ringtoneHolder);
+                }
+            }
+        }
+
+        if (toResolve.isEmpty()) {
+            return;
+        }
+
+        Handler handler = new Handler(Looper.getMainLooper());
+        mRingtoneDetailsExecutor.execute(() -> {
+            for (RingtoneHolder ringtoneHolder : toResolve) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+
+                final Uri uri = ringtoneHolder.getUri();
+                if (ringtoneHolder instanceof final CustomRingtoneHolder customRingtoneHolder) {
+                    final boolean readable = DataModel.getDataModel().loadRingtoneReadability(uri);
+                    if (readable != customRingtoneHolder.isReadable()) {
+                        handler.post(() -> {
+                            if (isDestroyed()) {
+                                return;
+                            }
+
+                            customRingtoneHolder.setReadable(readable);
+                            customRingtoneHolder.notifyItemChanged();
+                        });
+                    }
+                } else {
+                    final String title = DataModel.getDataModel().loadRingtoneTitle(uri);
+                    handler.post(() -> {
+                        if (isDestroyed()) {
+                            return;
+                        }
+
+                        ringtoneHolder.setName(title);
+                        ringtoneHolder.notifyItemChanged();
+                    });
+                }
+            }
+        });
+    }
+
     /**
      * This method adjusts the space occupied by system elements (such as the status bar,
      * navigation bar or screen notch) and adjust the display of the application interface
@@ -662,9 +731,11 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
             }
 
             final String title = name;
+            // Copy the ringtone and record its metadata off the main thread.
+            final Uri importedUri = DataModel.getDataModel().importCustomRingtone(uri, title);
             handler.post(() -> {
                 // When the loader completes, it must play the new ringtone.
-                mSelectedRingtoneUri = DataModel.getDataModel().customRingtoneToAdd(uri, title);
+                mSelectedRingtoneUri = DataModel.getDataModel().customRingtoneToAdd(importedUri, title);
                 mIsPlaying = true;
 
                 // Reload the data to reflect the change in the UI.
@@ -706,10 +777,11 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
                     }
 
                     String finalName = name;
+                    Uri importedUri = DataModel.getDataModel().importCustomRingtone(fileUri, finalName);
 
                     handler.post(() -> {
                         // Add the new custom ringtone to the data model.
-                        DataModel.getDataModel().customRingtoneToAdd(fileUri, finalName);
+                        DataModel.getDataModel().customRingtoneToAdd(importedUri, finalName);
 
                         // Reload the data to reflect the change in the UI.
                         LoaderManager.getInstance(this).restartLoader(0, null, RingtonePickerActivity.this);
@@ -23,10 +23,17 @@ import androidx.media3.common.AudioAttributes;
 import androidx.media3.common.C;
 import androidx.media3.common.MediaItem;
 import androidx.media3.common.Player;
+import androidx.media3.common.audio.AudioProcessor;
 import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.DefaultRenderersFactory;
 import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.RenderersFactory;
+import androidx.media3.exoplayer.audio.AudioSink;
+import androidx.media3.exoplayer.audio.DefaultAudioSink;
 
 import com.best.deskclock.R;
+import com.best.deskclock.alarms.AlarmFireTracer;
+import com.best.deskclock.data.DataModel;
 import com.best.deskclock.data.SettingsDAO;
 import com.best.deskclock.utils.LogUtils;
 import com.best.deskclock.utils.RingtoneUtils;
@@ -40,7 +47,8 @@ import com.best.deskclock.utils.SdkUtils;
  *
  * <p><strong>Key features:</strong></p>
  * <ul>
- *     <li>Optional crescendo playback by gradually increasing volume over a configurable duration.</li>
+ *     <li>Optional crescendo playback by gradually increasing volume over a configurable duration;
+ *     the gain is applied to the decoded samples by a {@link CrescendoAudioProcessor}.</li>
  *     <li>In-call support with reduced playback volume.</li>
  *     <li>Automatic fallback to a default ringtone in case of failure.</li>
  *     <li>Automatic routing to Bluetooth devices if connected; otherwise to the speaker.</li>
@@ -70,23 +78,12 @@ public final class RingtonePlayer {
     private AudioDeviceCallback mAudioDeviceCallback;
 
     private boolean mIsAutoRoutingToBluetoothDeviceEnabled;
-    private long mCrescendoDuration = 0;
-    private long mCrescendoStopTime = 0;
     private int mOriginalMediaVolume = -1;
     private boolean mMediaVolumeModified = false;
     private boolean mIsCrescendoRunningForSystemMediaVolume = false;
 
     private final Handler mVolumeHandler = new Handler(Looper.getMainLooper());
 
-    private final Runnable mVolumeAdjustmentRunnable = new Runnable() {
-        @Override
-        public void run() {
-            if (adjustVolume()) {
-                mVolumeHandler.postDelayed(this, 50);
-            }
-        }
-    };
-
     /**
      * Allows to detect when the preference related to automatic routing to Bluetooth devices changes,
      * in order to dynamically update the behavior of the ringtone player.
@@ -144,8 +141,8 @@ public final class RingtonePlayer {
      * the volume appropriately based on the current context:</p>
      * <ul>
      *     <li>If a phone call is active, volume is reduced to a safe level (12.5%).</li>
-     *     <li>If a crescendo duration is specified, playback starts silently and volume increases gradually.</li>
-     *     <li>Otherwise, volume is immediately set to maximum (100%).</li>
+     *     <li>Otherwise, volume is set to maximum (100%); any crescendo is applied on top of it
+     *     by the audio pipeline.</li>
      * </ul>
      */
     private final Player.Listener mPlayerListener = new Player.Listener() {
@@ -153,13 +150,10 @@ public final class RingtonePlayer {
         public void onPlaybackStateChanged(int state) {
             if (state == Player.STATE_READY) {
                 mExoPlayer.play();
+                AlarmFireTracer.markCurrent(AlarmFireTracer.STAGE_AUDIBLE);
 
                 if (isInTelephoneCall(mAudioManager)) {
                     mExoPlayer.setVolume(IN_CALL_VOLUME);
-                } else if (mCrescendoDuration > 0) {
-                    mCrescendoStopTime = System.currentTimeMillis() + mCrescendoDuration;
-                    mExoPlayer.setVolume(0f);
-                    mVolumeHandler.post(mVolumeAdjustmentRunnable);
                 } else {
                     mExoPlayer.setVolume(1f);
                 }
@@ -194,6 +188,16 @@ public final class RingtonePlayer {
      * </ul>
      */
     public void play(Uri ringtoneUri, long crescendoDuration) {
+        play(ringtoneUri, crescendoDuration, 0);
+    }
+
+    /**
+     * Starts playback of the specified alarm ringtone as {@link #play(Uri, long)} does, resuming
+     * its crescendo after the part of it already played (e.g. before the process was killed).
+     *
+     * @param crescendoElapsed the part of the crescendo already played
+     */
+    public void play(Uri ringtoneUri, long crescendoDuration, long crescendoElapsed) {
         if (mExoPlayer != null) {
             stopSystemMediaVolumeCrescendo();
             stop();
@@ -203,8 +207,6 @@ public final class RingtonePlayer {
             initAudioDeviceCallback();
         }
 
-        mCrescendoDuration = crescendoDuration;
-
         boolean isBluetooth = false;
         AudioDeviceInfo preferredDevice = null;
 
@@ -230,12 +232,18 @@ public final class RingtonePlayer {
             }
         }
 
-        mExoPlayer = new ExoPlayer.Builder(mContext)
+        boolean inCall = isInTelephoneCall(mAudioManager);
+
+        // The crescendo is not applied when the device is in a telephone call or when it was
+        // already completed
+        final long effectiveCrescendoDuration =
+                inCall || crescendoElapsed >= crescendoDuration ? 0 : crescendoDuration;
+
+        mExoPlayer = new ExoPlayer.Builder(mContext,
+                        buildRenderersFactory(effectiveCrescendoDuration, crescendoElapsed))
                 .setAudioAttributes(buildAudioAttributes(isBluetooth), isBluetooth)
                 .build();
 
-        boolean inCall = isInTelephoneCall(mAudioManager);
-
         if (inCall) {
             ringtoneUri = getInCallRingtoneUri(mContext);
         }
@@ -244,6 +252,12 @@ public final class RingtonePlayer {
             ringtoneUri = RingtoneManager.getActualDefaultRingtoneUri(mContext, RingtoneManager.TYPE_ALARM);
         }
 
+        // A local copy of a custom ringtone opens faster, even before the device is unlocked.
+        final Uri cachedUri = DataModel.getDataModel().getLocallyCachedRingtoneUri(ringtoneUri);
+        if (cachedUri != null) {
+            ringtoneUri = cachedUri;
+        }
+
         if (ringtoneUri == null || !RingtoneUtils.isRingtoneUriReadable(mContext, ringtoneUri)) {
             ringtoneUri = getFallbackRingtoneUri(mContext);
         }
@@ -283,11 +297,6 @@ public final class RingtonePlayer {
             mExoPlayer = null;
         }
 
-        mVolumeHandler.removeCallbacks(mVolumeAdjustmentRunnable);
-
-        mCrescendoDuration = 0;
-        mCrescendoStopTime = 0;
-
         // Restore the media volume to its original state
         if (mMediaVolumeModified && mOriginalMediaVolume >= 0) {
             int currentVolume = mAudioManager.getStreamVolume(AudioManager.STREAM_MUSIC);
@@ -305,54 +314,37 @@ public final class RingtonePlayer {
     }
 
     /**
-     * @return {@code true} if volume was adjusted and the crescendo is still ongoing;
-     * {@code false} if the crescendo is complete or playback is not active.
+     * Builds the renderers of the {@link ExoPlayer} instance.
+     *
+     * <p>If a crescendo duration is specified, the audio sink is given a
+     * {@link CrescendoAudioProcessor} that raises the gain of the decoded samples from -40dB to
+     * 0dB over that duration, so that no volume adjustment has to be scheduled during playback.</p>
+     *
+     * @param crescendoDuration length of time over which the crescendo occurs; {@code 0} for none
+     * @param crescendoElapsed  the part of the crescendo already played
      */
-    public boolean adjustVolume() {
-        if (mExoPlayer == null) {
-            return false;
+    private RenderersFactory buildRenderersFactory(long crescendoDuration, long crescendoElapsed) {
+        if (crescendoDuration <= 0) {
+            return new DefaultRenderersFactory(mContext);
         }
 
-        int state = mExoPlayer.getPlaybackState();
-        boolean isPlaying = (state == Player.STATE_READY || state == Player.STATE_BUFFERING)
-                && mExoPlayer.getPlayWhenReady();
-
-        if (!isPlaying) {
-            return false;
-        }
-
-        long currentTime = System.currentTimeMillis();
-        if (currentTime > mCrescendoStopTime) {
-            mExoPlayer.setVolume(1f);
-            return false;
-        }
-
-        float volume = computeVolume(currentTime, mCrescendoStopTime, mCrescendoDuration);
-        mExoPlayer.setVolume(volume);
-
-        return true;
-    }
-
-    /**
-     * @param currentTime current time of the device
-     * @param stopTime    time at which the crescendo finishes
-     * @param duration    length of time over which the crescendo occurs
-     * @return the scalar volume value that produces a linear increase in volume (in decibels)
-     */
-    private static float computeVolume(long currentTime, long stopTime, long duration) {
-        // Compute the percentage of the crescendo that has completed.
-        float fractionComplete = 1 - Math.max(0f, Math.min(1f, (stopTime - currentTime) / (float) duration));
-
-        // Use the fraction to compute a target decibel between -40dB (near silent) and 0dB (max).
-        final float gain = (fractionComplete * 40) - 40;
+        LOGGER.v("Ringtone crescendo over %d ms", crescendoDuration);
 
-        // Convert the target gain (in decibels) into the corresponding volume scalar.
-        final float volume = (float) Math.pow(10f, gain / 20f);
+        final CrescendoAudioProcessor crescendoProcessor =
+                new CrescendoAudioProcessor(crescendoDuration, crescendoElapsed);
 
-        LOGGER.v("Ringtone crescendo %,.2f%% complete (scalar: %f, volume: %f dB)",
-                fractionComplete * 100, volume, gain);
-
-        return volume;
+        return new DefaultRenderersFactory(mContext) {
+            @Override
+            protected AudioSink buildAudioSink(Context context, boolean enableFloatOutput,
+                                               boolean enableAudioTrackPlaybackParams) {
+
+                return new DefaultAudioSink.Builder(context)
+                        .setEnableFloatOutput(enableFloatOutput)
+                        .setEnableAudioTrackPlaybackParams(enableAudioTrackPlaybackParams)
+                        .setAudioProcessors(new AudioProcessor[]{crescendoProcessor})
+                        .build();
+            }
+        };
     }
 
     /**
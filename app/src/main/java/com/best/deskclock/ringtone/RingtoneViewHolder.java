@@ -32,7 +32,6 @@ import com.best.deskclock.ItemAdapter;
 import com.best.deskclock.R;
 import com.best.deskclock.data.SettingsDAO;
 import com.best.deskclock.utils.AnimatorUtils;
-import com.best.deskclock.utils.RingtoneUtils;
 import com.best.deskclock.utils.ThemeUtils;
 
 import com.google.android.material.color.MaterialColors;
@@ -62,10 +61,12 @@ final class RingtoneViewHolder extends ItemAdapter.ItemViewHolder<RingtoneHolder
 
     @Override
     protected void onBindItemView(RingtoneHolder itemHolder) {
-        mNameView.setText(itemHolder.getName());
+        final Context context = itemView.getContext();
+        // The title is displayed once it is resolved in the background.
+        final String name = itemHolder.getName();
+        mNameView.setText(name != null ? name : context.getString(R.string.ringtone_title_loading));
         // Allow text scrolling (all other attributes are indicated in the "ringtone_item_sound.xml" file)
         mNameView.setSelected(true);
-        final Context context = itemView.getContext();
         final boolean opaque = itemHolder.isSelected();
         mNameView.setAlpha(opaque ? 1f : .63f);
         mImageView.setAlpha(opaque ? 1f : .63f);
@@ -75,7 +76,7 @@ final class RingtoneViewHolder extends ItemAdapter.ItemViewHolder<RingtoneHolder
 
         final int itemViewType = getItemViewType();
         if (itemViewType == VIEW_TYPE_CUSTOM_SOUND) {
-            if (!RingtoneUtils.isRingtoneUriReadable(context, itemHolder.getUri())) {
+            if (!((CustomRingtoneHolder) itemHolder).isReadable()) {
                 final Drawable error = AppCompatResources.getDrawable(context, R.drawable.ic_error);
                 if (error != null) {
                     error.setTint(Color.parseColor("#FF4444"));
@@ -50,10 +50,12 @@ import androidx.preference.SwitchPreferenceCompat;
 
 import com.best.deskclock.BuildConfig;
 import com.best.deskclock.R;
+import com.best.deskclock.alarms.AlarmFireTracer;
 import com.best.deskclock.alarms.AlarmStateManager;
 import com.best.deskclock.controller.ThemeController;
 import com.best.deskclock.data.DataModel;
 import com.best.deskclock.data.SettingsDAO;
+import com.best.deskclock.events.JournalEventTracker;
 import com.best.deskclock.provider.Alarm;
 import com.best.deskclock.uidata.UiDataModel;
 import com.best.deskclock.utils.LogUtils;
@@ -388,15 +390,19 @@ public class AboutFragment extends ScreenFragment
     }
 
     /**
-     * Export the application logs to a ZIP archive containing two files:
+     * Export the application logs to a ZIP archive containing four files:
      * - logcat_logs.txt: system logs retrieved via logcat
      * - local_logs.txt: custom logs saved via LogUtils
+     * - alarm_fire_traces.txt: timings of the last alarm firings recorded by AlarmFireTracer
+     * - event_journal.csv: events recorded by JournalEventTracker
      */
     private void exportLogsAsZip(Context context, Uri zipUri) {
         try {
             // Temp files
             File logcatFile = new File(context.getCacheDir(), "logcat_logs.txt");
             File localLogFile = new File(context.getCacheDir(), "local_logs.txt");
+            File alarmFireTraceFile = new File(context.getCacheDir(), "alarm_fire_traces.txt");
+            File eventJournalFile = new File(context.getCacheDir(), "event_journal.csv");
 
             // 1. Save Logcat logs
             Process process = Runtime.getRuntime().exec("logcat -d -b all");
@@ -414,7 +420,17 @@ public class AboutFragment extends ScreenFragment
             localLogWriter.write(LogUtils.getSavedLocalLogs(context));
             localLogWriter.close();
 
-            // 3. Write both files into the zip
+            // 3. Save alarm fire traces
+            FileWriter alarmFireTraceWriter = new FileWriter(alarmFireTraceFile);
+            alarmFireTraceWriter.write(AlarmFireTracer.dump());
+            alarmFireTraceWriter.close();
+
+            // 4. Save event journal
+            FileWriter eventJournalWriter = new FileWriter(eventJournalFile);
+            JournalEventTracker.getInstance(context).export(eventJournalWriter);
+            eventJournalWriter.close();
+
+            // 5. Write all files into the zip
             OutputStream outputStream = context.getContentResolver().openOutputStream(zipUri);
             if (outputStream == null) {
                 return;
@@ -424,6 +440,8 @@ public class AboutFragment extends ScreenFragment
 
             addFileToZip(logcatFile, "logcat_logs.txt", zipOut);
             addFileToZip(localLogFile, "local_logs.txt", zipOut);
+            addFileToZip(alarmFireTraceFile, "alarm_fire_traces.txt", zipOut);
+            addFileToZip(eventJournalFile, "event_journal.csv", zipOut);
 
             zipOut.close();
 
@@ -433,6 +451,12 @@ public class AboutFragment extends ScreenFragment
             if (!localLogFile.delete()) {
                 LogUtils.w("Failed to delete temporary local log file: " + localLogFile.getAbsolutePath());
             }
+            if (!alarmFireTraceFile.delete()) {
+                LogUtils.w("Failed to delete temporary alarm fire trace file: " + alarmFireTraceFile.getAbsolutePath());
+            }
+            if (!eventJournalFile.delete()) {
+                LogUtils.w("Failed to delete temporary event journal file: " + eventJournalFile.getAbsolutePath());
+            }
 
         } catch (IOException e) {
             LogUtils.e("Error exporting logs", e);
@@ -14,6 +14,7 @@ import static com.best.deskclock.settings.PreferencesKeys.KEY_ENABLE_ALARM_VIBRA
 import static com.best.deskclock.settings.PreferencesKeys.KEY_ENABLE_DELETE_OCCASIONAL_ALARM_BY_DEFAULT;
 import static com.best.deskclock.settings.PreferencesKeys.KEY_ENABLE_SNOOZED_OR_DISMISSED_ALARM_VIBRATIONS;
 import static com.best.deskclock.settings.PreferencesKeys.KEY_FLIP_ACTION;
+import static com.best.deskclock.settings.PreferencesKeys.KEY_LOCAL_RINGTONE_CACHE;
 import static com.best.deskclock.settings.PreferencesKeys.KEY_MATERIAL_DATE_PICKER_STYLE;
 import static com.best.deskclock.settings.PreferencesKeys.KEY_MATERIAL_TIME_PICKER_STYLE;
 import static com.best.deskclock.settings.PreferencesKeys.KEY_POWER_BUTTON;
@@ -52,6 +53,7 @@ import com.best.deskclock.provider.Alarm;
 import com.best.deskclock.ringtone.RingtonePickerActivity;
 import com.best.deskclock.utils.AlarmUtils;
 import com.best.deskclock.utils.RingtoneUtils;
+import com.best.deskclock.utils.SdkUtils;
 import com.best.deskclock.utils.Utils;
 
 import java.util.List;
@@ -67,6 +69,7 @@ public class AlarmSettingsFragment extends ScreenFragment
     ListPreference mAutoSilencePref;
     AlarmVolumePreference mAlarmVolumePref;
     SwitchPreferenceCompat mAdvancedAudioPlaybackPref;
+    SwitchPreferenceCompat mLocalRingtoneCachePref;
     SwitchPreferenceCompat mAutoRoutingToBluetoothDevicePref;
     SwitchPreferenceCompat mSystemMediaVolume;
     CustomSeekbarPreference mBluetoothVolumePref;
@@ -100,6 +103,7 @@ public class AlarmSettingsFragment extends ScreenFragment
         mAutoSilencePref = findPreference(KEY_AUTO_SILENCE);
         mAlarmVolumePref = findPreference(KEY_ALARM_VOLUME_SETTING);
         mAdvancedAudioPlaybackPref = findPreference(KEY_ADVANCED_AUDIO_PLAYBACK);
+        mLocalRingtoneCachePref = findPreference(KEY_LOCAL_RINGTONE_CACHE);
         mAutoRoutingToBluetoothDevicePref = findPreference(KEY_AUTO_ROUTING_TO_BLUETOOTH_DEVICE);
         mSystemMediaVolume = findPreference(KEY_SYSTEM_MEDIA_VOLUME);
         mBluetoothVolumePref = findPreference(KEY_BLUETOOTH_VOLUME);
@@ -171,7 +175,8 @@ public class AlarmSettingsFragment extends ScreenFragment
             }
 
             case KEY_ENABLE_ALARM_VIBRATIONS_BY_DEFAULT, KEY_ENABLE_SNOOZED_OR_DISMISSED_ALARM_VIBRATIONS,
-                 KEY_TURN_ON_BACK_FLASH_FOR_TRIGGERED_ALARM, KEY_ENABLE_DELETE_OCCASIONAL_ALARM_BY_DEFAULT ->
+                 KEY_TURN_ON_BACK_FLASH_FOR_TRIGGERED_ALARM, KEY_ENABLE_DELETE_OCCASIONAL_ALARM_BY_DEFAULT,
+                 KEY_LOCAL_RINGTONE_CACHE ->
                     Utils.setVibrationTime(requireContext(), 50);
 
             case KEY_ADVANCED_AUDIO_PLAYBACK -> {
@@ -310,6 +315,10 @@ public class AlarmSettingsFragment extends ScreenFragment
 
         mAdvancedAudioPlaybackPref.setOnPreferenceChangeListener(this);
 
+        // The device protected storage only exists on N+.
+        mLocalRingtoneCachePref.setVisible(SdkUtils.isAtLeastAndroid7());
+        mLocalRingtoneCachePref.setOnPreferenceChangeListener(this);
+
         mAutoRoutingToBluetoothDevicePref.setVisible(SettingsDAO.isAdvancedAudioPlaybackEnabled(mPrefs));
         mAutoRoutingToBluetoothDevicePref.setOnPreferenceChangeListener(this);
 
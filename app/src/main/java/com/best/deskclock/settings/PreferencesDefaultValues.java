@@ -63,6 +63,7 @@ public class PreferencesDefaultValues {
     public static final int DEFAULT_ALARM_SNOOZE_DURATION = 10;
     public static final int DEFAULT_ALARM_VOLUME_CRESCENDO_DURATION = 0;
     public static final boolean DEFAULT_ADVANCED_AUDIO_PLAYBACK = false;
+    public static final boolean DEFAULT_LOCAL_RINGTONE_CACHE = false;
     public static final boolean DEFAULT_AUTO_ROUTING_TO_BLUETOOTH_DEVICE = false;
     public static final boolean DEFAULT_SYSTEM_MEDIA_VOLUME = true;
     public static final int DEFAULT_BLUETOOTH_VOLUME = 70;
@@ -70,6 +70,7 @@ public class PreferencesKeys {
     public static final String KEY_ALARM_VOLUME_CRESCENDO_DURATION = "key_alarm_volume_crescendo_duration";
     public static final String KEY_RINGTONE_PREVIEW_PLAYING = "key_ringtone_preview_playing";
     public static final String KEY_ADVANCED_AUDIO_PLAYBACK = "key_advanced_audio_playback";
+    public static final String KEY_LOCAL_RINGTONE_CACHE = "key_local_ringtone_cache";
     public static final String KEY_AUTO_ROUTING_TO_BLUETOOTH_DEVICE = "key_auto_routing_to_bluetooth_device";
     public static final String KEY_SYSTEM_MEDIA_VOLUME = "key_system_media_volume";
     public static final String KEY_BLUETOOTH_VOLUME = "key_bluetooth_volume";
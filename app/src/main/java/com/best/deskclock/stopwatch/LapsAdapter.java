@@ -22,6 +22,7 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.best.deskclock.R;
 import com.best.deskclock.data.DataModel;
 import com.best.deskclock.data.Lap;
+import com.best.deskclock.data.LapStats;
 import com.best.deskclock.data.Stopwatch;
 import com.best.deskclock.uidata.UiDataModel;
 import com.best.deskclock.utils.ThemeUtils;
@@ -134,7 +135,7 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
      */
     @Override
     public int getItemCount() {
-        final int lapCount = getLaps().size();
+        final int lapCount = getLapCount();
         final int currentLapCount = lapCount == 0 ? 0 : 1;
         return currentLapCount + lapCount;
     }
@@ -163,23 +164,22 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
             // For the current lap, compute times relative to the stopwatch.
             totalTime = getStopwatch().getTotalTime();
             lapTime = DataModel.getDataModel().getCurrentLapTime(totalTime);
-            lapNumber = getLaps().size() + 1;
+            lapNumber = getLapCount() + 1;
         }
 
         // Bind data into the child views.
         viewHolder.lapTime.setText(formatLapTime(lapTime, true));
         viewHolder.accumulatedTime.setText(formatAccumulatedTime(totalTime, true));
-        viewHolder.lapNumber.setText(formatLapNumber(getLaps().size() + 1, lapNumber));
+        viewHolder.lapNumber.setText(formatLapNumber(getLapCount() + 1, lapNumber));
     }
 
     @Override
     public long getItemId(int position) {
-        final List<Lap> laps = getLaps();
         if (position == 0) {
-            return laps.size() + 1;
+            return getLapCount() + 1;
         }
 
-        return laps.get(position - 1).getLapNumber();
+        return getLaps().get(position - 1).getLapNumber();
     }
 
     /**
@@ -277,6 +277,24 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
             final long lapTime = DataModel.getDataModel().getCurrentLapTime(totalTime);
             builder.append(formatTime(lapTime, lapTime, " "));
             builder.append("\n");
+
+            // Summarize the recorded laps.
+            final LapStats lapStats = DataModel.getDataModel().getLapStats();
+            final long bestLapTime = lapStats.getBestLapTime();
+            final long meanLapTime = lapStats.getMeanLapTime();
+            builder.append("\n");
+            builder.append(mContext.getString(R.string.sw_share_best_lap,
+                    formatTime(bestLapTime, bestLapTime, " ")));
+            builder.append("\n");
+            builder.append(mContext.getString(R.string.sw_share_mean_lap,
+                    formatTime(meanLapTime, meanLapTime, " ")));
+            builder.append("\n");
+            if (lapStats.getCount() > 1) {
+                final long deviation = lapStats.getStandardDeviation();
+                builder.append(mContext.getString(R.string.sw_share_lap_deviation,
+                        formatTime(deviation, deviation, " ")));
+                builder.append("\n");
+            }
         }
 
         Utils.setVibrationTime(mContext, 10);
@@ -349,6 +367,10 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
         return DataModel.getDataModel().getLaps();
     }
 
+    private int getLapCount() {
+        return DataModel.getDataModel().getLapStats().getCount();
+    }
+
     /**
      * Cache the child views of each lap item view.
      */
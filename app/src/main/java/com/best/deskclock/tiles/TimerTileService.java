@@ -20,6 +20,7 @@ import com.best.deskclock.DeskClock;
 import com.best.deskclock.R;
 import com.best.deskclock.data.DataModel;
 import com.best.deskclock.data.Timer;
+import com.best.deskclock.events.Events;
 import com.best.deskclock.uidata.UiDataModel;
 import com.best.deskclock.utils.SdkUtils;
 
@@ -45,6 +46,23 @@ public class TimerTileService extends TileService {
 
         UiDataModel.getUiDataModel().setSelectedTab(TIMERS);
 
+        // Pause all running timers, or resume all paused timers if none is running.
+        boolean hasRunningTimers = false;
+        boolean hasPausedTimers = false;
+        for (Timer timer : DataModel.getDataModel().getTimers()) {
+            hasRunningTimers |= timer.isRunning();
+            hasPausedTimers |= timer.isPaused();
+        }
+
+        final int label = intent.getIntExtra(Events.EXTRA_EVENT_LABEL, R.string.label_intent);
+        if (hasRunningTimers) {
+            DataModel.getDataModel().pauseAllTimers();
+            Events.sendTimerEvent(R.string.action_pause, label);
+        } else if (hasPausedTimers) {
+            DataModel.getDataModel().resumeAllTimers();
+            Events.sendTimerEvent(R.string.action_start, label);
+        }
+
         if (SdkUtils.isAtLeastAndroid14()) {
             startActivityAndCollapse(PendingIntent.getActivity(this, 0, intent, PendingIntent.FLAG_IMMUTABLE));
         } else {
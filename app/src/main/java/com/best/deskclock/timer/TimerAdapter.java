@@ -107,6 +107,11 @@ public class TimerAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
         notifyDataSetChanged();
     }
 
+    @Override
+    public void timersUpdated(List<Timer> before, List<Timer> after) {
+        notifyDataSetChanged();
+    }
+
     /**
      * @return {@code true} if at least one timer is in a state requiring continuous updates
      */
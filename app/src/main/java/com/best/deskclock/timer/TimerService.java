@@ -44,6 +44,11 @@ public final class TimerService extends Service {
      * Extra for many actions specific to a given timer.
      */
     public static final String EXTRA_TIMER_ID = "com.best.deskclock.extra.TIMER_ID";
+
+    /**
+     * Extra for actions specific to a named group of timers.
+     */
+    public static final String EXTRA_TIMER_GROUP = "com.best.deskclock.extra.TIMER_GROUP";
     private static final String ACTION_PREFIX = "com.best.deskclock.action.";
 
     /**
@@ -75,6 +80,26 @@ public final class TimerService extends Service {
     public static final String ACTION_RESET_EXPIRED_TIMERS = ACTION_PREFIX + "RESET_EXPIRED_TIMERS";
     private static final String ACTION_RESET_MISSED_TIMERS = ACTION_PREFIX + "RESET_MISSED_TIMERS";
 
+    /**
+     * Starts all paused and reset timers.
+     */
+    public static final String ACTION_START_ALL_TIMERS = ACTION_PREFIX + "START_ALL_TIMERS";
+
+    /**
+     * Resumes all paused timers.
+     */
+    public static final String ACTION_RESUME_ALL_TIMERS = ACTION_PREFIX + "RESUME_ALL_TIMERS";
+
+    /**
+     * Pauses all running timers.
+     */
+    public static final String ACTION_PAUSE_ALL_TIMERS = ACTION_PREFIX + "PAUSE_ALL_TIMERS";
+
+    /**
+     * Starts all the timers of a named group together.
+     */
+    public static final String ACTION_START_TIMER_GROUP = ACTION_PREFIX + "START_TIMER_GROUP";
+
     public static Intent createTimerExpiredIntent(Context context, Timer timer) {
         final int timerId = timer == null ? -1 : timer.getId();
         return new Intent(context, TimerService.class)
@@ -99,6 +124,27 @@ public final class TimerService extends Service {
                 .putExtra(EXTRA_TIMER_ID, timerId);
     }
 
+    public static Intent createStartAllTimersIntent(Context context) {
+        return new Intent(context, TimerService.class)
+                .setAction(ACTION_START_ALL_TIMERS);
+    }
+
+    public static Intent createResumeAllTimersIntent(Context context) {
+        return new Intent(context, TimerService.class)
+                .setAction(ACTION_RESUME_ALL_TIMERS);
+    }
+
+    public static Intent createPauseAllTimersIntent(Context context) {
+        return new Intent(context, TimerService.class)
+                .setAction(ACTION_PAUSE_ALL_TIMERS);
+    }
+
+    public static Intent createStartTimerGroupIntent(Context context, String groupName) {
+        return new Intent(context, TimerService.class)
+                .setAction(ACTION_START_TIMER_GROUP)
+                .putExtra(EXTRA_TIMER_GROUP, groupName);
+    }
+
     public static Intent createUpdateNotificationIntent(Context context) {
         return new Intent(context, TimerService.class)
                 .setAction(ACTION_UPDATE_NOTIFICATION);
@@ -145,6 +191,29 @@ public final class TimerService extends Service {
                         DataModel.getDataModel().resetMissedTimers(label);
                         return START_NOT_STICKY;
                     }
+                    case ACTION_START_ALL_TIMERS -> {
+                        Events.sendTimerEvent(R.string.action_start, label);
+                        DataModel.getDataModel().startAllTimers();
+                        return START_NOT_STICKY;
+                    }
+                    case ACTION_RESUME_ALL_TIMERS -> {
+                        Events.sendTimerEvent(R.string.action_start, label);
+                        DataModel.getDataModel().resumeAllTimers();
+                        return START_NOT_STICKY;
+                    }
+                    case ACTION_PAUSE_ALL_TIMERS -> {
+                        Events.sendTimerEvent(R.string.action_pause, label);
+                        DataModel.getDataModel().pauseAllTimers();
+                        return START_NOT_STICKY;
+                    }
+                    case ACTION_START_TIMER_GROUP -> {
+                        final String groupName = intent.getStringExtra(EXTRA_TIMER_GROUP);
+                        if (groupName != null) {
+                            Events.sendTimerEvent(R.string.action_start, label);
+                            DataModel.getDataModel().startTimerGroup(groupName);
+                        }
+                        return START_NOT_STICKY;
+                    }
                 }
             }
 
@@ -177,6 +246,13 @@ public final class TimerService extends Service {
                         detachListeners();
                     }
                     case ACTION_TIMER_EXPIRED -> {
+                        // The alarm fires ahead of the expiration time; track the remaining time
+                        // precisely until the timer actually expires.
+                        if (timer.isRunning() && timer.getRemainingTime() > 0) {
+                            DataModel.getDataModel().updateTimerExpiration();
+                            return START_NOT_STICKY;
+                        }
+
                         Events.sendTimerEvent(R.string.action_fire, label);
                         DataModel.getDataModel().expireTimer(this, timer);
                         attachListeners();
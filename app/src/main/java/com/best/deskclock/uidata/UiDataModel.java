@@ -62,8 +62,6 @@ public final class UiDataModel {
         if (mContext != context) {
             mContext = context.getApplicationContext();
 
-            mPeriodicCallbackModel = new PeriodicCallbackModel(mContext);
-            mFormattedStringModel = new FormattedStringModel(mContext);
             mTabModel = new TabModel(prefs);
         }
     }
@@ -83,7 +81,7 @@ public final class UiDataModel {
      */
     public String getFormattedNumber(int value) {
         enforceMainLooper();
-        return mFormattedStringModel.getFormattedNumber(value);
+        return getFormattedStringModel().getFormattedNumber(value);
     }
 
     /**
@@ -99,7 +97,7 @@ public final class UiDataModel {
      */
     public String getFormattedNumber(int value, int length) {
         enforceMainLooper();
-        return mFormattedStringModel.getFormattedNumber(value, length);
+        return getFormattedStringModel().getFormattedNumber(value, length);
     }
 
     /**
@@ -117,7 +115,7 @@ public final class UiDataModel {
      */
     public String getShortWeekday(int calendarDay) {
         enforceMainLooper();
-        return mFormattedStringModel.getShortWeekday(calendarDay);
+        return getFormattedStringModel().getShortWeekday(calendarDay);
     }
 
     /**
@@ -135,7 +133,7 @@ public final class UiDataModel {
      */
     public String getLongWeekday(int calendarDay) {
         enforceMainLooper();
-        return mFormattedStringModel.getLongWeekday(calendarDay);
+        return getFormattedStringModel().getLongWeekday(calendarDay);
     }
 
     // **********
@@ -228,7 +226,7 @@ public final class UiDataModel {
      */
     public void addHalfMinuteCallback(Runnable runnable, long offset) {
         enforceMainLooper();
-        mPeriodicCallbackModel.addHalfMinuteCallback(runnable, offset);
+        getPeriodicCallbackModel().addHalfMinuteCallback(runnable, offset);
     }
 
     /**
@@ -237,7 +235,7 @@ public final class UiDataModel {
      */
     public void addQuarterHourCallback(Runnable runnable, long offset) {
         enforceMainLooper();
-        mPeriodicCallbackModel.addQuarterHourCallback(runnable, offset);
+        getPeriodicCallbackModel().addQuarterHourCallback(runnable, offset);
     }
 
     /**
@@ -246,7 +244,7 @@ public final class UiDataModel {
      */
     public void addMidnightCallback(Runnable runnable, long offset) {
         enforceMainLooper();
-        mPeriodicCallbackModel.addMidnightCallback(runnable, offset);
+        getPeriodicCallbackModel().addMidnightCallback(runnable, offset);
     }
 
     /**
@@ -254,7 +252,27 @@ public final class UiDataModel {
      */
     public void removePeriodicCallback(Runnable runnable) {
         enforceMainLooper();
-        mPeriodicCallbackModel.removePeriodicCallback(runnable);
+        getPeriodicCallbackModel().removePeriodicCallback(runnable);
+    }
+
+    /**
+     * @return the model of formatted strings, created with its locale receiver on first use
+     */
+    private FormattedStringModel getFormattedStringModel() {
+        if (mFormattedStringModel == null) {
+            mFormattedStringModel = new FormattedStringModel(mContext);
+        }
+        return mFormattedStringModel;
+    }
+
+    /**
+     * @return the model of periodic callbacks, created with its time receiver on first use
+     */
+    private PeriodicCallbackModel getPeriodicCallbackModel() {
+        if (mPeriodicCallbackModel == null) {
+            mPeriodicCallbackModel = new PeriodicCallbackModel(mContext);
+        }
+        return mPeriodicCallbackModel;
     }
 
     // **************
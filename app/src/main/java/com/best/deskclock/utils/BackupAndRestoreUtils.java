@@ -15,36 +15,44 @@ import static com.best.deskclock.data.TimerDAO.TIMER_IDS;
 import static com.best.deskclock.settings.PreferencesKeys.KEY_DEFAULT_ALARM_RINGTONE;
 import static com.best.deskclock.settings.PreferencesKeys.KEY_TIMER_RINGTONE;
 
+import android.content.ContentProviderOperation;
 import android.content.ContentResolver;
+import android.content.ContentUris;
 import android.content.Context;
+import android.content.OperationApplicationException;
 import android.content.SharedPreferences;
 import android.database.Cursor;
 import android.media.RingtoneManager;
 import android.net.Uri;
+import android.os.RemoteException;
 import android.provider.MediaStore;
+import android.text.TextUtils;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.JsonWriter;
 
 import com.best.deskclock.R;
 import com.best.deskclock.alarms.AlarmStateManager;
 import com.best.deskclock.data.Weekdays;
 import com.best.deskclock.provider.Alarm;
 import com.best.deskclock.provider.AlarmInstance;
-
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.best.deskclock.provider.ClockContract;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -54,320 +62,393 @@ import java.util.Set;
  */
 public class BackupAndRestoreUtils {
 
+    private static final String BOOLEAN_SETTINGS = "Boolean settings";
+    private static final String STRING_SETTINGS = "String settings";
+    private static final String INTEGER_SETTINGS = "Integer settings";
+    private static final String LONG_SETTINGS = "Long settings";
+    private static final String TIMERS_IDS = "Timers IDs";
+    private static final String ALARMS = "Alarms";
+    private static final String ALARMS_WITH_SPECIFIED_DATE = "Alarms with specified date";
+
     /**
      * Read and export values in SharedPreferences to a file.
+     * <p>
+     * The values are streamed to the file straight from the given settings rather than built up
+     * in memory.
      */
     public static void settingsToJsonStream(Context context, SharedPreferences prefs,
                                             Map<String, ?> settings, OutputStream out) {
 
-        Map<String, Boolean> booleans = new HashMap<>();
-        Map<String, String> strings = new HashMap<>();
-        Map<String, Integer> ints = new HashMap<>();
-        Map<String, Long> longs = new HashMap<>();
-        Set<String> timerIds = prefs.getStringSet(TIMER_IDS, Collections.emptySet());
-
-        for (Map.Entry<String, ?> entry : settings.entrySet()) {
-            if (entry.getKey() != null) {
-                String key = entry.getKey();
-
-                // Exclude keys from custom ringtones as this causes bugs when restoring.
-                // Also, exclude the selected alarm ringtone.
-                if (RINGTONE_IDS.equals(key) || key.startsWith(RINGTONE_URI) || NEXT_RINGTONE_ID.equals(key)
-                        || key.startsWith(RINGTONE_TITLE) || KEY_SELECTED_ALARM_RINGTONE_URI.equals(key)) {
-                    continue;
-                }
-
-                if (entry.getValue() instanceof Boolean) {
-                    booleans.put(entry.getKey(), prefs.getBoolean(entry.getKey(), (Boolean) entry.getValue()));
-                } else if (entry.getValue() instanceof String) {
-                    // Exclude these keys if the URI does not match a system ringtone
-                    if (KEY_TIMER_RINGTONE.equals(key) || KEY_DEFAULT_ALARM_RINGTONE.equals(key)) {
-                        String value = prefs.getString(key, (String) entry.getValue());
-                        Uri uri = Uri.parse(value);
-                        if (isNotSystemRingtone(uri)) {
-                            continue;
-                        }
-                    }
-
-                    strings.put(entry.getKey(), prefs.getString(entry.getKey(), (String) entry.getValue()));
-                } else if (entry.getValue() instanceof Integer) {
-                    ints.put(entry.getKey(), prefs.getInt(entry.getKey(), (Integer) entry.getValue()));
-                } else if (entry.getValue() instanceof Long) {
-                    longs.put(entry.getKey(), prefs.getLong(entry.getKey(), (Long) entry.getValue()));
-                }
-            }
-        }
+        final Set<String> timerIds = prefs.getStringSet(TIMER_IDS, Collections.emptySet());
+        final List<Alarm> alarms = Alarm.getAlarms(context.getContentResolver(), null);
 
-        try {
-            JSONObject jsonObject = new JSONObject();
+        try (JsonWriter writer = new JsonWriter(
+                new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)))) {
 
-            // Convert the Map of booleans to a JSONObject
-            jsonObject.put("Boolean settings", convertMapToJsonObject(booleans));
+            writer.setIndent("    ");
+            writer.beginObject();
 
-            // Convert the Map of strings to a JSONObject
-            jsonObject.put("String settings", convertMapToJsonObject(strings));
+            writer.name(BOOLEAN_SETTINGS);
+            writeSettings(writer, settings, Boolean.class);
 
-            // Convert the Map of integers to a JSONObject
-            jsonObject.put("Integer settings", convertMapToJsonObject(ints));
+            writer.name(STRING_SETTINGS);
+            writeSettings(writer, settings, String.class);
 
-            // Convert the Map of longs to a JSONObject
-            jsonObject.put("Long settings", convertMapToJsonObject(longs));
+            writer.name(INTEGER_SETTINGS);
+            writeSettings(writer, settings, Integer.class);
 
-            // Convert the Map of timers IDs to a JSONArray
-            jsonObject.put("Timers IDs", new JSONArray(timerIds));
+            writer.name(LONG_SETTINGS);
+            writeSettings(writer, settings, Long.class);
 
-            // Convert the alarms to a JSONArray
-            JSONArray alarmsArray = new JSONArray();
-            JSONArray alarmsWithDateArray = new JSONArray();
+            writer.name(TIMERS_IDS).beginArray();
+            for (String timerId : timerIds) {
+                writer.value(timerId);
+            }
+            writer.endArray();
 
-            List<Alarm> alarms = Alarm.getAlarms(context.getContentResolver(), null);
+            // Alarms with a specified date are stored separately along with their date.
+            writer.name(ALARMS).beginArray();
             for (Alarm alarm : alarms) {
-                JSONObject alarmObject = new JSONObject();
-
-                alarmObject.put("id", alarm.id);
-                alarmObject.put("enabled", alarm.enabled);
-                alarmObject.put("hour", alarm.hour);
-                alarmObject.put("minutes", alarm.minutes);
-                alarmObject.put("dismissAlarmWhenRingtoneEnds", alarm.dismissAlarmWhenRingtoneEnds);
-                alarmObject.put("alarmSnoozeActions", alarm.alarmSnoozeActions);
-                alarmObject.put("vibrate", alarm.vibrate);
-                alarmObject.put("flash", alarm.flash);
-                alarmObject.put("daysOfWeek", alarm.daysOfWeek.getBits());
-                alarmObject.put("label", alarm.label);
-                alarmObject.put("alert", alarm.alert);
-                alarmObject.put("deleteAfterUse", alarm.deleteAfterUse);
-                alarmObject.put("increasingVolume", alarm.increasingVolume);
-
                 if (alarm.daysOfWeek.isRepeating() || !alarm.isSpecifiedDate()) {
-                    alarmsArray.put(alarmObject);
-                } else {
-                    alarmObject.put("year", alarm.year);
-                    alarmObject.put("month", alarm.month);
-                    alarmObject.put("day", alarm.day);
-
-                    alarmsWithDateArray.put(alarmObject);
+                    writeAlarm(writer, alarm, false);
                 }
             }
+            writer.endArray();
 
-            jsonObject.put("Alarms", alarmsArray);
-
-            jsonObject.put("Alarms with specified date", alarmsWithDateArray);
+            writer.name(ALARMS_WITH_SPECIFIED_DATE).beginArray();
+            for (Alarm alarm : alarms) {
+                if (!alarm.daysOfWeek.isRepeating() && alarm.isSpecifiedDate()) {
+                    writeAlarm(writer, alarm, true);
+                }
+            }
+            writer.endArray();
 
-            out.write(jsonObject.toString(4).getBytes(StandardCharsets.UTF_8));
-            out.close();
-        } catch (JSONException e) {
-            LogUtils.e("JSON parsing error", e);
+            writer.endObject();
         } catch (IOException e) {
             LogUtils.e("Error writing to file", e);
         }
     }
 
     /**
-     * Helper method to convert a Map to JSONObject.
+     * Write the settings of the given type as a JSON object.
      */
-    private static JSONObject convertMapToJsonObject(Map<String, ?> map) throws JSONException {
-        JSONObject jsonObject = new JSONObject();
-        for (Map.Entry<String, ?> entry : map.entrySet()) {
-            Object value = entry.getValue();
-            if (value instanceof Boolean) {
-                jsonObject.put(entry.getKey(), value);
-            } else if (value instanceof String) {
-                jsonObject.put(entry.getKey(), value);
-            } else if (value instanceof Integer) {
-                jsonObject.put(entry.getKey(), value);
-            } else if (value instanceof Long) {
-                jsonObject.put(entry.getKey(), value);
-            } else if (value instanceof Set<?> set) {
-                if (!set.isEmpty() && set.iterator().next() instanceof String) {
-                    jsonObject.put(entry.getKey(), new JSONArray(set));
-                } else {
-                    LogUtils.w("Expected Set<String>, but got: " + set.getClass().getName());
-                }
+    private static void writeSettings(JsonWriter writer, Map<String, ?> settings, Class<?> type)
+            throws IOException {
+
+        writer.beginObject();
+        for (Map.Entry<String, ?> entry : settings.entrySet()) {
+            final String key = entry.getKey();
+            final Object value = entry.getValue();
+            if (key == null || !type.isInstance(value) || isExcludedFromBackup(key, value)) {
+                continue;
             }
+
+            if (value instanceof Boolean booleanValue) {
+                writer.name(key).value(booleanValue);
+            } else if (value instanceof String stringValue) {
+                writer.name(key).value(stringValue);
+            } else if (value instanceof Number numberValue) {
+                writer.name(key).value(numberValue);
+            }
+        }
+        writer.endObject();
+    }
+
+    /**
+     * @return {@code true} if the setting must not be backed up. {@code false} otherwise.
+     */
+    private static boolean isExcludedFromBackup(String key, Object value) {
+        // Exclude keys from custom ringtones as this causes bugs when restoring.
+        // Also, exclude the selected alarm ringtone.
+        if (RINGTONE_IDS.equals(key) || key.startsWith(RINGTONE_URI) || NEXT_RINGTONE_ID.equals(key)
+                || key.startsWith(RINGTONE_TITLE) || KEY_SELECTED_ALARM_RINGTONE_URI.equals(key)) {
+            return true;
+        }
+
+        // Exclude these keys if the URI does not match a system ringtone
+        return isRingtoneKey(key) && value instanceof String uri && isNotSystemRingtone(Uri.parse(uri));
+    }
+
+    /**
+     * Write the data of an alarm as a JSON object.
+     */
+    private static void writeAlarm(JsonWriter writer, Alarm alarm, boolean hasSpecifiedDate)
+            throws IOException {
+
+        writer.beginObject();
+        writer.name("id").value(alarm.id);
+        writer.name("enabled").value(alarm.enabled);
+        writer.name("hour").value(alarm.hour);
+        writer.name("minutes").value(alarm.minutes);
+        writer.name("dismissAlarmWhenRingtoneEnds").value(alarm.dismissAlarmWhenRingtoneEnds);
+        writer.name("alarmSnoozeActions").value(alarm.alarmSnoozeActions);
+        writer.name("vibrate").value(alarm.vibrate);
+        writer.name("flash").value(alarm.flash);
+        writer.name("daysOfWeek").value(alarm.daysOfWeek.getBits());
+        writer.name("label").value(alarm.label);
+        if (alarm.alert != null) {
+            writer.name("alert").value(alarm.alert.toString());
         }
-        return jsonObject;
+        writer.name("deleteAfterUse").value(alarm.deleteAfterUse);
+        writer.name("increasingVolume").value(alarm.increasingVolume);
+
+        if (hasSpecifiedDate) {
+            writer.name("year").value(alarm.year);
+            writer.name("month").value(alarm.month);
+            writer.name("day").value(alarm.day);
+        }
+        writer.endObject();
     }
 
     /**
      * Read and apply values to restore in SharedPreferences.
+     * <p>
+     * The file is streamed rather than loaded in memory, and nothing is changed unless it is read
+     * entirely. The settings are then committed at once, the alarms are replaced in a single
+     * database transaction and the restored alarms are scheduled at the end.
      */
     public static void readJson(Context context, SharedPreferences prefs, InputStream inputStream) {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
-        SharedPreferences.Editor editor = prefs.edit();
+        final SharedPreferences.Editor editor = prefs.edit();
+        final Map<String, String> ringtoneSettings = new HashMap<>();
+        final List<Alarm> restoredAlarms = new ArrayList<>();
 
         // Do not reset the KEY_IS_FIRST_LAUNCH key to prevent the "FirstLaunch" activity from reappearing.
         // Also, exclude keys corresponding to custom ringtones and the selected alarm ringtone,
         // as this causes bugs for alarms.
-        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
-            String key = entry.getKey();
-
-            if (!entry.getKey().equals(KEY_IS_FIRST_LAUNCH) &&
+        for (String key : prefs.getAll().keySet()) {
+            if (!key.equals(KEY_IS_FIRST_LAUNCH) &&
                     !key.startsWith(RINGTONE_URI) &&
                     !RINGTONE_IDS.equals(key) &&
                     !NEXT_RINGTONE_ID.equals(key) &&
                     !key.startsWith(RINGTONE_TITLE) &&
                     !KEY_SELECTED_ALARM_RINGTONE_URI.equals(key)) {
                 editor.remove(key);
-                editor.apply();
             }
         }
 
-        try {
-            StringBuilder jsonBuilder = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                jsonBuilder.append(line);
-            }
-
-            JSONObject jsonObject = new JSONObject(jsonBuilder.toString());
+        try (JsonReader reader = new JsonReader(
+                new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)))) {
 
-            JSONObject booleans = jsonObject.getJSONObject("Boolean settings");
-            for (Iterator<String> it = booleans.keys(); it.hasNext();) {
-                String key = it.next();
-                boolean value = booleans.getBoolean(key);
-                editor.putBoolean(key, value);
-            }
-
-            JSONObject strings = jsonObject.getJSONObject("String settings");
-            for (Iterator<String> it = strings.keys(); it.hasNext();) {
-                String key = it.next();
-                String value = strings.getString(key);
-
-                if (isRingtoneKey(key)) {
-                    if (!isRingtoneAvailable(context, value)) {
-                        if (KEY_TIMER_RINGTONE.equals(key)) {
-                            editor.putString(key, RingtoneUtils.getResourceUri(context, R.raw.timer_expire).toString());
-                        } else if (KEY_DEFAULT_ALARM_RINGTONE.equals(key)) {
-                            editor.putString(key, RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM).toString());
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case BOOLEAN_SETTINGS -> {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            editor.putBoolean(reader.nextName(), reader.nextBoolean());
                         }
-                    } else {
-                        editor.putString(key, value);
+                        reader.endObject();
                     }
-                } else {
-                    editor.putString(key, value);
+                    case STRING_SETTINGS -> {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            final String key = reader.nextName();
+                            final String value = reader.nextString();
+                            // Ringtones are restored once their availability is checked.
+                            if (isRingtoneKey(key)) {
+                                ringtoneSettings.put(key, value);
+                            } else {
+                                editor.putString(key, value);
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    case INTEGER_SETTINGS -> {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            editor.putInt(reader.nextName(), reader.nextInt());
+                        }
+                        reader.endObject();
+                    }
+                    case LONG_SETTINGS -> {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            editor.putLong(reader.nextName(), reader.nextLong());
+                        }
+                        reader.endObject();
+                    }
+                    case TIMERS_IDS -> {
+                        final Set<String> timerIds = new HashSet<>();
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            timerIds.add(reader.nextString());
+                        }
+                        reader.endArray();
+                        editor.putStringSet(TIMER_IDS, timerIds);
+                    }
+                    case ALARMS, ALARMS_WITH_SPECIFIED_DATE -> {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            restoredAlarms.add(readAlarm(reader));
+                        }
+                        reader.endArray();
+                    }
+                    default -> reader.skipValue();
                 }
             }
+            reader.endObject();
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            LogUtils.e("Error during restore", e);
+            return;
+        }
 
-            JSONObject integers = jsonObject.getJSONObject("Integer settings");
-            for (Iterator<String> it = integers.keys(); it.hasNext();) {
-                String key = it.next();
-                int value = integers.getInt(key);
-                editor.putInt(key, value);
-            }
-
-            JSONObject longs = jsonObject.getJSONObject("Long settings");
-            for (Iterator<String> it = longs.keys(); it.hasNext();) {
-                String key = it.next();
-                long value = longs.getLong(key);
-                editor.putLong(key, value);
-            }
-
-            if (jsonObject.has("Timers IDs")) {
-                JSONArray timerIdsArray = jsonObject.getJSONArray("Timers IDs");
-                Set<String> timerIds = new HashSet<>();
-                for (int i = 0; i < timerIdsArray.length(); i++) {
-                    timerIds.add(timerIdsArray.getString(i));
-                }
-                editor.putStringSet(TIMER_IDS, timerIds);
+        // Check whether all the referenced ringtones are available on this device at once.
+        final RingtoneAvailabilityChecker checker = new RingtoneAvailabilityChecker(context);
+        final Set<Uri> ringtoneUris = new HashSet<>();
+        for (String value : ringtoneSettings.values()) {
+            ringtoneUris.add(Uri.parse(value));
+        }
+        for (Alarm alarm : restoredAlarms) {
+            if (isSystemRingtoneToCheck(alarm.alert)) {
+                ringtoneUris.add(alarm.alert);
             }
+        }
+        checker.check(ringtoneUris);
 
-            editor.apply();
-
-            final ContentResolver contentResolver = context.getContentResolver();
-            // Clear the alarm list before restoring to avoid adding duplicates
-            final List<Alarm> alarms = Alarm.getAlarms(contentResolver, null);
-            for (Alarm alarm : alarms) {
-                AlarmStateManager.deleteAllInstances(context, alarm.id);
-                Alarm.deleteAlarm(contentResolver, alarm.id);
-            }
+        for (Map.Entry<String, String> entry : ringtoneSettings.entrySet()) {
+            restoreRingtoneSetting(context, editor, checker, entry.getKey(), entry.getValue());
+        }
 
-            if (jsonObject.has("Alarms")) {
-                JSONArray alarmsArray = jsonObject.getJSONArray("Alarms");
-                for (int i = 0; i < alarmsArray.length(); i++) {
-                    JSONObject alarmObject = alarmsArray.getJSONObject(i);
-                    restoreAlarm(context, contentResolver, alarmObject, false);
-                }
+        // Custom ringtones cause problems during restoration, so they are replaced as well.
+        for (Alarm alarm : restoredAlarms) {
+            if (!RingtoneUtils.isRandomRingtone(alarm.alert)
+                    && !RingtoneUtils.isRandomCustomRingtone(alarm.alert)
+                    && (isNotSystemRingtone(alarm.alert) || !checker.isAvailable(alarm.alert))) {
+                alarm.alert = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM);
             }
+        }
 
-            if (jsonObject.has("Alarms with specified date")) {
-                JSONArray alarmsWithDateArray = jsonObject.getJSONArray("Alarms with specified date");
-                for (int i = 0; i < alarmsWithDateArray.length(); i++) {
-                    JSONObject alarmObject = alarmsWithDateArray.getJSONObject(i);
-                    restoreAlarm(context, contentResolver, alarmObject, true);
-                }
-            }
-        } catch (IOException | JSONException e) {
-            LogUtils.e("Error during restore", e);
-        } finally {
-            try {
-                reader.close();
-            } catch (IOException e) {
-                LogUtils.e("Error closing reader", e);
-            }
+        if (!editor.commit()) {
+            LogUtils.e("Error committing the restored settings");
         }
+
+        restoreAlarms(context, restoredAlarms);
     }
 
     /**
-     * Restore alarm data.
-     * If the alarm is enabled, a future instance will be scheduled.
+     * Restore a ringtone setting, falling back to the default ringtone if the ringtone is not
+     * available on this device.
      */
-    private static void restoreAlarm(Context context, ContentResolver contentResolver,
-                                     JSONObject alarmObject, boolean hasSpecifiedDate) throws JSONException {
-
-        long id = alarmObject.getLong("id");
-        boolean enabled = alarmObject.getBoolean("enabled");
-        int hour = alarmObject.getInt("hour");
-        int minutes = alarmObject.getInt("minutes");
-        boolean dismissAlarmWhenRingtoneEnds = alarmObject.getBoolean("dismissAlarmWhenRingtoneEnds");
-        boolean alarmSnoozeActions = alarmObject.getBoolean("alarmSnoozeActions");
-        boolean vibrate = alarmObject.getBoolean("vibrate");
-        boolean flash = alarmObject.getBoolean("flash");
-        int daysOfWeek = alarmObject.getInt("daysOfWeek");
-        String label = alarmObject.getString("label");
-        String alert = alarmObject.getString("alert");
-        boolean deleteAfterUse = alarmObject.getBoolean("deleteAfterUse");
-        boolean increasingVolume = alarmObject.getBoolean("increasingVolume");
-
-        String alarmRingtone;
-        if (RingtoneUtils.isRandomRingtone(Uri.parse(alert))) {
-            alarmRingtone = RingtoneUtils.RANDOM_RINGTONE.toString();
-        } else if (RingtoneUtils.isRandomCustomRingtone(Uri.parse(alert))) {
-            alarmRingtone = RingtoneUtils.RANDOM_CUSTOM_RINGTONE.toString();
-        } else if (!isNotSystemRingtone(Uri.parse(alert)) && isRingtoneAvailable(context, alert)) {
-            alarmRingtone = alert;
+    private static void restoreRingtoneSetting(Context context, SharedPreferences.Editor editor,
+                                               RingtoneAvailabilityChecker checker, String key, String value) {
+
+        if (!checker.isAvailable(Uri.parse(value))) {
+            if (KEY_TIMER_RINGTONE.equals(key)) {
+                editor.putString(key, RingtoneUtils.getResourceUri(context, R.raw.timer_expire).toString());
+            } else if (KEY_DEFAULT_ALARM_RINGTONE.equals(key)) {
+                editor.putString(key, RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM).toString());
+            }
         } else {
-            alarmRingtone = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM).toString();
+            editor.putString(key, value);
         }
+    }
 
-        Alarm restoredAlarm;
-
-        int year;
-        int month;
-        int day;
+    /**
+     * Read the data of an alarm.
+     * If the alarm has no specified date, its date is set to today. Its ringtone is checked
+     * afterward along with all the other ringtones of the backup.
+     */
+    private static Alarm readAlarm(JsonReader reader) throws IOException {
+        long id = Alarm.INVALID_ID;
+        boolean enabled = false;
+        int hour = 0;
+        int minutes = 0;
+        boolean dismissAlarmWhenRingtoneEnds = false;
+        boolean alarmSnoozeActions = false;
+        boolean vibrate = false;
+        boolean flash = false;
+        int daysOfWeek = 0;
+        String label = "";
+        String alert = null;
+        boolean deleteAfterUse = false;
+        boolean increasingVolume = false;
+
+        Calendar calendar = Calendar.getInstance();
+        int year = calendar.get(Calendar.YEAR);
+        int month = calendar.get(Calendar.MONTH);
+        int day = calendar.get(Calendar.DAY_OF_MONTH);
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
 
-        if (hasSpecifiedDate) {
-            year = alarmObject.getInt("year");
-            month = alarmObject.getInt("month");
-            day = alarmObject.getInt("day");
-        } else {
-            Calendar calendar = Calendar.getInstance();
-            year = calendar.get(Calendar.YEAR);
-            month = calendar.get(Calendar.MONTH);
-            day = calendar.get(Calendar.DAY_OF_MONTH);
+            switch (name) {
+                case "id" -> id = reader.nextLong();
+                case "enabled" -> enabled = reader.nextBoolean();
+                case "hour" -> hour = reader.nextInt();
+                case "minutes" -> minutes = reader.nextInt();
+                case "dismissAlarmWhenRingtoneEnds" -> dismissAlarmWhenRingtoneEnds = reader.nextBoolean();
+                case "alarmSnoozeActions" -> alarmSnoozeActions = reader.nextBoolean();
+                case "vibrate" -> vibrate = reader.nextBoolean();
+                case "flash" -> flash = reader.nextBoolean();
+                case "daysOfWeek" -> daysOfWeek = reader.nextInt();
+                case "label" -> label = reader.nextString();
+                case "alert" -> alert = reader.nextString();
+                case "deleteAfterUse" -> deleteAfterUse = reader.nextBoolean();
+                case "increasingVolume" -> increasingVolume = reader.nextBoolean();
+                case "year" -> year = reader.nextInt();
+                case "month" -> month = reader.nextInt();
+                case "day" -> day = reader.nextInt();
+                default -> reader.skipValue();
+            }
         }
+        reader.endObject();
+
+        final String alarmRingtone = alert == null
+                ? RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM).toString()
+                : alert;
 
-        restoredAlarm = new Alarm(id, enabled, year, month, day, hour, minutes,
+        return new Alarm(id, enabled, year, month, day, hour, minutes,
                 dismissAlarmWhenRingtoneEnds, alarmSnoozeActions, vibrate, flash,
                 Weekdays.fromBits(daysOfWeek), label, alarmRingtone, deleteAfterUse, increasingVolume);
+    }
 
-        Alarm.addAlarm(contentResolver, restoredAlarm);
+    /**
+     * Replace all alarms with the restored ones in a single database transaction.
+     * A future instance is created for each enabled alarm, and all of them are scheduled once
+     * the transaction is committed.
+     */
+    private static void restoreAlarms(Context context, List<Alarm> restoredAlarms) {
+        final ContentResolver contentResolver = context.getContentResolver();
+        final Calendar now = Calendar.getInstance();
+        final ArrayList<ContentProviderOperation> operations = new ArrayList<>();
+
+        // Clear the alarm list before restoring to avoid adding duplicates
+        operations.add(ContentProviderOperation.newDelete(AlarmInstance.CONTENT_URI).build());
+        operations.add(ContentProviderOperation.newDelete(Alarm.CONTENT_URI).build());
+
+        for (Alarm alarm : restoredAlarms) {
+            final int alarmIndex = operations.size();
+            operations.add(ContentProviderOperation.newInsert(Alarm.CONTENT_URI)
+                    .withValues(Alarm.createContentValues(alarm))
+                    .build());
+
+            if (alarm.enabled) {
+                // The alarm may be inserted with another id; refer to the one it is given.
+                final AlarmInstance alarmInstance = alarm.createInstanceAfter(now);
+                operations.add(ContentProviderOperation.newInsert(AlarmInstance.CONTENT_URI)
+                        .withValues(AlarmInstance.createContentValues(alarmInstance))
+                        .withValueBackReference(AlarmInstance.ALARM_ID, alarmIndex)
+                        .build());
+            }
+        }
 
-        if (restoredAlarm.enabled) {
-            AlarmInstance alarmInstance = restoredAlarm.createInstanceAfter(Calendar.getInstance());
-            AlarmInstance.addInstance(contentResolver, alarmInstance);
-            AlarmStateManager.registerInstance(context, alarmInstance, true);
-            LogUtils.i("BackupAndRestoreUtils scheduled alarm instance: %s", alarmInstance);
+        // The existing instances are about to be deleted, so remove their notifications and timers.
+        AlarmStateManager.unregisterAllInstances(context);
+
+        try {
+            contentResolver.applyBatch(ClockContract.AUTHORITY, operations);
+        } catch (OperationApplicationException | RemoteException e) {
+            LogUtils.e("Error restoring alarms", e);
         }
+
+        // Schedule all the restored instances and update the next alarm once.
+        AlarmStateManager.fixAlarmInstances(context);
+        LogUtils.i("BackupAndRestoreUtils restored %d alarms", restoredAlarms.size());
     }
 
     /**
@@ -391,35 +472,124 @@ public class BackupAndRestoreUtils {
     }
 
     /**
-     * @return {@code true} if a ringtone is available in the device. {@code false} otherwise.
-     * Useful when restoring between different devices.
+     * @return {@code true} if the alarm ringtone must be available in the device to be restored.
+     * {@code false} otherwise.
+     */
+    private static boolean isSystemRingtoneToCheck(Uri uri) {
+        return !RingtoneUtils.isRandomRingtone(uri)
+                && !RingtoneUtils.isRandomCustomRingtone(uri)
+                && !isNotSystemRingtone(uri);
+    }
+
+    /**
+     * Checks whether ringtones are available in the device, which is useful when restoring
+     * between different devices.
+     * <p>
+     * The ringtones are checked in batches: the media rows of all ringtones from the same
+     * collection are read with a single query that only projects their file path. Each result is
+     * remembered, so that a ringtone referenced several times in a backup is only checked once.
      */
-    private static boolean isRingtoneAvailable(Context context, String ringtoneUriString) {
-        Uri ringtoneUri = Uri.parse(ringtoneUriString);
+    private static final class RingtoneAvailabilityChecker {
+
+        /**
+         * The maximum number of ids bound in a single query, below the SQLite variable limit.
+         */
+        private static final int MAX_IDS_PER_QUERY = 500;
+
+        private static final String[] PROJECTION = {MediaStore.Audio.Media._ID, MediaStore.Audio.Media.DATA};
+
+        private final ContentResolver mContentResolver;
+
+        /**
+         * Whether each checked ringtone is available.
+         */
+        private final Map<Uri, Boolean> mAvailability = new HashMap<>();
 
-        // Check if the URI is of type "content" or "file"
-        if ("content".equals(ringtoneUri.getScheme()) || "file".equals(ringtoneUri.getScheme())) {
-            try {
-                if ("content".equals(ringtoneUri.getScheme())) {
+        RingtoneAvailabilityChecker(Context context) {
+            mContentResolver = context.getContentResolver();
+        }
+
+        /**
+         * @return {@code true} if the ringtone is available in the device. {@code false} otherwise.
+         */
+        boolean isAvailable(Uri ringtoneUri) {
+            Boolean available = mAvailability.get(ringtoneUri);
+            if (available == null) {
+                check(Collections.singleton(ringtoneUri));
+                available = mAvailability.get(ringtoneUri);
+            }
+            return Boolean.TRUE.equals(available);
+        }
+
+        /**
+         * Checks the given ringtones that were not checked yet.
+         */
+        void check(Collection<Uri> ringtoneUris) {
+            // Group the media rows by collection so that each collection is queried once.
+            final Map<Uri, List<Uri>> rowsByCollection = new HashMap<>();
+
+            for (Uri ringtoneUri : ringtoneUris) {
+                if (mAvailability.containsKey(ringtoneUri)) {
+                    continue;
+                }
+
+                final String scheme = ringtoneUri.getScheme();
+                if (ContentResolver.SCHEME_FILE.equals(scheme)) {
+                    // For URI file:// (local files on the system)
+                    final String path = ringtoneUri.getPath();
+                    mAvailability.put(ringtoneUri, path != null && new File(path).exists());
+                } else if (ContentResolver.SCHEME_CONTENT.equals(scheme)) {
                     // For URI content:// (managed by ContentResolver)
-                    try (Cursor cursor = context.getContentResolver().query(ringtoneUri, null,
-                            null, null, null)) {
-                        if (cursor != null && cursor.moveToFirst()) {
-                            int columnIndex = cursor.getColumnIndex(MediaStore.Audio.Media.DATA);
-
-                            if (columnIndex != -1) {
-                                String filePath = cursor.getString(columnIndex);
-                                File file = new File(filePath);
-                                return file.exists();
-                            }
+                    final Uri collectionUri = getCollectionUri(ringtoneUri);
+                    if (collectionUri == null) {
+                        mAvailability.put(ringtoneUri, queryFileExists(ringtoneUri));
+                    } else {
+                        List<Uri> rows = rowsByCollection.get(collectionUri);
+                        if (rows == null) {
+                            rows = new ArrayList<>();
+                            rowsByCollection.put(collectionUri, rows);
                         }
+                        rows.add(ringtoneUri);
                     }
-                } else if ("file".equals(ringtoneUri.getScheme())) {
-                    // For URI file:// (local files on the system)
-                    String path = ringtoneUri.getPath();
-                    if (path != null) {
-                        File file = new File(path);
-                        return file.exists();
+                } else {
+                    mAvailability.put(ringtoneUri, false);
+                }
+            }
+
+            for (Map.Entry<Uri, List<Uri>> entry : rowsByCollection.entrySet()) {
+                final List<Uri> rows = entry.getValue();
+                for (int start = 0; start < rows.size(); start += MAX_IDS_PER_QUERY) {
+                    checkRows(entry.getKey(), rows.subList(start, Math.min(rows.size(), start + MAX_IDS_PER_QUERY)));
+                }
+            }
+        }
+
+        /**
+         * Checks the given media rows of a collection with a single query.
+         */
+        private void checkRows(Uri collectionUri, List<Uri> rows) {
+            final Map<Long, Uri> rowsById = new HashMap<>();
+            final StringBuilder selection = new StringBuilder(MediaStore.Audio.Media._ID + " IN (");
+            final String[] selectionArgs = new String[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                final Uri row = rows.get(i);
+                final long id = ContentUris.parseId(row);
+                rowsById.put(id, row);
+                mAvailability.put(row, false);
+                selection.append(i == 0 ? "?" : ",?");
+                selectionArgs[i] = String.valueOf(id);
+            }
+            selection.append(')');
+
+            try (Cursor cursor = mContentResolver.query(collectionUri, PROJECTION,
+                    selection.toString(), selectionArgs, null)) {
+                if (cursor != null) {
+                    while (cursor.moveToNext()) {
+                        final Uri row = rowsById.get(cursor.getLong(0));
+                        final String filePath = cursor.getString(1);
+                        if (row != null && filePath != null) {
+                            mAvailability.put(row, new File(filePath).exists());
+                        }
                     }
                 }
             } catch (Exception e) {
@@ -427,7 +597,46 @@ public class BackupAndRestoreUtils {
             }
         }
 
-        return false;
+        /**
+         * @return {@code true} if the file of the content at the given URI exists.
+         * {@code false} otherwise.
+         */
+        private boolean queryFileExists(Uri ringtoneUri) {
+            try (Cursor cursor = mContentResolver.query(ringtoneUri,
+                    new String[] {MediaStore.Audio.Media.DATA}, null, null, null)) {
+                if (cursor != null && cursor.moveToFirst()) {
+                    final String filePath = cursor.getString(0);
+                    return filePath != null && new File(filePath).exists();
+                }
+            } catch (Exception e) {
+                LogUtils.e("Error checking ringtone availability", e);
+            }
+            return false;
+        }
+
+        /**
+         * @return the URI of the media collection containing the given row, e.g.
+         * {@code content://media/internal/audio/media} for {@code content://media/internal/audio/media/42};
+         * {@code null} if the URI does not point to a media row.
+         */
+        private static Uri getCollectionUri(Uri ringtoneUri) {
+            if (!MediaStore.AUTHORITY.equals(ringtoneUri.getAuthority())) {
+                return null;
+            }
+
+            final List<String> segments = ringtoneUri.getPathSegments();
+            if (segments.size() < 2 || !TextUtils.isDigitsOnly(segments.get(segments.size() - 1))) {
+                return null;
+            }
+
+            final Uri.Builder builder = new Uri.Builder()
+                    .scheme(ContentResolver.SCHEME_CONTENT)
+                    .authority(MediaStore.AUTHORITY);
+            for (String segment : segments.subList(0, segments.size() - 1)) {
+                builder.appendPath(segment);
+            }
+            return builder.build();
+        }
     }
 
 }
@@ -6,8 +6,6 @@
 
 package com.best.deskclock.widget.selector;
 
-import static com.best.deskclock.DeskClockApplication.getDefaultSharedPreferences;
-
 import android.content.Context;
 import android.text.format.DateFormat;
 import android.view.LayoutInflater;
@@ -20,7 +18,7 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.best.deskclock.R;
-import com.best.deskclock.data.SettingsDAO;
+import com.best.deskclock.data.Settings;
 import com.best.deskclock.data.Weekdays;
 import com.best.deskclock.provider.Alarm;
 import com.best.deskclock.utils.ThemeUtils;
@@ -100,7 +98,7 @@ public class AlarmSelectionAdapter extends RecyclerView.Adapter<AlarmSelectionAd
 
             // Find days when alarm is firing
             if (alarm.daysOfWeek.isRepeating()) {
-                final Weekdays.Order weekdayOrder = SettingsDAO.getWeekdayOrder(getDefaultSharedPreferences(context));
+                final Weekdays.Order weekdayOrder = Settings.get(context).getWeekdayOrder();
                 final String daysOfWeekText = alarm.daysOfWeek.toString(context, weekdayOrder);
                 daysOfWeekView.setText(daysOfWeekText);
 